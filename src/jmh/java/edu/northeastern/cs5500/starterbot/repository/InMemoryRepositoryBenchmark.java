@@ -0,0 +1,117 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import edu.northeastern.cs5500.starterbot.model.User;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the in-memory repository under a read-heavy and a write-heavy load. Each load is
+ * run at 1, 4, 16 and 32 threads, all sharing one repository, to show how it scales with the
+ * number of JDA event threads. Run with ./gradlew jmh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InMemoryRepositoryBenchmark {
+    static final int USERS = 10_000;
+    static final String DISCORD_USER_ID_FIELD = "discordUserId";
+    static final String CITY_OF_RESIDENCE_FIELD = "cityOfResidence";
+
+    InMemoryRepository<User> repository;
+
+    @Setup
+    public void populateRepository() {
+        repository = new InMemoryRepository<>();
+        for (int i = 0; i < USERS; i++) {
+            var user = new User();
+            user.setDiscordUserId(discordUserId(i));
+            repository.add(user);
+        }
+        // Build the index up front so it is not part of the measurement
+        repository.findOne(DISCORD_USER_ID_FIELD, discordUserId(0));
+    }
+
+    private static String discordUserId(int i) {
+        return "user" + i;
+    }
+
+    private static String randomDiscordUserId() {
+        return discordUserId(ThreadLocalRandom.current().nextInt(USERS));
+    }
+
+    /** Looks up a random user, like the commands do on every interaction. */
+    private User read() {
+        return repository.findOne(DISCORD_USER_ID_FIELD, randomDiscordUserId());
+    }
+
+    /** Changes the city of a random user, like the location menus do. */
+    private boolean write() {
+        return repository.updateField(
+                DISCORD_USER_ID_FIELD,
+                randomDiscordUserId(),
+                CITY_OF_RESIDENCE_FIELD,
+                "city" + ThreadLocalRandom.current().nextInt(100));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public User findOneThreads01() {
+        return read();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public User findOneThreads04() {
+        return read();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public User findOneThreads16() {
+        return read();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public User findOneThreads32() {
+        return read();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean updateFieldThreads01() {
+        return write();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean updateFieldThreads04() {
+        return write();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean updateFieldThreads16() {
+        return write();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public boolean updateFieldThreads32() {
+        return write();
+    }
+}
@@ -0,0 +1,99 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.model.ListingFields;
+import edu.northeastern.cs5500.starterbot.repository.InMemoryRepository;
+import edu.northeastern.cs5500.starterbot.repository.Query;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Search latency as a guild grows. The query matches a fixed number of listings at every size, so
+ * the time per search should stay about the same while the guild gets a hundred times larger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingSearchIndexBenchmark {
+    static final String GUILD_ID = "294764645159495548";
+    static final int MATCHING_LISTINGS = 50;
+    static final String[] WORDS = {
+        "road", "mountain", "bike", "desk", "lamp", "chair", "guitar", "amp", "camera", "lens",
+        "jacket", "boots", "tent", "stove", "kayak", "paddle", "monitor", "keyboard", "mouse",
+        "sofa"
+    };
+
+    @Param({"1000", "10000", "100000"})
+    int guildSize;
+
+    ListingSearchIndex searchIndex;
+
+    @Setup
+    public void createGuild() {
+        var repository = new InMemoryRepository<Listing>();
+        var random = new Random(42);
+        for (int i = 0; i < guildSize; i++) {
+            var title =
+                    WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            repository.add(createListing(i < MATCHING_LISTINGS ? title + " vintage" : title));
+        }
+        searchIndex = new ListingSearchIndex(repository, Runnable::run);
+        // The first search loads the guild
+        searchIndex.search(GUILD_ID, "vintage");
+    }
+
+    private static Listing createListing(String title) {
+        return Listing.builder()
+                .discordUserId("631666734125987209")
+                .guildId(GUILD_ID)
+                .title(title)
+                .url("https://discord.com/channels/294764645159495548")
+                .images(List.of())
+                .fields(
+                        ListingFields.builder()
+                                .cost("$ 10.00")
+                                .shippingIncluded(false)
+                                .condition("Good")
+                                .description("Lightly used")
+                                .datePosted("05/01/2023 10:00:00")
+                                .build())
+                .build();
+    }
+
+    @Benchmark
+    public List<Listing> searchRareTerm() {
+        return searchIndex.search(GUILD_ID, "vintage");
+    }
+
+    @Benchmark
+    public List<Listing> searchRarePrefixWithCommonTerm() {
+        return searchIndex.search(GUILD_ID, "vint bike");
+    }
+
+    // About a tenth of the guild matches, but only one page of it is sorted
+    @Benchmark
+    public ListingPage searchCommonTermFirstPageByPrice() {
+        return searchIndex.search(
+                GUILD_ID,
+                "bike",
+                LocationFilter.ANYWHERE,
+                new ListingSort(ListingSort.Key.PRICE, Query.Order.ASCENDING),
+                0,
+                10);
+    }
+}
@@ -0,0 +1,101 @@
+package edu.northeastern.cs5500.starterbot.service.codec;
+
+import static org.bson.codecs.configuration.CodecRegistries.fromProviders;
+import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
+
+import com.mongodb.MongoClientSettings;
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.model.ListingFields;
+import edu.northeastern.cs5500.starterbot.model.User;
+import edu.northeastern.cs5500.starterbot.service.MongoDBService;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.pojo.PojoCodecProvider;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encode and decode throughput of the hand-written codecs against the reflective POJO codec, for a
+ * User holding a listing draft, which nests every other model but Guild. Run with ./gradlew jmh;
+ * the gc profiler reports the bytes allocated per document as gc.alloc.rate.norm.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelCodecBenchmark {
+    static final EncoderContext ENCODER_CONTEXT =
+            EncoderContext.builder().isEncodingCollectibleDocument(true).build();
+    static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+
+    @Param({"handWritten", "reflective"})
+    String codecType;
+
+    Codec<User> codec;
+    User user;
+    byte[] encodedUser;
+
+    @Setup
+    public void createUser() {
+        if ("handWritten".equals(codecType)) {
+            codec = MongoDBService.createCodecRegistry().get(User.class);
+        } else {
+            codec =
+                    fromRegistries(
+                                    MongoClientSettings.getDefaultCodecRegistry(),
+                                    fromProviders(
+                                            PojoCodecProvider.builder().automatic(true).build()))
+                            .get(User.class);
+        }
+
+        var draft =
+                Listing.builder()
+                        .discordUserId("631666734125987209")
+                        .guildId("294764645159495548")
+                        .title("Road bike, 56cm frame")
+                        .url("https://discord.com/channels/294764645159495548")
+                        .images(List.of("https://cdn.discordapp.com/attachments/1.png"))
+                        .fields(
+                                ListingFields.builder()
+                                        .cost("$ 450.00")
+                                        .shippingIncluded(false)
+                                        .condition("Good")
+                                        .description("Lightly used, new tires")
+                                        .datePosted("05/01/2023 10:00:00")
+                                        .build())
+                        .build();
+        user = new User(new ObjectId(), "631666734125987209", "WA", "Seattle", draft, 0);
+        encodedUser = encodeUser();
+    }
+
+    @Benchmark
+    public byte[] encodeUser() {
+        var buffer = new BasicOutputBuffer();
+        codec.encode(new BsonBinaryWriter(buffer), user, ENCODER_CONTEXT);
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public User decodeUser() {
+        return codec.decode(new BsonBinaryReader(ByteBuffer.wrap(encodedUser)), DECODER_CONTEXT);
+    }
+}
@@ -3,14 +3,63 @@ package edu.northeastern.cs5500.starterbot;
 import static spark.Spark.get;
 import static spark.Spark.port;
 
+import com.google.common.cache.CacheStats;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
 public class App {
 
     public static void main(String[] arg) {
 
-        DaggerBotComponent.create().bot().start();
+        var component = DaggerBotComponent.create();
+        component.bot().start();
 
         port(8080);
 
         get("/", (request, response) -> "{\"status\": \"OK\"}");
+
+        get(
+                "/metrics",
+                (request, response) ->
+                        toJson(
+                                component.searchResultCache().getStats(),
+                                component.repositoryMetrics().getCacheStats(),
+                                component.repositoryMetrics().getCoalescingRatios()));
+    }
+
+    private static String toJson(
+            CacheStats searchResultCacheStats,
+            Map<String, CacheStats> repositoryCacheStats,
+            Map<String, Double> coalescingRatios) {
+        List<String> repositoryCaches = new ArrayList<>();
+        repositoryCacheStats.forEach(
+                (name, stats) ->
+                        repositoryCaches.add(String.format("\"%s\": %s", name, toJson(stats))));
+        List<String> writeBuffers = new ArrayList<>();
+        coalescingRatios.forEach(
+                (name, ratio) ->
+                        writeBuffers.add(
+                                String.format(
+                                        Locale.ROOT,
+                                        "\"%s\": {\"coalescingRatio\": %.4f}",
+                                        name,
+                                        ratio)));
+        return String.format(
+                "{\"searchResultCache\": %s, \"repositoryCaches\": {%s}, \"writeBuffers\": {%s}}",
+                toJson(searchResultCacheStats),
+                String.join(", ", repositoryCaches),
+                String.join(", ", writeBuffers));
+    }
+
+    private static String toJson(CacheStats stats) {
+        return String.format(
+                Locale.ROOT,
+                "{\"hitRate\": %.4f, \"hits\": %d, \"misses\": %d, \"evictions\": %d}",
+                stats.hitRate(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount());
     }
 }
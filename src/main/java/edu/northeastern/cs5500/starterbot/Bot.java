@@ -1,19 +1,38 @@
 package edu.northeastern.cs5500.starterbot;
 
 import dagger.Component;
+import dagger.Lazy;
 import edu.northeastern.cs5500.starterbot.discord.CommandModule;
 import edu.northeastern.cs5500.starterbot.listener.MessageListener;
+import edu.northeastern.cs5500.starterbot.migration.MigrationModule;
+import edu.northeastern.cs5500.starterbot.migration.MigrationRunner;
+import edu.northeastern.cs5500.starterbot.repository.RepositoryBackend;
+import edu.northeastern.cs5500.starterbot.repository.RepositoryMetrics;
 import edu.northeastern.cs5500.starterbot.repository.RepositoryModule;
+import edu.northeastern.cs5500.starterbot.search.SearchModule;
+import edu.northeastern.cs5500.starterbot.search.SearchResultCache;
+import edu.northeastern.cs5500.starterbot.service.MongoDBService;
 import edu.northeastern.cs5500.starterbot.service.ServiceModule;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.requests.restaction.CommandListUpdateAction;
 
-@Component(modules = {CommandModule.class, RepositoryModule.class, ServiceModule.class})
+@Component(
+        modules = {
+            CommandModule.class,
+            MigrationModule.class,
+            RepositoryModule.class,
+            SearchModule.class,
+            ServiceModule.class
+        })
 @Singleton
 interface BotComponent {
     public Bot bot();
+
+    public SearchResultCache searchResultCache();
+
+    public RepositoryMetrics repositoryMetrics();
 }
 
 public class Bot {
@@ -23,12 +42,19 @@ public class Bot {
 
     @Inject JDA jda;
     @Inject MessageListener messageListener;
+    // Lazy so the file backend never connects to MongoDB
+    @Inject Lazy<MongoDBService> mongoDBService;
+    @Inject MigrationRunner migrationRunner;
 
     static String getBotToken() {
         return new ProcessBuilder().environment().get("BOT_TOKEN");
     }
 
     void start() {
+        if (RepositoryBackend.fromEnvironment() == RepositoryBackend.MONGODB) {
+            mongoDBService.get().register();
+        }
+        migrationRunner.runAll();
         jda.addEventListener(messageListener);
         CommandListUpdateAction commands = jda.updateCommands();
         commands.addCommands(messageListener.allCommandData());
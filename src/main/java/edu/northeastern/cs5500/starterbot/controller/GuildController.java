@@ -2,23 +2,38 @@ package edu.northeastern.cs5500.starterbot.controller;
 
 import com.google.common.annotations.VisibleForTesting;
 import edu.northeastern.cs5500.starterbot.model.Guild;
+import edu.northeastern.cs5500.starterbot.model.GuildMembership;
+import edu.northeastern.cs5500.starterbot.model.TradingChannelView;
 import edu.northeastern.cs5500.starterbot.repository.GenericRepository;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import org.bson.types.ObjectId;
 
 @Singleton
 public class GuildController {
+    private static final String GUILD_ID_FIELD = "guildId";
+    private static final String DISCORD_USER_ID_FIELD = "discordUserId";
+    private static final String GUILD_OWNER_ID_FIELD = "guildOwnerId";
+    private static final String TRADING_CHANNEL_ID_FIELD = "tradingChannelId";
+
     GenericRepository<Guild> guildRepository;
+    GenericRepository<GuildMembership> membershipRepository;
 
     @Inject
-    GuildController(GenericRepository<Guild> guildRepository) {
+    GuildController(
+            GenericRepository<Guild> guildRepository,
+            GenericRepository<GuildMembership> membershipRepository) {
         this.guildRepository = guildRepository;
+        this.membershipRepository = membershipRepository;
     }
 
     /**
@@ -28,10 +43,9 @@ public class GuildController {
      * @param guildOwnerId - The id of the owner to set for the guild.
      */
     public void setGuildOwnerId(@Nonnull String guildId, @Nonnull String guildOwnerId) {
-        var guild = getGuildByGuildId(guildId);
-
-        guild.setGuildOwnerId(guildOwnerId);
-        guildRepository.update(guild);
+        // Field updates only apply to an existing guild, so create it first if needed
+        getGuildByGuildId(guildId);
+        guildRepository.updateField(GUILD_ID_FIELD, guildId, GUILD_OWNER_ID_FIELD, guildOwnerId);
     }
 
     /**
@@ -41,10 +55,10 @@ public class GuildController {
      * @param tradingChannelId - The trading channel id to set for the guild.
      */
     public void setTradingChannelId(@Nonnull String guildId, @Nonnull String tradingChannelId) {
-        var guild = getGuildByGuildId(guildId);
-
-        guild.setTradingChannelId(tradingChannelId);
-        guildRepository.update(guild);
+        // Field updates only apply to an existing guild, so create it first if needed
+        getGuildByGuildId(guildId);
+        guildRepository.updateField(
+                GUILD_ID_FIELD, guildId, TRADING_CHANNEL_ID_FIELD, tradingChannelId);
     }
 
     /**
@@ -55,7 +69,13 @@ public class GuildController {
      */
     @Nonnull
     public String getTradingChannelIdByGuildId(@Nonnull String guildId) {
-        return getGuildByGuildId(guildId).getTradingChannelId();
+        // Reads only the channel id rather than the whole guild
+        var tradingChannel =
+                guildRepository.findOne(GUILD_ID_FIELD, guildId, TradingChannelView.class);
+        if (tradingChannel == null) {
+            return getGuildByGuildId(guildId).getTradingChannelId();
+        }
+        return tradingChannel.getTradingChannelId();
     }
 
     /**
@@ -65,31 +85,29 @@ public class GuildController {
      * @param discordMemberId - The id of the user that should be added to the guild.
      */
     public void addUserToServer(@Nonnull String guildId, @Nonnull String discordMemberId) {
-        var guild = getGuildByGuildId(guildId);
-        var usersOnServer = guild.getUsersOnServer();
-
-        usersOnServer.add(discordMemberId);
-        guild.setUsersOnServer(usersOnServer);
-        guildRepository.update(guild);
+        // Join events for the same member can arrive together, so the check and add are one step
+        membershipRepository.addIfAbsent(
+                Map.of(GUILD_ID_FIELD, guildId, DISCORD_USER_ID_FIELD, discordMemberId),
+                new GuildMembership(null, guildId, discordMemberId));
     }
 
     /**
-     * Adds all the current user in the guild to the list of user that are in the guild.
+     * Adds all the current user in the guild to the list of user that are in the guild. Members
+     * that were already stored are skipped with one read, and the others are added one at a time
+     * like a join, so a member who joins meanwhile is not stored twice.
      *
      * @param guildId - The id of the guild to add the user to.
      * @param listOfUserIds - A list of the user ids that should be added to the guild.
      */
     public void addAllCurrentUsersToServer(
             @Nonnull String guildId, @Nonnull List<String> listOfUserIds) {
-        var guild = getGuildByGuildId(guildId);
-        var usersOnServer = guild.getUsersOnServer();
+        Set<String> existingMembers = new HashSet<>(getMemberIdsInGuild(guildId));
 
         for (String userId : listOfUserIds) {
-            usersOnServer.add(userId);
+            if (existingMembers.add(userId)) {
+                addUserToServer(guildId, userId);
+            }
         }
-
-        guild.setUsersOnServer(usersOnServer);
-        guildRepository.update(guild);
     }
 
     /**
@@ -100,15 +118,18 @@ public class GuildController {
      * @returns Whether the user was successfully removed from the guild.
      */
     public boolean removeUserInServer(@Nonnull String guildId, @Nonnull String discordMemberId) {
-        var guild = getGuildByGuildId(guildId);
-        var guildUsers = guild.getUsersOnServer();
+        var membership = getMembership(guildId, discordMemberId);
+        if (membership == null) {
+            return false;
+        }
 
-        if (guildUsers.remove(discordMemberId)) {
-            guild.setUsersOnServer(guildUsers);
-            guildRepository.update(guild);
-            return true;
+        var membershipObjectId = membership.getId();
+        if (Objects.isNull(membershipObjectId)) {
+            return false;
         }
-        return false;
+
+        membershipRepository.delete(membershipObjectId);
+        return true;
     }
 
     /**
@@ -119,7 +140,9 @@ public class GuildController {
      * @return Whether the user already exists in the guild.
      */
     public boolean verifyUserInGuild(@Nonnull String guildId, @Nonnull String discordMemberId) {
-        return getGuildByGuildId(guildId).getUsersOnServer().contains(discordMemberId);
+        return membershipRepository.count(
+                        Map.of(GUILD_ID_FIELD, guildId, DISCORD_USER_ID_FIELD, discordMemberId))
+                > 0;
     }
 
     /**
@@ -129,10 +152,36 @@ public class GuildController {
      * @return The true if the user is no longer exists in any guild, false if not.
      */
     public boolean verifyUserNoLongerExistsInAnyGuild(@Nonnull String discordMemberId) {
-        return guildRepository.getAll().stream()
-                .filter(guild -> guild.getUsersOnServer().contains(discordMemberId))
-                .toList()
-                .isEmpty();
+        return membershipRepository.findOne(DISCORD_USER_ID_FIELD, discordMemberId) == null;
+    }
+
+    /**
+     * Gets the ids of all users in the guild.
+     *
+     * @param guildId - The id of the guild.
+     * @return The discord ids of the members of the guild.
+     */
+    @Nonnull
+    public List<String> getMemberIdsInGuild(@Nonnull String guildId) {
+        return membershipRepository.findMany(GUILD_ID_FIELD, guildId).stream()
+                .map(GuildMembership::getDiscordUserId)
+                .toList();
+    }
+
+    /**
+     * Looks up the membership of the user in the guild with the compound index.
+     *
+     * @param guildId - The id of the guild.
+     * @param discordMemberId - The id of the user.
+     * @return The membership, or null if the user is not in the guild.
+     */
+    @Nullable
+    private GuildMembership getMembership(
+            @Nonnull String guildId, @Nonnull String discordMemberId) {
+        var memberships =
+                membershipRepository.findMany(
+                        Map.of(GUILD_ID_FIELD, guildId, DISCORD_USER_ID_FIELD, discordMemberId));
+        return memberships.isEmpty() ? null : memberships.get(0);
     }
 
     /**
@@ -143,37 +192,69 @@ public class GuildController {
      */
     @Nonnull
     public Guild getGuildByGuildId(@Nonnull String guildId) {
-        Collection<Guild> guilds = guildRepository.getAll();
-        for (Guild currentGuild : guilds) {
-            if (currentGuild.getGuildId().equals(guildId)) {
-                return currentGuild;
-            }
+        Guild existingGuild = guildRepository.findOne(GUILD_ID_FIELD, guildId);
+        if (existingGuild != null) {
+            return existingGuild;
         }
 
+        // Events of a new guild can arrive together, so the check and add are one step
         Guild guild = new Guild();
         guild.setGuildId(guildId);
-        guild.setUsersOnServer(new HashSet<>());
-        guildRepository.add(guild);
-        return guild;
+        if (guildRepository.addIfAbsent(Map.of(GUILD_ID_FIELD, guildId), guild)) {
+            return guild;
+        }
+
+        Guild addedGuild = guildRepository.findOne(GUILD_ID_FIELD, guildId);
+        if (addedGuild == null) {
+            throw new IllegalStateException("Guild " + guildId + " was deleted as it was added");
+        }
+        return addedGuild;
     }
 
     /**
-     * Removes guild from database.
+     * Removes guild and its memberships from database.
      *
      * @param guildId - The id of the guild that needs to be removed.
      * @return Whether the guild has been successfully deleted.
      */
     public boolean removeGuildByGuildId(@Nonnull String guildId) {
-        Collection<Guild> guilds = guildRepository.getAll();
-        for (Guild guild : guilds) {
-            var guildObjectId = guild.getId();
+        Guild guild = guildRepository.findOne(GUILD_ID_FIELD, guildId);
+        if (guild == null) {
+            return false;
+        }
 
-            if (guild.getGuildId().equals(guildId) && Objects.nonNull(guildObjectId)) {
-                guildRepository.delete(guildObjectId);
-                return true;
-            }
+        var guildObjectId = guild.getId();
+        if (Objects.isNull(guildObjectId)) {
+            return false;
+        }
+
+        removeAllMembersInGuild(guildId);
+        guildRepository.delete(guildObjectId);
+        return true;
+    }
+
+    /**
+     * Removes every member from the guild. The memberships are read a page at a time and then
+     * deleted by id in one batch, so a member who joins meanwhile is neither deleted nor returned.
+     *
+     * @param guildId - The id of the guild whose members should be removed.
+     * @return The discord ids of the users whose memberships were deleted.
+     */
+    @Nonnull
+    public List<String> removeAllMembersInGuild(@Nonnull String guildId) {
+        Map<String, Object> inGuild = Map.of(GUILD_ID_FIELD, guildId);
+        var membershipsInGuild =
+                membershipRepository.iterate(inGuild, GenericRepository.DEFAULT_PAGE_SIZE);
+
+        List<ObjectId> membershipIds = new ArrayList<>();
+        List<String> formerMemberIds = new ArrayList<>();
+        for (GuildMembership membership : membershipsInGuild) {
+            membershipIds.add(membership.getId());
+            formerMemberIds.add(membership.getDiscordUserId());
         }
-        return false;
+
+        membershipRepository.deleteAll(membershipIds);
+        return formerMemberIds;
     }
 
     /**
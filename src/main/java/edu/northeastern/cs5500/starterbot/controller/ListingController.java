@@ -2,10 +2,18 @@ package edu.northeastern.cs5500.starterbot.controller;
 
 import com.mongodb.lang.Nullable;
 import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.repository.AsyncRepository;
 import edu.northeastern.cs5500.starterbot.repository.GenericRepository;
+import edu.northeastern.cs5500.starterbot.repository.Query;
+import edu.northeastern.cs5500.starterbot.search.ListingPage;
+import edu.northeastern.cs5500.starterbot.search.ListingSearch;
+import edu.northeastern.cs5500.starterbot.search.ListingSort;
+import edu.northeastern.cs5500.starterbot.search.LocationFilter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
@@ -14,12 +22,21 @@ import org.bson.types.ObjectId;
 
 @Singleton
 public class ListingController {
+    private static final String GUILD_ID_FIELD = "guildId";
+    private static final String DISCORD_USER_ID_FIELD = "discordUserId";
 
     GenericRepository<Listing> listingRepository;
+    AsyncRepository<Listing> asyncListingRepository;
+    ListingSearch listingSearch;
 
     @Inject
-    ListingController(GenericRepository<Listing> listingRepository) {
+    ListingController(
+            GenericRepository<Listing> listingRepository,
+            AsyncRepository<Listing> asyncListingRepository,
+            ListingSearch listingSearch) {
         this.listingRepository = listingRepository;
+        this.asyncListingRepository = asyncListingRepository;
+        this.listingSearch = listingSearch;
     }
 
     /**
@@ -28,7 +45,7 @@ public class ListingController {
      * @param listing - The listing object.
      */
     public void addListing(@Nonnull Listing listing) {
-        listingRepository.add(listing);
+        listingSearch.add(listingRepository.add(listing));
     }
 
     /**
@@ -42,15 +59,33 @@ public class ListingController {
             return false;
         }
 
+        List<ObjectId> listingObjectIds = new ArrayList<>();
         for (Listing listing : listings) {
             var listingObjectId = listing.getId();
             if (Objects.nonNull(listingObjectId)) {
-                listingRepository.delete(listingObjectId);
+                listingObjectIds.add(listingObjectId);
             }
         }
+        listingRepository.deleteAll(listingObjectIds);
+        for (Listing listing : listings) {
+            listingSearch.remove(listing);
+        }
         return true;
     }
 
+    /**
+     * Deletes every listing in the guild with a single delete on the server.
+     *
+     * @param guildId - The id of the guild whose listings should be deleted.
+     * @return The number of listings deleted.
+     */
+    @Nonnegative
+    public int deleteListingsInGuild(@Nonnull String guildId) {
+        var deleted = listingRepository.deleteWhere(Map.of(GUILD_ID_FIELD, guildId));
+        listingSearch.removeGuild(guildId);
+        return Math.toIntExact(deleted);
+    }
+
     /**
      * Deletes the listing with a specified objectId.
      *
@@ -66,11 +101,12 @@ public class ListingController {
         }
 
         listingRepository.delete(objectId);
+        listingSearch.remove(listing);
         return true;
     }
 
     /**
-     * Counts the number of listings that a specific discord user has.
+     * Counts the number of listings that a specific discord user has, without loading them.
      *
      * @param discordMemberId - The id of a discord user.
      * @param guildId - The id of the guild in which the listing is contained in.
@@ -78,11 +114,14 @@ public class ListingController {
      */
     @Nonnegative
     public int countListingsByMemberId(@Nonnull String discordMemberId, @Nonnull String guildId) {
-        return getListingsByMemberId(discordMemberId, guildId).size();
+        return Math.toIntExact(
+                listingRepository.count(
+                        Map.of(GUILD_ID_FIELD, guildId, DISCORD_USER_ID_FIELD, discordMemberId)));
     }
 
     /**
-     * Retrieves all listings where the title contains a keyword.
+     * Retrieves the listings whose title or description contains every word of the keyword, most
+     * relevant first. Words match whole or as the start of a longer word.
      *
      * @param keyword - The keyword the user would like to search.
      * @param guildId - The id of the guild in which the listing is contained in.
@@ -90,18 +129,52 @@ public class ListingController {
      */
     @Nonnull
     public List<Listing> getListingsWithKeyword(@Nonnull String keyword, @Nonnull String guildId) {
-        var keywordLower = keyword.toLowerCase();
-        List<Listing> lists =
-                getListingsInGuild(guildId).stream()
-                        .filter(
-                                listing ->
-                                        (listing.getTitle().toLowerCase()).contains(keywordLower))
-                        .toList();
+        return listingSearch.search(guildId, keyword);
+    }
 
-        if (lists == null) {
-            return new ArrayList<>();
-        }
-        return lists;
+    /**
+     * Retrieves one page of the listings matching a keyword, in the given order. Only the
+     * listings up to the end of the page are sorted.
+     *
+     * @param keyword - The keyword the user would like to search.
+     * @param guildId - The id of the guild in which the listing is contained in.
+     * @param location - Where the sellers of the listings live.
+     * @param sort - The order of the matching listings.
+     * @param offset - The number of matching listings to skip.
+     * @param limit - The maximum number of listings on the page, 0 for all of them.
+     * @return The page of listings, with an estimate of how many listings match.
+     */
+    @Nonnull
+    public ListingPage searchListings(
+            @Nonnull String keyword,
+            @Nonnull String guildId,
+            @Nonnull LocationFilter location,
+            @Nonnull ListingSort sort,
+            @Nonnegative int offset,
+            @Nonnegative int limit) {
+        return listingSearch.search(guildId, keyword, location, sort, offset, limit);
+    }
+
+    /**
+     * Retrieves one page of the listings matching a keyword without blocking the caller.
+     *
+     * @param keyword - The keyword the user would like to search.
+     * @param guildId - The id of the guild in which the listing is contained in.
+     * @param location - Where the sellers of the listings live.
+     * @param sort - The order of the matching listings.
+     * @param offset - The number of matching listings to skip.
+     * @param limit - The maximum number of listings on the page, 0 for all of them.
+     * @return A future of the page of listings.
+     */
+    @Nonnull
+    public CompletableFuture<ListingPage> searchListingsAsync(
+            @Nonnull String keyword,
+            @Nonnull String guildId,
+            @Nonnull LocationFilter location,
+            @Nonnull ListingSort sort,
+            @Nonnegative int offset,
+            @Nonnegative int limit) {
+        return listingSearch.searchAsync(guildId, keyword, location, sort, offset, limit);
     }
 
     /**
@@ -115,9 +188,8 @@ public class ListingController {
     public List<Listing> getListingsByMemberId(
             @Nonnull String discordMemberId, @Nonnull String guildId) {
         List<Listing> lists =
-                getListingsInGuild(guildId).stream()
-                        .filter(listing -> listing.getDiscordUserId().equals(discordMemberId))
-                        .toList();
+                listingRepository.findMany(
+                        Map.of(GUILD_ID_FIELD, guildId, DISCORD_USER_ID_FIELD, discordMemberId));
 
         if (lists == null) {
             return new ArrayList<>();
@@ -125,6 +197,36 @@ public class ListingController {
         return lists;
     }
 
+    /**
+     * Retrieves one page of the listings of a specific discord user, in the order they were
+     * created, without blocking the caller.
+     *
+     * @param discordMemberId - The id of the discord user.
+     * @param guildId - The id of the guild in which the listing is contained in.
+     * @param offset - The number of listings to skip.
+     * @param limit - The maximum number of listings on the page.
+     * @return A future of the page of listings, with the number of listings the user has.
+     */
+    @Nonnull
+    public CompletableFuture<ListingPage> getListingsByMemberIdAsync(
+            @Nonnull String discordMemberId,
+            @Nonnull String guildId,
+            @Nonnegative int offset,
+            @Nonnegative int limit) {
+        Map<String, Object> filter =
+                Map.of(GUILD_ID_FIELD, guildId, DISCORD_USER_ID_FIELD, discordMemberId);
+        return asyncListingRepository
+                .find(Query.where(filter).offset(offset).limit(limit))
+                .thenCombine(
+                        asyncListingRepository.count(filter),
+                        (listings, total) ->
+                                new ListingPage(
+                                        listings,
+                                        offset,
+                                        total.intValue(),
+                                        offset + listings.size() < total));
+    }
+
     /**
      * Retrieves all listings in a specific guild.
      *
@@ -133,10 +235,7 @@ public class ListingController {
      */
     @Nonnull
     public List<Listing> getListingsInGuild(@Nonnull String guildId) {
-        List<Listing> lists =
-                listingRepository.getAll().stream()
-                        .filter(listing -> listing.getGuildId().equals(guildId))
-                        .toList();
+        List<Listing> lists = listingRepository.findMany(GUILD_ID_FIELD, guildId);
 
         if (lists == null) {
             return new ArrayList<>();
@@ -3,16 +3,22 @@ package edu.northeastern.cs5500.starterbot.controller;
 import com.google.common.annotations.VisibleForTesting;
 import com.mongodb.lang.Nullable;
 import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.model.LocationView;
 import edu.northeastern.cs5500.starterbot.model.User;
 import edu.northeastern.cs5500.starterbot.repository.GenericRepository;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 @Singleton
 public class UserController {
+    private static final String DISCORD_USER_ID_FIELD = "discordUserId";
+
     GenericRepository<User> userRepository;
 
     @Inject
@@ -28,10 +34,7 @@ public class UserController {
      */
     public void setStateOfResidence(
             @Nonnull String discordMemberId, @Nonnull String stateOfResidence) {
-        User user = getUserForMemberId(discordMemberId);
-
-        user.setStateOfResidence(stateOfResidence);
-        userRepository.update(user);
+        updateUser(discordMemberId, user -> user.setStateOfResidence(stateOfResidence));
     }
 
     /**
@@ -43,7 +46,7 @@ public class UserController {
      */
     @Nullable
     public String getStateOfResidence(@Nonnull String discordMemberId) {
-        return getUserForMemberId(discordMemberId).getStateOfResidence();
+        return getLocation(discordMemberId).getStateOfResidence();
     }
 
     /**
@@ -54,10 +57,7 @@ public class UserController {
      */
     public void setCityOfResidence(
             @Nonnull String discordMemberId, @Nonnull String cityOfResidence) {
-        User user = getUserForMemberId(discordMemberId);
-
-        user.setCityOfResidence(cityOfResidence);
-        userRepository.update(user);
+        updateUser(discordMemberId, user -> user.setCityOfResidence(cityOfResidence));
     }
 
     /**
@@ -69,7 +69,29 @@ public class UserController {
      */
     @Nullable
     public String getCityOfResidence(@Nonnull String discordMemberId) {
-        return getUserForMemberId(discordMemberId).getCityOfResidence();
+        return getLocation(discordMemberId).getCityOfResidence();
+    }
+
+    /**
+     * Reads the location of the user without the rest of the user, such as the listing draft.
+     * Like getUserForMemberId, a user that does not exist yet is created.
+     *
+     * @param discordMemberId - The discord user to get the location for.
+     * @return The location of the user.
+     */
+    @Nonnull
+    private LocationView getLocation(@Nonnull String discordMemberId) {
+        var location =
+                userRepository.findOne(DISCORD_USER_ID_FIELD, discordMemberId, LocationView.class);
+        if (location != null) {
+            return location;
+        }
+
+        var user = getUserForMemberId(discordMemberId);
+        location = new LocationView();
+        location.setStateOfResidence(user.getStateOfResidence());
+        location.setCityOfResidence(user.getCityOfResidence());
+        return location;
     }
 
     /**
@@ -78,12 +100,7 @@ public class UserController {
      * @param discordMemberId - The discord user to set the current listing for.
      */
     public void setCurrentListing(@Nonnull String discordMemberId, Listing currentListing) {
-        User user = getUserForMemberId(discordMemberId);
-        user.setCurrentListing(null);
-        if (currentListing != null) {
-            user.setCurrentListing(currentListing);
-        }
-        userRepository.update(user);
+        updateUser(discordMemberId, user -> user.setCurrentListing(currentListing));
     }
 
     /**
@@ -99,6 +116,22 @@ public class UserController {
         return getUserForMemberId(discordMemberId).getCurrentListing();
     }
 
+    /**
+     * Changes the user with a conditional update, so concurrent interactions of the same user
+     * cannot overwrite each other's changes.
+     *
+     * @param discordMemberId - The discord user to change, created if it does not exist.
+     * @param change - The change to apply, which is applied again if another update got there
+     *     first.
+     */
+    private void updateUser(@Nonnull String discordMemberId, @Nonnull Consumer<User> change) {
+        var userObjectId = getUserForMemberId(discordMemberId).getId();
+        if (userObjectId == null) {
+            throw new IllegalStateException("User " + discordMemberId + " has no id");
+        }
+        userRepository.updateWithRetry(userObjectId, change);
+    }
+
     /**
      * Gets the user associated with the discord member Id given. If there is no user with that Id,
      * a new user is created and added to the collection.
@@ -109,17 +142,24 @@ public class UserController {
     @Nonnull
     @VisibleForTesting
     User getUserForMemberId(@Nonnull String discordMemberId) {
-        Collection<User> users = userRepository.getAll();
-        for (User currentUser : users) {
-            if (currentUser.getDiscordUserId().equals(discordMemberId)) {
-                return currentUser;
-            }
+        User existingUser = userRepository.findOne(DISCORD_USER_ID_FIELD, discordMemberId);
+        if (existingUser != null) {
+            return existingUser;
         }
 
+        // The first interactions of a user can arrive together, so the check and add are one step
         User user = new User();
         user.setDiscordUserId(discordMemberId);
-        userRepository.add(user);
-        return user;
+        if (userRepository.addIfAbsent(Map.of(DISCORD_USER_ID_FIELD, discordMemberId), user)) {
+            return user;
+        }
+
+        User addedUser = userRepository.findOne(DISCORD_USER_ID_FIELD, discordMemberId);
+        if (addedUser == null) {
+            throw new IllegalStateException(
+                    "User " + discordMemberId + " was deleted as it was added");
+        }
+        return addedUser;
     }
 
     /**
@@ -130,17 +170,31 @@ public class UserController {
      * @param guildId - The guild id of guiid the user was removed or left from.
      */
     public boolean removeUserByMemberId(@Nonnull String discordMemberId) {
-        Collection<User> users = userRepository.getAll();
-        for (User currentUser : users) {
-            var userObjectId = currentUser.getId();
-            if (currentUser.getDiscordUserId().equals(discordMemberId)
-                    && Objects.nonNull(userObjectId)) {
-                userRepository.delete(userObjectId);
-                return true;
-            }
+        User user = userRepository.findOne(DISCORD_USER_ID_FIELD, discordMemberId);
+        if (user == null) {
+            return false;
         }
 
-        return false;
+        var userObjectId = user.getId();
+        if (Objects.isNull(userObjectId)) {
+            return false;
+        }
+
+        userRepository.delete(userObjectId);
+        return true;
+    }
+
+    /**
+     * Removes the users associated with the discordMemberIds passed from the user collection,
+     * with a single delete on the server that matches all of the ids at once.
+     *
+     * @param discordMemberIds - The discord users to remove from the collection.
+     * @return The number of users removed.
+     */
+    @Nonnegative
+    public int removeUsersByMemberIds(@Nonnull Collection<String> discordMemberIds) {
+        return Math.toIntExact(
+                userRepository.deleteWhereIn(DISCORD_USER_ID_FIELD, discordMemberIds));
     }
 
     /**
@@ -88,6 +88,12 @@ public class CommandModule {
         return myListingCommand;
     }
 
+    @Provides
+    @IntoSet
+    public ButtonHandler provideListingPageButton(ListingPageHelper listingPageHelper) {
+        return listingPageHelper;
+    }
+
     @Provides
     @IntoSet
     public SlashCommandHandler provideUpdateLocationCommand(
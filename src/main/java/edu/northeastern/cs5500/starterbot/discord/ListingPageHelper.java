@@ -0,0 +1,211 @@
+package edu.northeastern.cs5500.starterbot.discord;
+
+import com.google.common.collect.Lists;
+import edu.northeastern.cs5500.starterbot.discord.handlers.ButtonHandler;
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.search.ListingPage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import net.dv8tion.jda.api.interactions.components.ActionRow;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
+import net.dv8tion.jda.api.utils.messages.MessageEditData;
+
+/**
+ * Shows the listings of a search session one page at a time, in a single private message that the
+ * Previous and Next buttons edit in place. The buttons carry the session id and the offset of the
+ * page they lead to, and the page is loaded when a button is clicked.
+ */
+@Singleton
+@Slf4j
+public class ListingPageHelper implements ButtonHandler {
+    // A message holds at most ten embeds, one per listing
+    public static final int PAGE_SIZE = 10;
+
+    private static final int BUTTONS_PER_ROW = 5;
+    private static final String SESSION_EXPIRED_MESSAGE =
+            "These results have expired, please search again.";
+    private static final String PAGE_FAILED_MESSAGE =
+            "This page could not be loaded right now, please try again.";
+
+    @Inject SearchSessionStore sessionStore;
+    @Inject MessageBuilderHelper messageBuilder;
+
+    @Inject
+    public ListingPageHelper() {
+        // Defined public and empty for Dagger injection
+    }
+
+    @Override
+    @Nonnull
+    public String getName() {
+        return "listingpage";
+    }
+
+    /**
+     * Opens a session and sends its first page to the user in a private message. Nothing is sent
+     * if the first page is empty.
+     *
+     * @param user - The user to whom the page will be sent.
+     * @param session - The session to open.
+     * @return A future of the first page, to tell the user what was sent.
+     */
+    @Nonnull
+    public CompletableFuture<ListingPage> sendFirstPage(
+            @Nonnull User user, @Nonnull SearchSession session) {
+        var sessionId = sessionStore.open(session);
+        return session.getPageLoader()
+                .load(0, PAGE_SIZE)
+                .thenApply(
+                        page -> {
+                            if (!page.getListings().isEmpty()) {
+                                messageBuilder.sendPrivateMessage(
+                                        user, createPageMessage(sessionId, session, page));
+                            }
+                            return page;
+                        });
+    }
+
+    @Override
+    public void onButtonInteraction(@Nonnull ButtonInteractionEvent event)
+            throws IllegalStateException {
+        var buttonId = event.getButton().getId();
+        if (buttonId == null) {
+            throw new IllegalStateException("Button event had no id");
+        }
+
+        var buttonIdSplit = buttonId.split(":", 3);
+        var sessionId = buttonIdSplit[1];
+        var offset = Integer.parseInt(buttonIdSplit[2]);
+
+        var session = sessionStore.get(sessionId);
+        if (session == null) {
+            event.deferEdit().setComponents().setContent(SESSION_EXPIRED_MESSAGE).queue();
+            return;
+        }
+        if (!session.getUserId().equals(event.getUser().getId())) {
+            event.reply("Only the user who searched can page through these results.")
+                    .setEphemeral(true)
+                    .queue();
+            return;
+        }
+
+        event.deferEdit().queue();
+        showPage(event.getHook(), sessionId, offset);
+    }
+
+    /**
+     * Loads a page of a session and shows it in place of the message of an acknowledged button
+     * event. Shows the page before it instead if the page is empty, e.g. after its last listing
+     * was deleted.
+     *
+     * @param hook - The hook of the button event.
+     * @param sessionId - The id of the session.
+     * @param offset - The offset of the page.
+     */
+    public void showPage(@Nonnull InteractionHook hook, @Nonnull String sessionId, int offset) {
+        var session = sessionStore.get(sessionId);
+        if (session == null) {
+            hook.editOriginalComponents().setContent(SESSION_EXPIRED_MESSAGE).queue();
+            return;
+        }
+
+        session.getPageLoader()
+                .load(offset, PAGE_SIZE)
+                .thenAccept(
+                        page -> {
+                            if (page.getListings().isEmpty() && offset > 0) {
+                                showPage(hook, sessionId, Math.max(0, offset - PAGE_SIZE));
+                                return;
+                            }
+                            var message = createPageMessage(sessionId, session, page);
+                            hook.editOriginal(MessageEditData.fromCreateData(message)).queue();
+                        })
+                .exceptionally(
+                        e -> {
+                            log.error("Unable to load page {} of session {}", offset, sessionId, e);
+                            hook.editOriginal(PAGE_FAILED_MESSAGE).queue();
+                            return null;
+                        });
+    }
+
+    /**
+     * Creates the message showing a page of listings, with buttons to move between pages and, if
+     * the session allows it, to delete the listings on the page.
+     *
+     * @param sessionId - The id of the session.
+     * @param session - The session.
+     * @param page - The page to show.
+     * @return The message.
+     */
+    @Nonnull
+    private MessageCreateData createPageMessage(
+            @Nonnull String sessionId, @Nonnull SearchSession session, @Nonnull ListingPage page) {
+        var listings = page.getListings();
+        var offset = page.getOffset();
+        if (listings.isEmpty()) {
+            return new MessageCreateBuilder()
+                    .setContent(session.getTitle() + ": there are no listings left.")
+                    .build();
+        }
+
+        List<MessageEmbed> embeds = new ArrayList<>();
+        List<Button> deleteButtons = new ArrayList<>();
+        for (int i = 0; i < listings.size(); i++) {
+            Listing listing = listings.get(i);
+            var position = offset + i + 1;
+            embeds.add(messageBuilder.toSummaryEmbed(listing, position));
+
+            var deleteHandlerName = session.getDeleteHandlerName();
+            if (deleteHandlerName != null) {
+                var deleteButtonId =
+                        String.format(
+                                "%s:%s:delete:%s:%d",
+                                deleteHandlerName, listing.getId(), sessionId, offset);
+                deleteButtons.add(Button.danger(deleteButtonId, "Delete " + position));
+            }
+        }
+
+        List<ActionRow> rows = new ArrayList<>();
+        for (List<Button> row : Lists.partition(deleteButtons, BUTTONS_PER_ROW)) {
+            rows.add(ActionRow.of(row));
+        }
+        if (offset > 0 || page.hasNext()) {
+            var previousOffset = Math.max(0, offset - PAGE_SIZE);
+            var nextOffset = offset + listings.size();
+            rows.add(
+                    ActionRow.of(
+                            Button.secondary(
+                                            getName() + ":" + sessionId + ":" + previousOffset,
+                                            "Previous")
+                                    .withDisabled(offset == 0),
+                            Button.secondary(
+                                            getName() + ":" + sessionId + ":" + nextOffset,
+                                            "Next")
+                                    .withDisabled(!page.hasNext())));
+        }
+
+        var last = offset + listings.size();
+        return new MessageCreateBuilder()
+                .setContent(
+                        String.format(
+                                "%s: %d-%d of %d",
+                                session.getTitle(),
+                                offset + 1,
+                                last,
+                                Math.max(last, page.getTotalEstimate())))
+                .setEmbeds(embeds)
+                .setComponents(rows)
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import edu.northeastern.cs5500.starterbot.model.Listing;
 import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -15,6 +16,11 @@ import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 public class MessageBuilderHelper {
     private static final Integer EMBED_COLOR = 0x00FFFF;
 
+    // A message holds at most 6000 characters of embeds, so the ten summaries on a page of
+    // listings only show the start of long titles and descriptions
+    private static final int MAX_SUMMARY_TITLE_LENGTH = 100;
+    private static final int MAX_SUMMARY_DESCRIPTION_LENGTH = 200;
+
     @Inject
     public MessageBuilderHelper() {
         // Defined public and empty for Dagger injection
@@ -33,7 +39,7 @@ public class MessageBuilderHelper {
         var fields = listing.getFields();
 
         // Create parent embed that includes all fields & content
-        var parentEmbed =
+        var parentEmbedBuilder =
                 new EmbedBuilder()
                         .setColor(EMBED_COLOR)
                         .setTitle(listing.getTitle(), listing.getUrl())
@@ -47,9 +53,13 @@ public class MessageBuilderHelper {
                         .addField("Condition:", fields.getCondition(), true)
                         .addField("Description:", fields.getDescription(), false)
                         .addField("Posted By:", discordDisplayName, true)
-                        .addField("Date Posted:", fields.getDatePosted(), true)
-                        .build();
+                        .addField("Date Posted:", fields.getDatePosted(), true);
+        var location = formatLocation(listing);
+        if (location != null) {
+            parentEmbedBuilder.addField("Location:", location, true);
+        }
 
+        var parentEmbed = parentEmbedBuilder.build();
         listingsMessage.add(parentEmbed);
 
         // Create child embeds that "append" additional images to parent embed
@@ -73,22 +83,86 @@ public class MessageBuilderHelper {
     }
 
     /**
-     * Opens a private channel with the user provided and send the given message.
+     * Summarizes a listing in a single embed, for pages showing several listings in one message.
+     *
+     * @param listing - The listing to summarize.
+     * @param position - The position of the listing among the listings paged through, from 1.
+     * @return The message embed.
+     */
+    @Nonnull
+    public MessageEmbed toSummaryEmbed(@Nonnull Listing listing, int position) {
+        var fields = listing.getFields();
+        var embed =
+                new EmbedBuilder()
+                        .setColor(EMBED_COLOR)
+                        .setTitle(
+                                position
+                                        + ". "
+                                        + truncate(listing.getTitle(), MAX_SUMMARY_TITLE_LENGTH),
+                                listing.getUrl())
+                        .setDescription(
+                                truncate(fields.getDescription(), MAX_SUMMARY_DESCRIPTION_LENGTH))
+                        .addField(
+                                Boolean.TRUE.equals(fields.getShippingIncluded())
+                                        ? "Cost + Shipping:"
+                                        : "Cost:",
+                                fields.getCost(),
+                                true)
+                        .addField("Condition:", fields.getCondition(), true)
+                        .addField("Date Posted:", fields.getDatePosted(), true);
+        var location = formatLocation(listing);
+        if (location != null) {
+            embed.addField("Location:", location, true);
+        }
+        if (!listing.getImages().isEmpty()) {
+            embed.setThumbnail(listing.getImages().get(0));
+        }
+        return embed.build();
+    }
+
+    /**
+     * Formats where the seller of a listing lives, e.g. "Seattle, WA".
+     *
+     * @param listing - The listing.
+     * @return The city and state of the seller, or null if they had not set their state.
+     */
+    @Nullable
+    private static String formatLocation(@Nonnull Listing listing) {
+        var state = listing.getState();
+        if (state == null) {
+            return null;
+        }
+        var city = listing.getCity();
+        return city == null ? state : city + ", " + state;
+    }
+
+    @Nonnull
+    private static String truncate(@Nonnull String text, int maxLength) {
+        if (text.length() <= maxLength) {
+            return text;
+        }
+        return text.substring(0, maxLength - 3) + "...";
+    }
+
+    /**
+     * Opens a private channel with the user provided and send the given message, without waiting
+     * for either request.
      *
      * @param user - The user to send the private message to.
      * @param messageToSend - The message to send the user. String Type.
      */
     public void sendPrivateMessage(User user, @Nonnull String messageToSend) {
-        user.openPrivateChannel().complete().sendMessage(messageToSend).queue();
+        user.openPrivateChannel().flatMap(channel -> channel.sendMessage(messageToSend)).queue();
     }
 
     /**
-     * Opens a private channel with the user provided and send the given message.
+     * Opens a private channel with the user provided and send the given message, without waiting
+     * for either request.
      *
      * @param user - The user to send the private message to.
      * @param messageToSend - The message to send the user. MessageCreateData Type.
      */
     public void sendPrivateMessage(User user, @Nonnull MessageCreateData messageToSend) {
-        user.openPrivateChannel().complete().sendMessage(messageToSend).queue();
+        user.openPrivateChannel().flatMap(channel -> channel.sendMessage(messageToSend)).queue();
     }
 }
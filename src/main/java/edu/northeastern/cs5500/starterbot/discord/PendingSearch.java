@@ -0,0 +1,23 @@
+package edu.northeastern.cs5500.starterbot.discord;
+
+import edu.northeastern.cs5500.starterbot.search.LocationFilter;
+import javax.annotation.Nonnull;
+import lombok.Value;
+
+/**
+ * A search whose order the user is still choosing, kept on the server so the menus of the search
+ * only have to carry its id.
+ */
+@Value
+public class PendingSearch {
+
+    // The user who may choose the order
+    @Nonnull String userId;
+
+    @Nonnull String guildId;
+
+    @Nonnull String keyword;
+
+    // Where the sellers of the listings live
+    @Nonnull LocationFilter location;
+}
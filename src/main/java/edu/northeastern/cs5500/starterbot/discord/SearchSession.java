@@ -0,0 +1,33 @@
+package edu.northeastern.cs5500.starterbot.discord;
+
+import edu.northeastern.cs5500.starterbot.search.ListingPage;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+/**
+ * The listings a user asked to see, kept on the server while they page through them. Only the
+ * query is kept, each page is loaded when the user moves to it.
+ */
+@Value
+public class SearchSession {
+
+    /** Loads one page of the listings of a session. */
+    public interface PageLoader {
+        @Nonnull
+        CompletableFuture<ListingPage> load(int offset, int limit);
+    }
+
+    // The user who may page through the listings
+    @Nonnull String userId;
+
+    // Shown above every page, e.g. what was searched for
+    @Nonnull String title;
+
+    @Nonnull PageLoader pageLoader;
+
+    // The button handler that deletes a listing shown on a page, null if the listings on the
+    // pages cannot be deleted from there
+    @Nullable String deleteHandlerName;
+}
@@ -0,0 +1,88 @@
+package edu.northeastern.cs5500.starterbot.discord;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.UUID;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Holds the search sessions users are paging through, and the searches they are still choosing an
+ * order for, by an id short enough to put in a button or menu id. Sessions that were not used for
+ * a while expire, and the least recently used ones are evicted once there are too many, so
+ * abandoned sessions never pile up.
+ */
+@Singleton
+public class SearchSessionStore {
+    static final Duration SESSION_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    static final long MAX_SESSIONS = 10_000;
+
+    Cache<String, SearchSession> sessions;
+    Cache<String, PendingSearch> pendingSearches;
+
+    @Inject
+    public SearchSessionStore() {
+        this.sessions =
+                CacheBuilder.newBuilder()
+                        .maximumSize(MAX_SESSIONS)
+                        .expireAfterAccess(SESSION_IDLE_TIMEOUT)
+                        .build();
+        this.pendingSearches =
+                CacheBuilder.newBuilder()
+                        .maximumSize(MAX_SESSIONS)
+                        .expireAfterAccess(SESSION_IDLE_TIMEOUT)
+                        .build();
+    }
+
+    /**
+     * Stores a new session.
+     *
+     * @param session - The session.
+     * @return The id of the session.
+     */
+    @Nonnull
+    public String open(@Nonnull SearchSession session) {
+        var sessionId = UUID.randomUUID().toString();
+        sessions.put(sessionId, session);
+        return sessionId;
+    }
+
+    /**
+     * Looks up a session, keeping it alive for another idle timeout.
+     *
+     * @param sessionId - The id of the session.
+     * @return The session, or null if it expired or was evicted.
+     */
+    @Nullable
+    public SearchSession get(@Nonnull String sessionId) {
+        return sessions.getIfPresent(sessionId);
+    }
+
+    /**
+     * Stores a search whose order the user has yet to choose.
+     *
+     * @param search - The search.
+     * @return The id of the search.
+     */
+    @Nonnull
+    public String openPendingSearch(@Nonnull PendingSearch search) {
+        var searchId = UUID.randomUUID().toString();
+        pendingSearches.put(searchId, search);
+        return searchId;
+    }
+
+    /**
+     * Looks up a search whose order the user has yet to choose, keeping it alive for another idle
+     * timeout.
+     *
+     * @param searchId - The id of the search.
+     * @return The search, or null if it expired or was evicted.
+     */
+    @Nullable
+    public PendingSearch getPendingSearch(@Nonnull String searchId) {
+        return pendingSearches.getIfPresent(searchId);
+    }
+}
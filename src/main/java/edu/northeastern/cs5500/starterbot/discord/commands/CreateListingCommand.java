@@ -11,13 +11,15 @@ import edu.northeastern.cs5500.starterbot.exceptions.ChannelNotFoundException;
 import edu.northeastern.cs5500.starterbot.exceptions.GuildNotFoundException;
 import edu.northeastern.cs5500.starterbot.model.Listing;
 import edu.northeastern.cs5500.starterbot.model.ListingFields;
+import edu.northeastern.cs5500.starterbot.model.Price;
 import java.time.DateTimeException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
@@ -145,7 +147,11 @@ public class CreateListingCommand implements SlashCommandHandler, ButtonHandler
         }
 
         var guildId = guild.getId();
-        var titleReformatted = reformatListingTitle(user, title);
+        var state = userController.getStateOfResidence(userId);
+        var city = userController.getCityOfResidence(userId);
+        if (state == null || city == null) {
+            remindToSetLocation(user);
+        }
 
         // For all images attached by the user, store their urls in a list
         List<String> imageURLs = new ArrayList<>();
@@ -155,7 +161,7 @@ public class CreateListingCommand implements SlashCommandHandler, ButtonHandler
 
         // Create ListingFields and Listing objects
         var listingFields = buildListingFields(cost, shippingIncluded, condition, description);
-        var listing = buildListing(titleReformatted, guildId, userId, imageURLs, listingFields);
+        var listing = buildListing(title, guildId, userId, state, city, imageURLs, listingFields);
 
         // Temporarily store the listing in MongoDB
         userController.setCurrentListing(userId, listing);
@@ -186,17 +192,23 @@ public class CreateListingCommand implements SlashCommandHandler, ButtonHandler
             @Nonnull String condition,
             @Nonnull String description)
             throws DateTimeException, IllegalStateException {
-        var datePosted = getDatePosted();
+        // The displayed date has whole seconds, so the stored time matches it
+        var postedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        var datePosted = getDatePosted(postedAt);
         var costValue = reformatCostValue(cost);
+        var price = Price.parse(costValue);
 
         // Create ListingFields Object
         var listingFields =
                 ListingFields.builder()
                         .cost(costValue)
+                        .priceMinor(price == null ? null : price.getMinorUnits())
+                        .currency(price == null ? null : price.getCurrency())
                         .shippingIncluded(shippingIncluded)
                         .condition(condition)
                         .description(description)
                         .datePosted(datePosted)
+                        .postedAt(postedAt)
                         .build();
 
         Objects.requireNonNull(listingFields);
@@ -209,6 +221,8 @@ public class CreateListingCommand implements SlashCommandHandler, ButtonHandler
      * @param title - The title of the listing.
      * @param guildId - The id of the guild the listing was created in.
      * @param userId - The id of the user who created the listing.
+     * @param state - The state the user lives in, null if they have not set it.
+     * @param city - The city the user lives in, null if they have not set it.
      * @param imageURLs - A list of image urls. These are the images of the item.
      * @param listingFields - A ListingFields object that holds data of each listing field.
      * @return A Listing object.
@@ -219,6 +233,8 @@ public class CreateListingCommand implements SlashCommandHandler, ButtonHandler
             @Nonnull String title,
             @Nonnull String guildId,
             @Nonnull String userId,
+            @Nullable String state,
+            @Nullable String city,
             @Nonnull List<String> imageURLs,
             @Nonnull ListingFields listingFields) {
         var url = imageURLs.get(0);
@@ -229,6 +245,8 @@ public class CreateListingCommand implements SlashCommandHandler, ButtonHandler
                 Listing.builder()
                         .discordUserId(userId)
                         .guildId(guildId)
+                        .state(state)
+                        .city(city)
                         .title(title)
                         .url(url)
                         .images(imageURLs)
@@ -264,49 +282,30 @@ public class CreateListingCommand implements SlashCommandHandler, ButtonHandler
     }
 
     /**
-     * Method to reformat the Listing title to include the city and state the user is located in.
+     * Asks a user who has not set their city and state to do so, as their listings cannot be found
+     * by searches filtered on a location until then.
      *
-     * @param userId - The userId of the member who posted the listing.
-     * @param title - The original title of the listing.
-     * @return The title of the listing with the city and state added to it.
-     * @throws IllegalStateException If the string reformat of title throws an exception.
+     * @param user - The user who is creating a listing.
      */
-    @Nonnull
-    private String reformatListingTitle(@Nonnull User user, @Nonnull String title)
-            throws IllegalStateException {
-        var userId = user.getId();
-
-        var city = userController.getCityOfResidence(userId);
-        var state = userController.getStateOfResidence(userId);
-        if (city == null || state == null) {
-            log.info("User has not set their city or state of residence");
-            messageBuilder.sendPrivateMessage(
-                    user,
-                    "You have not properly set you city and state location. Please call "
-                            + "/updatelocation to set your city and state.");
-            return title;
-        }
-
-        var titleReformatted = (String.format("[%s, %s]%s", city, state, title));
-        if (titleReformatted == null) {
-            throw new IllegalStateException(
-                    "The title could not be reformatted to include the user's location.");
-        }
-
-        return titleReformatted;
+    private void remindToSetLocation(@Nonnull User user) {
+        log.info("User has not set their city or state of residence");
+        messageBuilder.sendPrivateMessage(
+                user,
+                "You have not properly set you city and state location. Please call "
+                        + "/updatelocation to set your city and state.");
     }
 
     /**
-     * Method to get the date and time the listing was posted.
+     * Method to get the date and time the listing was posted, as it is displayed.
      *
+     * @param postedAt - The time the listing was posted.
      * @return The date and time the listing was posted.
      * @throws DateTimeException Used to indicate a problem while calculating a date-time.
      */
     @Nonnull
     @VisibleForTesting
-    String getDatePosted() throws DateTimeException {
-        var dateReformatted =
-                DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss").format(LocalDateTime.now());
+    String getDatePosted(@Nonnull Instant postedAt) throws DateTimeException {
+        var dateReformatted = ListingFields.DATE_POSTED_FORMATTER.format(postedAt);
         if (dateReformatted == null) {
             throw new DateTimeException(
                     "There was an error when attempting to reformat the date and time a "
@@ -494,16 +493,11 @@ public class CreateListingCommand implements SlashCommandHandler, ButtonHandler
         var fields = currentListing.getFields();
         var cost = fields.getCost().replace(CURRENCY_USED, "");
 
-        var title = currentListing.getTitle();
-        if (title.contains("]")) {
-            title = title.split("]")[1];
-        }
-
         var listingAsString =
                 String.format(
                         "/createlisting title: %s item_cost: %s shipping_included: %s "
                                 + "description: %s condition: %s",
-                        title,
+                        currentListing.getTitle(),
                         cost,
                         fields.getShippingIncluded(),
                         fields.getDescription(),
@@ -3,29 +3,24 @@ package edu.northeastern.cs5500.starterbot.discord.commands;
 import edu.northeastern.cs5500.starterbot.controller.GuildController;
 import edu.northeastern.cs5500.starterbot.controller.ListingController;
 import edu.northeastern.cs5500.starterbot.controller.UserController;
-import edu.northeastern.cs5500.starterbot.discord.MessageBuilderHelper;
+import edu.northeastern.cs5500.starterbot.discord.ListingPageHelper;
+import edu.northeastern.cs5500.starterbot.discord.SearchSession;
 import edu.northeastern.cs5500.starterbot.discord.handlers.ButtonHandler;
 import edu.northeastern.cs5500.starterbot.discord.handlers.SlashCommandHandler;
 import edu.northeastern.cs5500.starterbot.exceptions.ChannelNotFoundException;
 import edu.northeastern.cs5500.starterbot.exceptions.GuildNotFoundException;
 import edu.northeastern.cs5500.starterbot.model.Listing;
-import java.util.ArrayList;
-import java.util.List;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
-import net.dv8tion.jda.api.interactions.components.buttons.Button;
-import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
-import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 import org.bson.types.ObjectId;
 
 @Singleton
@@ -38,7 +33,7 @@ public class MyListingsCommand implements SlashCommandHandler, ButtonHandler {
     @Inject UserController userController;
     @Inject ListingController listingController;
     @Inject GuildController guildController;
-    @Inject MessageBuilderHelper messageBuilder;
+    @Inject ListingPageHelper listingPages;
 
     @Inject
     public MyListingsCommand() {
@@ -64,7 +59,6 @@ public class MyListingsCommand implements SlashCommandHandler, ButtonHandler {
 
         var user = event.getUser();
         var discordUserId = user.getId();
-        var discordDisplayName = user.getName();
         var guild = event.getGuild();
 
         if (guild == null) {
@@ -72,71 +66,38 @@ public class MyListingsCommand implements SlashCommandHandler, ButtonHandler {
         }
 
         var guildId = guild.getId();
-        List<MessageCreateData> listingsMessages =
-                getListingsMessages(discordUserId, discordDisplayName, guildId);
 
-        if (listingsMessages.isEmpty()) {
-            event.reply("No listings available").setEphemeral(true).complete();
-            return;
-        }
-
-        sendListingsMessageToUser(user, listingsMessages);
-        event.reply("Your listings has been sent to your DM").setEphemeral(true).complete();
-    }
-
-    /**
-     * Retrieves all listings in message format from the user.
-     *
-     * @param discordUserId - The user's id in discord.
-     * @param discordDisplayName - The user's display name in discord.
-     * @param guildId - The id of the guild that the user is in.
-     * @return All the listings as discord messages.
-     * @throws IllegalStateException If button is null, an exception is thrown.
-     */
-    @Nonnull
-    private List<MessageCreateData> getListingsMessages(
-            @Nonnull String discordUserId,
-            @Nonnull String discordDisplayName,
-            @Nonnull String guildId)
-            throws IllegalStateException {
-        var listing = listingController.getListingsByMemberId(discordUserId, guildId);
-        List<MessageCreateData> messages = new ArrayList<>();
-
-        if (listing.isEmpty()) {
-            return messages;
-        }
-
-        for (Listing list : listing) {
-            var buttonId = String.format("%s:%s:delete", getName(), list.getId());
-            if (buttonId == null) {
-                throw new IllegalStateException("Button ID was unavailable for listings.");
-            }
-
-            var button = Button.danger(buttonId, "Delete");
-            var messageCreateData =
-                    new MessageCreateBuilder()
-                            .addActionRow(button)
-                            .setEmbeds(messageBuilder.toMessageEmbed(list, discordDisplayName))
-                            .build();
-            messages.add(messageCreateData);
-        }
-        return messages;
-    }
-
-    /**
-     * Sends the listing messages to user's DM.
-     *
-     * @param user - The user who intiated the command.
-     * @param listingsMessages - The user's listings in message format.
-     */
-    private void sendListingsMessageToUser(
-            @Nonnull User user, @Nonnull List<MessageCreateData> listingsMessages) {
-        for (MessageCreateData message : listingsMessages) {
-            if (message == null) {
-                continue;
-            }
-            messageBuilder.sendPrivateMessage(user, message);
-        }
+        // The listings are read off the gateway thread, one page at a time as the user clicks
+        // through them
+        event.deferReply(true).queue();
+        var hook = event.getHook();
+        var session =
+                new SearchSession(
+                        discordUserId,
+                        "Your listings",
+                        (offset, limit) ->
+                                listingController.getListingsByMemberIdAsync(
+                                        discordUserId, guildId, offset, limit),
+                        getName());
+        listingPages
+                .sendFirstPage(user, session)
+                .thenAccept(
+                        page -> {
+                            if (page.getListings().isEmpty()) {
+                                hook.sendMessage("No listings available").queue();
+                                return;
+                            }
+                            hook.sendMessage("Your listings has been sent to your DM").queue();
+                        })
+                .exceptionally(
+                        e -> {
+                            log.error("Unable to read the listings of user {}", discordUserId, e);
+                            hook.sendMessage(
+                                            "Your listings could not be read right now, please"
+                                                    + " try again.")
+                                    .queue();
+                            return null;
+                        });
     }
 
     @Override
@@ -150,7 +111,6 @@ public class MyListingsCommand implements SlashCommandHandler, ButtonHandler {
         }
 
         var buttonIdSplit = buttonId.split(":");
-        var buttonEvent = event.deferEdit().setComponents();
 
         var listing = listingController.getListingById(new ObjectId(buttonIdSplit[1]));
         if (listing == null) {
@@ -168,6 +128,16 @@ public class MyListingsCommand implements SlashCommandHandler, ButtonHandler {
             log.error("myListing encountered an error when deleting listing", e);
             event.reply("Unable to remove listing because the channel/server no longer exists.")
                     .queue();
+            return;
+        }
+
+        // Buttons under a page of listings carry the session and offset of the page, which is
+        // shown again without the deleted listing
+        if (buttonIdSplit.length == 5) {
+            event.deferEdit().queue();
+            listingPages.showPage(
+                    event.getHook(), buttonIdSplit[3], Integer.parseInt(buttonIdSplit[4]));
+            return;
         }
 
         var deleteSuccessEmbed =
@@ -176,7 +146,7 @@ public class MyListingsCommand implements SlashCommandHandler, ButtonHandler {
                         .setColor(EMBED_COLOR)
                         .build();
 
-        buttonEvent.setEmbeds(deleteSuccessEmbed).queue();
+        event.deferEdit().setComponents().setEmbeds(deleteSuccessEmbed).queue();
     }
 
     /**
@@ -1,28 +1,29 @@
 package edu.northeastern.cs5500.starterbot.discord.commands;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Strings;
 import edu.northeastern.cs5500.starterbot.controller.ListingController;
-import edu.northeastern.cs5500.starterbot.discord.MessageBuilderHelper;
+import edu.northeastern.cs5500.starterbot.discord.ListingPageHelper;
+import edu.northeastern.cs5500.starterbot.discord.PendingSearch;
+import edu.northeastern.cs5500.starterbot.discord.SearchSession;
+import edu.northeastern.cs5500.starterbot.discord.SearchSessionStore;
 import edu.northeastern.cs5500.starterbot.discord.handlers.SlashCommandHandler;
 import edu.northeastern.cs5500.starterbot.discord.handlers.StringSelectHandler;
 import edu.northeastern.cs5500.starterbot.exceptions.GuildNotFoundException;
-import edu.northeastern.cs5500.starterbot.model.Listing;
-import java.time.DateTimeException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Locale;
+import edu.northeastern.cs5500.starterbot.model.States;
+import edu.northeastern.cs5500.starterbot.repository.Query;
+import edu.northeastern.cs5500.starterbot.search.ListingPage;
+import edu.northeastern.cs5500.starterbot.search.ListingSort;
+import edu.northeastern.cs5500.starterbot.search.LocationFilter;
 import java.util.Objects;
-import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.MessageEmbed;
-import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.component.StringSelectInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
@@ -35,7 +36,8 @@ import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 
 /**
  * This class represents the command to search listings with a keyword and sort the result with
- * price or posted date in asending or descending order.
+ * price or posted date in asending or descending order. The search can be narrowed down to the
+ * listings of sellers in a state, or in a city of the state.
  */
 @Singleton
 @Slf4j
@@ -43,7 +45,8 @@ public class SearchListingsCommand implements SlashCommandHandler, StringSelectH
 
     @Inject JDA jda;
     @Inject ListingController listingController;
-    @Inject MessageBuilderHelper messageBuilder;
+    @Inject ListingPageHelper listingPages;
+    @Inject SearchSessionStore sessionStore;
 
     private static final Integer EMBED_COLOR = 0x00FFFF;
     private static final String ASCENDING = "Ascending";
@@ -51,6 +54,10 @@ public class SearchListingsCommand implements SlashCommandHandler, StringSelectH
     private static final String PRICE = "Price";
     private static final String DATE = "Date";
     private static final String NONE = "None";
+    private static final String SEARCH_FAILED_MESSAGE =
+            "Listings could not be searched right now, please try again.";
+    private static final String SEARCH_EXPIRED_MESSAGE =
+            "This search has expired, please search again.";
 
     @Inject
     public SearchListingsCommand() {
@@ -71,7 +78,17 @@ public class SearchListingsCommand implements SlashCommandHandler, StringSelectH
                         OptionType.STRING,
                         "keyword",
                         "Please provide the keyword to filter your search by",
-                        true);
+                        true)
+                .addOption(
+                        OptionType.STRING,
+                        "state",
+                        "Only show listings from sellers in this state, e.g. WA or Washington",
+                        false)
+                .addOption(
+                        OptionType.STRING,
+                        "city",
+                        "Only show listings from sellers in this city of the state",
+                        false);
     }
 
     @Override
@@ -87,44 +104,58 @@ public class SearchListingsCommand implements SlashCommandHandler, StringSelectH
         }
 
         var guildId = guild.getId();
-
-        List<Listing> listings = searchListings(keyword, guildId);
-        if (listings.isEmpty()) {
-            event.reply("No listings available").setEphemeral(true).complete();
+        var stateOption = event.getOption("state");
+        var cityOption = event.getOption("city");
+        var state = stateOption == null ? null : toStateAbbreviation(stateOption.getAsString());
+        var city =
+                cityOption == null ? null : Strings.emptyToNull(cityOption.getAsString().trim());
+        if (stateOption != null && state == null) {
+            event.reply("Please provide a US state, e.g. WA or Washington.")
+                    .setEphemeral(true)
+                    .queue();
             return;
         }
-
-        var sortingOptionSelectMenu = createSortingOptionSelectMenu(keyword, guildId);
-        event.reply(sortingOptionSelectMenu).setEphemeral(true).queue();
-    }
-
-    /**
-     * Searches for listings with the given keyword in the given guild.
-     *
-     * @param keyword - The keyword to search for.
-     * @param guildId - The ID of the guild to search in.
-     * @return A list of listings that match the search criteria.
-     */
-    @Nonnull
-    private List<Listing> searchListings(@Nonnull String keyword, @Nonnull String guildId) {
-        return new ArrayList<>(listingController.getListingsWithKeyword(keyword, guildId));
-    }
-
-    /**
-     * Sends a list of listings to a user via private message.
-     *
-     * @param user - The user to whom the message will be sent.
-     * @param listings - The list of listings to be sent.
-     */
-    private void sendListingsMessageToUser(@Nonnull User user, @Nonnull List<Listing> listings) {
-
-        for (Listing list : listings) {
-            var message =
-                    new MessageCreateBuilder()
-                            .setEmbeds(messageBuilder.toMessageEmbed(list, user.getName()))
-                            .build();
-            messageBuilder.sendPrivateMessage(user, message);
+        if (city != null && state == null) {
+            event.reply("Please also provide the state of the city.").setEphemeral(true).queue();
+            return;
         }
+        var location = new LocationFilter(state, city);
+
+        // Acknowledge now and reply once the search completes, so the gateway thread never waits
+        // on the database
+        event.deferReply(true).queue();
+        var hook = event.getHook();
+
+        // Searches for the page sent when no sorting is chosen, so that choice is a cache hit
+        listingController
+                .searchListingsAsync(
+                        keyword,
+                        guildId,
+                        location,
+                        ListingSort.BY_RELEVANCE,
+                        0,
+                        ListingPageHelper.PAGE_SIZE)
+                .thenAccept(
+                        page -> {
+                            if (page.getListings().isEmpty()) {
+                                hook.sendMessage("No listings available").queue();
+                                return;
+                            }
+                            var searchId =
+                                    sessionStore.openPendingSearch(
+                                            new PendingSearch(
+                                                    event.getUser().getId(),
+                                                    guildId,
+                                                    keyword,
+                                                    location));
+                            hook.sendMessage(createSortingOptionSelectMenu(searchId)).queue();
+                        })
+                .exceptionally(
+                        e -> {
+                            log.error("Unable to search listings in guild {}", guildId, e);
+                            hook.sendMessage(SEARCH_FAILED_MESSAGE).queue();
+                            return null;
+                        });
     }
 
     /**
@@ -138,38 +169,6 @@ public class SearchListingsCommand implements SlashCommandHandler, StringSelectH
         return new EmbedBuilder().setDescription(message).setColor(EMBED_COLOR).build();
     }
 
-    /**
-     * Converts the cost of a listing to a float value.
-     *
-     * @param listing - The listing to convert.
-     * @return The cost of the listing as a float value.
-     */
-    @Nonnegative
-    private Float getListingCostAsFloat(@Nonnull Listing listing) {
-        return Float.valueOf(listing.getFields().getCost().split(" ")[1]);
-    }
-
-    /**
-     * Converts the posted date of a listing to a LocalDateTime object.
-     *
-     * @param listing - The listing to convert.
-     * @return The posted date of the listing as a LocalDateTime object.
-     * @throws DateTimeException If there was an error reformatting the date.
-     */
-    @Nonnull
-    private LocalDateTime getListingPostedDateAsLocalDateTime(@Nonnull Listing listing)
-            throws DateTimeException {
-        DateTimeFormatter formatter =
-                DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss", Locale.ENGLISH);
-        var dateReformatted = LocalDateTime.parse(listing.getFields().getDatePosted(), formatter);
-
-        if (dateReformatted == null) {
-            throw new DateTimeException("There was an error refortmatting the date.");
-        }
-
-        return dateReformatted;
-    }
-
     /**
      * Called when a user selects an option from a StringSelectMenu component. Sort the listings
      * depends on the user's choices and DM the listings.
@@ -182,115 +181,170 @@ public class SearchListingsCommand implements SlashCommandHandler, StringSelectH
     public void onStringSelectInteraction(@Nonnull StringSelectInteractionEvent event)
             throws IllegalStateException {
         var user = event.getUser();
-        var menuId = event.getComponentId();
-        var handlerName = menuId.split(":", 5)[1];
-
-        // Verify string values parsed from menu id are not null
-        var keyword = menuId.split(":", 5)[2];
-        var guildId = menuId.split(":", 5)[3];
-        var choice = menuId.split(":", 5)[4];
-        if (keyword == null || guildId == null || choice == null) {
+        var menuIdSplit = event.getComponentId().split(":", 4);
+        if (menuIdSplit.length != 4) {
             throw new IllegalStateException("Menu ID could not be split and indexed.");
         }
 
+        var handlerName = menuIdSplit[1];
+        var searchId = menuIdSplit[2];
+        var choice = menuIdSplit[3];
+
+        var search = sessionStore.getPendingSearch(searchId);
+        if (search == null) {
+            event.deferEdit()
+                    .setComponents()
+                    .setEmbeds(buildConfirmationEmbed(SEARCH_EXPIRED_MESSAGE))
+                    .queue();
+            return;
+        }
+        if (!search.getUserId().equals(user.getId())) {
+            event.reply("Only the user who searched can sort these results.")
+                    .setEphemeral(true)
+                    .queue();
+            return;
+        }
+        var guildId = search.getGuildId();
+        var keyword = search.getKeyword();
+        var location = search.getLocation();
+
         // Verify the selected menu option is not null
         var selectedChoice = event.getInteraction().getValues().get(0);
         if (selectedChoice == null) {
             throw new IllegalStateException("Selected menu choice could not be accessed.");
         }
 
-        List<Listing> listings = searchListings(keyword, guildId);
-
-        if ("SortOption".equals(handlerName)) {
-            if (NONE.equals(selectedChoice)) {
-                sendListingsMessageToUser(user, listings);
-                var embedWithoutSorting =
-                        buildConfirmationEmbed("Search results are sent to your DM.");
-                event.deferEdit().setComponents().setEmbeds(embedWithoutSorting).complete();
-                return;
-            }
+        if ("SortOption".equals(handlerName) && !NONE.equals(selectedChoice)) {
+            var sortingOrderSelectMenu = createSortingOrderSelectMenu(searchId, selectedChoice);
+            event.deferEdit().setComponents(ActionRow.of(sortingOrderSelectMenu)).queue();
+            return;
+        }
 
-            var sortingOrderSelectMenu =
-                    createSortingOrderSelectMenu(keyword, guildId, selectedChoice);
-            event.deferEdit().setComponents(ActionRow.of(sortingOrderSelectMenu)).complete();
-        } else {
-            // Options to sort by
-            if (PRICE.equals(choice)) {
-                sortListingsByPrice(listings);
-            } else {
-                sortListingsByDateTime(listings);
-            }
+        // The search and the private message finish off the gateway thread. Later pages are
+        // searched for when the user clicks through them
+        event.deferEdit().queue();
+        var hook = event.getHook();
+        var sort = getListingSort(choice, selectedChoice);
+        var session =
+                new SearchSession(
+                        user.getId(),
+                        String.format("Listings matching \"%s\"", keyword),
+                        (offset, limit) ->
+                                listingController.searchListingsAsync(
+                                        keyword, guildId, location, sort, offset, limit),
+                        null);
+        listingPages
+                .sendFirstPage(user, session)
+                .thenAccept(
+                        page -> {
+                            var message = describeSearchResults(page, choice, selectedChoice);
+                            hook.editOriginalComponents()
+                                    .setEmbeds(buildConfirmationEmbed(message))
+                                    .queue();
+                        })
+                .exceptionally(
+                        e -> {
+                            log.error("Unable to search listings in guild {}", guildId, e);
+                            hook.editOriginalComponents()
+                                    .setEmbeds(buildConfirmationEmbed(SEARCH_FAILED_MESSAGE))
+                                    .queue();
+                            return null;
+                        });
+    }
 
-            // Sort in decending order, if selected
-            if (DESCENDING.equals(selectedChoice)) {
-                Collections.reverse(listings);
-            }
+    /**
+     * Gets the order the user selected for the search results.
+     *
+     * @param choice - The option to sort by, or NoChoice if no sorting was chosen.
+     * @param selectedChoice - The selected sorting order, or None if no sorting was chosen.
+     * @return The order of the search results, by relevance if no sorting was chosen.
+     */
+    @Nonnull
+    private static ListingSort getListingSort(
+            @Nonnull String choice, @Nonnull String selectedChoice) {
+        if (NONE.equals(selectedChoice)) {
+            return ListingSort.BY_RELEVANCE;
+        }
+        var key = PRICE.equals(choice) ? ListingSort.Key.PRICE : ListingSort.Key.DATE;
+        var order =
+                DESCENDING.equals(selectedChoice) ? Query.Order.DESCENDING : Query.Order.ASCENDING;
+        return new ListingSort(key, order);
+    }
 
-            // Send sorted listing to user dms
-            sendListingsMessageToUser(user, listings);
+    /**
+     * Describes the search results sent to the user via private message.
+     *
+     * @param page - The first page of search results.
+     * @param choice - The option to sort by, or NoChoice if no sorting was chosen.
+     * @param selectedChoice - The selected sorting order, or None if no sorting was chosen.
+     * @return The message confirming what was sent.
+     */
+    @Nonnull
+    private static String describeSearchResults(
+            @Nonnull ListingPage page, @Nonnull String choice, @Nonnull String selectedChoice) {
+        if (page.getListings().isEmpty()) {
+            return "No listings available";
+        }
 
-            // Create and send message to user that sorting was successful
-            String message =
+        String message =
+                NONE.equals(selectedChoice)
+                        ? "Search results are sent to your DM."
+                        : String.format(
+                                "Search result sorted by %s in %s order are sent to your DM.",
+                                choice, selectedChoice);
+        if (page.hasNext()) {
+            message +=
                     String.format(
-                            "Search result sorted by %s in %s order are sent to your DM.",
-                            choice, selectedChoice);
-            if (message == null) {
-                throw new IllegalStateException("Success message could not be properly formatted.");
-            }
-
-            event.deferEdit().setComponents().setEmbeds(buildConfirmationEmbed(message)).complete();
+                            " Use the buttons under them to page through the about %d results.",
+                            page.getTotalEstimate());
         }
+        return message;
     }
 
     /**
-     * Sorts the List<Listings> by price in ascending order. Has null checks intergrated into the
-     * sort method.
+     * Reads the state a user typed, either as its abbreviation or its full name.
      *
-     * @param listings - The list of listings to sort in place.
+     * @param state - The state as the user typed it.
+     * @return The abbreviation of the state, as stored on listings, or null if it is not a state.
      */
-    private void sortListingsByPrice(List<Listing> listings) {
-        Collections.sort(
-                listings,
-                (l1, l2) -> {
-                    if (l1 == null || l2 == null) {
-                        return -1;
-                    }
-                    return getListingCostAsFloat(l1).compareTo(getListingCostAsFloat(l2));
-                });
+    @Nullable
+    @VisibleForTesting
+    static String toStateAbbreviation(@Nonnull String state) {
+        var trimmed = state.trim();
+        var byAbbreviation = States.valueOfAbbreviatedName(trimmed.toUpperCase());
+        if (byAbbreviation != States.UNKNOWN) {
+            return byAbbreviation.getAbbreviatedName();
+        }
+        var byName = States.valueOfFullName(trimmed);
+        return byName == States.UNKNOWN ? null : byName.getAbbreviatedName();
     }
 
     /**
-     * Sorts the List<Listings> by DateTime in ascending order. Has null checks intergrated into the
-     * sort method.
+     * Creates the id of a select menu of the search. The search itself is kept in the session
+     * store, as Discord limits component ids to 100 characters.
      *
-     * @param listings - The list of listings to sort in place.
+     * @param step - SortOption or SortOrder.
+     * @param searchId - The id of the pending search in the session store.
+     * @param choice - The sorting option chosen by the user, or NoChoice.
+     * @return The menu id.
      */
-    private void sortListingsByDateTime(List<Listing> listings) {
-        Collections.sort(
-                listings,
-                (l1, l2) -> {
-                    if (l1 == null || l2 == null) {
-                        return -1;
-                    }
-                    return getListingPostedDateAsLocalDateTime(l1)
-                            .compareTo(getListingPostedDateAsLocalDateTime(l1));
-                });
+    @Nonnull
+    @VisibleForTesting
+    String createMenuId(@Nonnull String step, @Nonnull String searchId, @Nonnull String choice) {
+        return String.join(":", getName(), step, searchId, choice);
     }
 
     /**
      * Creates a StringSelectMenu component to allow the user to select price, date or none to sort
      * the listings.
      *
-     * @param keyword - The search keyword used to find the listings.
-     * @param guildId - The ID of the guild in which the search was performed.
+     * @param searchId - The id of the pending search in the session store.
      * @return A MessageCreateData containing the StringSelectMenu component.
      */
     @Nonnull
-    private MessageCreateData createSortingOptionSelectMenu(
-            @Nonnull String keyword, @Nonnull String guildId) {
+    private MessageCreateData createSortingOptionSelectMenu(@Nonnull String searchId) {
         var sortingOptionSelectMenu =
-                StringSelectMenu.create(
-                                getName() + ":SortOption:" + keyword + ":" + guildId + ":NoChoice")
+                StringSelectMenu.create(createMenuId("SortOption", searchId, "NoChoice"))
                         .setPlaceholder("Sort the listing by:")
                         .addOption(PRICE, PRICE)
                         .addOption(DATE, DATE)
@@ -302,17 +356,15 @@ public class SearchListingsCommand implements SlashCommandHandler, StringSelectH
      * Creates a StringSelectMenu component to allow the user to select a sorting
      * order(ascending/descending) for the listings.
      *
-     * @param keyword - The search keyword used to find the listings.
-     * @param guildId - The ID of the guild in which the search was performed.
+     * @param searchId - The id of the pending search in the session store.
      * @param choice - The sorting option chosen by the user.
      * @return The StringSelectMenu containing the sorting order selections.
      */
     @Nonnull
     private StringSelectMenu createSortingOrderSelectMenu(
-            @Nonnull String keyword, @Nonnull String guildId, @Nonnull String choice) {
+            @Nonnull String searchId, @Nonnull String choice) {
         var sortingOrderSelectMenu =
-                StringSelectMenu.create(
-                                getName() + ":SortOrder:" + keyword + ":" + guildId + ":" + choice)
+                StringSelectMenu.create(createMenuId("SortOrder", searchId, choice))
                         .setPlaceholder("In which order?")
                         .addOption(ASCENDING, ASCENDING)
                         .addOption(DESCENDING, DESCENDING);
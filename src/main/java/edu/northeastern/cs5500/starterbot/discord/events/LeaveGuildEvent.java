@@ -4,6 +4,8 @@ import edu.northeastern.cs5500.starterbot.controller.GuildController;
 import edu.northeastern.cs5500.starterbot.controller.ListingController;
 import edu.northeastern.cs5500.starterbot.controller.UserController;
 import edu.northeastern.cs5500.starterbot.discord.handlers.LeaveGuildEventHandler;
+import java.util.ArrayList;
+import java.util.List;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -34,21 +36,23 @@ public class LeaveGuildEvent implements LeaveGuildEventHandler {
         log.info("event: guildleave");
 
         var guildId = event.getGuild().getId();
-        var listingsInGuild = listingController.getListingsInGuild(guildId);
-        var membersList = guildController.getGuildByGuildId(guildId).getUsersOnServer();
+        // Memberships are removed first, so each check below only sees the remaining guilds
+        var formerMemberIds = guildController.removeAllMembersInGuild(guildId);
 
-        for (String memberId : membersList) {
+        List<String> usersToRemove = new ArrayList<>();
+        for (String memberId : formerMemberIds) {
             if (memberId == null) {
                 log.error("Error when removing member from the guild during guild leave event.");
                 continue;
             }
 
             if (guildController.verifyUserNoLongerExistsInAnyGuild(memberId)) {
-                userController.removeUserByMemberId(memberId);
+                usersToRemove.add(memberId);
             }
         }
+        userController.removeUsersByMemberIds(usersToRemove);
 
-        listingController.deleteCollectionOfListings(listingsInGuild);
+        listingController.deleteListingsInGuild(guildId);
         guildController.removeGuildByGuildId(guildId);
     }
 }
@@ -0,0 +1,48 @@
+package edu.northeastern.cs5500.starterbot.migration;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.repository.GenericRepository;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes every listing that has a city again, so the city key the codec derives from the city is
+ * stored and location filters find listings stored before it existed. Runs in the background, as
+ * such listings only miss searches filtered by city.
+ */
+@Singleton
+@Slf4j
+public class ListingCityKeyMigration implements Migration {
+
+    GenericRepository<Listing> listingRepository;
+
+    @Inject
+    ListingCityKeyMigration(GenericRepository<Listing> listingRepository) {
+        this.listingRepository = listingRepository;
+    }
+
+    @Override
+    @Nonnull
+    public String getName() {
+        return "listing-city-key";
+    }
+
+    @Override
+    public boolean runsInBackground() {
+        return true;
+    }
+
+    @Override
+    public void migrate() {
+        var migratedListings = 0;
+        for (Listing listing : listingRepository.iterateAll()) {
+            // A listing deleted since the page was read is not added back
+            if (listing.getCity() != null && listingRepository.update(listing) != null) {
+                migratedListings++;
+            }
+        }
+        log.info("Stored the city key of {} listings", migratedListings);
+    }
+}
@@ -0,0 +1,80 @@
+package edu.northeastern.cs5500.starterbot.migration;
+
+import com.google.common.annotations.VisibleForTesting;
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.repository.GenericRepository;
+import edu.northeastern.cs5500.starterbot.search.ListingSearch;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves the location CreateListingCommand used to prepend to listing titles, e.g. "[Seattle,
+ * WA]Bike", into the state and city of the listing, so listings can be filtered by location
+ * through an index. Listings that already have a state, or whose title has no location, are
+ * skipped. Runs in the background, as listings without a location only miss filtered searches.
+ * Every migrated listing is indexed again, so searches filter it by its new location.
+ */
+@Singleton
+@Slf4j
+public class ListingLocationMigration implements Migration {
+    // The city, the state and the title, as CreateListingCommand formatted them
+    private static final Pattern TITLE_WITH_LOCATION =
+            Pattern.compile("\\[([^,\\]]+), ([^,\\]]+)\\](.*)", Pattern.DOTALL);
+
+    GenericRepository<Listing> listingRepository;
+    ListingSearch listingSearch;
+
+    @Inject
+    ListingLocationMigration(
+            GenericRepository<Listing> listingRepository, ListingSearch listingSearch) {
+        this.listingRepository = listingRepository;
+        this.listingSearch = listingSearch;
+    }
+
+    @Override
+    @Nonnull
+    public String getName() {
+        return "listing-location";
+    }
+
+    @Override
+    public boolean runsInBackground() {
+        return true;
+    }
+
+    @Override
+    public void migrate() {
+        var migratedListings = 0;
+        for (Listing listing : listingRepository.iterateAll()) {
+            // A listing deleted since the page was read is not added back
+            if (listing.getState() == null
+                    && moveLocationOutOfTitle(listing)
+                    && listingRepository.update(listing) != null) {
+                listingSearch.add(listing);
+                migratedListings++;
+            }
+        }
+        log.info("Stored the location of {} listings", migratedListings);
+    }
+
+    /**
+     * Sets the state and city of a listing from the start of its title, and removes them from it.
+     *
+     * @param listing - The listing to change.
+     * @return Whether the title started with a location.
+     */
+    @VisibleForTesting
+    static boolean moveLocationOutOfTitle(@Nonnull Listing listing) {
+        var matcher = TITLE_WITH_LOCATION.matcher(listing.getTitle());
+        if (!matcher.matches()) {
+            return false;
+        }
+        listing.setCity(matcher.group(1));
+        listing.setState(matcher.group(2));
+        listing.setTitle(matcher.group(3));
+        return true;
+    }
+}
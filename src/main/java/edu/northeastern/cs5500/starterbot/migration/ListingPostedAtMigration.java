@@ -0,0 +1,65 @@
+package edu.northeastern.cs5500.starterbot.migration;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.model.ListingFields;
+import edu.northeastern.cs5500.starterbot.repository.GenericRepository;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Parses the displayed date of listings stored before ListingFields had a typed posting time, and
+ * stores the time so listings can be sorted by it without parsing. Listings that already have a
+ * posting time are skipped. Runs in the background, as the search command parses the date of
+ * unmigrated listings itself.
+ */
+@Singleton
+@Slf4j
+public class ListingPostedAtMigration implements Migration {
+
+    GenericRepository<Listing> listingRepository;
+
+    @Inject
+    ListingPostedAtMigration(GenericRepository<Listing> listingRepository) {
+        this.listingRepository = listingRepository;
+    }
+
+    @Override
+    @Nonnull
+    public String getName() {
+        return "listing-posted-at";
+    }
+
+    @Override
+    public boolean runsInBackground() {
+        return true;
+    }
+
+    @Override
+    public void migrate() {
+        var migratedListings = 0;
+        var unreadableListings = 0;
+        for (Listing listing : listingRepository.iterateAll()) {
+            var fields = listing.getFields();
+            if (fields.getPostedAt() != null) {
+                continue;
+            }
+
+            var postedAt = ListingFields.parseDatePosted(fields.getDatePosted());
+            if (postedAt == null) {
+                unreadableListings++;
+                continue;
+            }
+            fields.setPostedAt(postedAt);
+            // A listing deleted since the page was read is not added back
+            if (listingRepository.update(listing) != null) {
+                migratedListings++;
+            }
+        }
+        log.info(
+                "Stored the posting time of {} listings, {} have a date that could not be read",
+                migratedListings,
+                unreadableListings);
+    }
+}
@@ -0,0 +1,65 @@
+package edu.northeastern.cs5500.starterbot.migration;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.model.Price;
+import edu.northeastern.cs5500.starterbot.repository.GenericRepository;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Parses the cost text of listings stored before ListingFields had a typed price, and stores the
+ * price in minor units along with its currency. Listings that already have a price are skipped.
+ * Runs in the background, as Price.of falls back to parsing the cost of unmigrated listings.
+ */
+@Singleton
+@Slf4j
+public class ListingPriceMigration implements Migration {
+
+    GenericRepository<Listing> listingRepository;
+
+    @Inject
+    ListingPriceMigration(GenericRepository<Listing> listingRepository) {
+        this.listingRepository = listingRepository;
+    }
+
+    @Override
+    @Nonnull
+    public String getName() {
+        return "listing-price";
+    }
+
+    @Override
+    public boolean runsInBackground() {
+        return true;
+    }
+
+    @Override
+    public void migrate() {
+        var migratedListings = 0;
+        var unreadableListings = 0;
+        for (Listing listing : listingRepository.iterateAll()) {
+            var fields = listing.getFields();
+            if (fields.getPriceMinor() != null) {
+                continue;
+            }
+
+            var price = Price.parse(fields.getCost());
+            if (price == null) {
+                unreadableListings++;
+                continue;
+            }
+            fields.setPriceMinor(price.getMinorUnits());
+            fields.setCurrency(price.getCurrency());
+            // A listing deleted since the page was read is not added back
+            if (listingRepository.update(listing) != null) {
+                migratedListings++;
+            }
+        }
+        log.info(
+                "Stored the price of {} listings, {} have a cost that is not a price",
+                migratedListings,
+                unreadableListings);
+    }
+}
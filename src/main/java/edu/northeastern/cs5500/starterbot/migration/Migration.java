@@ -0,0 +1,32 @@
+package edu.northeastern.cs5500.starterbot.migration;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A change to the stored data that runs when the bot starts. A migration that completes is
+ * recorded by name and not run again. One that fails or is interrupted runs again on the next
+ * startup, so it must skip data that has already been migrated.
+ */
+public interface Migration {
+
+    /**
+     * Gets the name of the migration, used in log messages and to record that it has completed.
+     *
+     * @return The name of the migration.
+     */
+    @Nonnull
+    String getName();
+
+    /** Migrates any data that is still in the old format. */
+    void migrate();
+
+    /**
+     * Whether the migration may keep running while the bot handles events, which is the case when
+     * the code reading the data copes with documents in both formats.
+     *
+     * @return Whether the migration runs in the background.
+     */
+    default boolean runsInBackground() {
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+package edu.northeastern.cs5500.starterbot.migration;
+
+import dagger.Module;
+import dagger.Provides;
+import dagger.multibindings.IntoSet;
+
+@Module
+public class MigrationModule {
+
+    @Provides
+    @IntoSet
+    public Migration provideSplitGuildMembershipMigration(
+            SplitGuildMembershipMigration splitGuildMembershipMigration) {
+        return splitGuildMembershipMigration;
+    }
+
+    @Provides
+    @IntoSet
+    public Migration provideListingPriceMigration(ListingPriceMigration listingPriceMigration) {
+        return listingPriceMigration;
+    }
+
+    @Provides
+    @IntoSet
+    public Migration provideListingPostedAtMigration(
+            ListingPostedAtMigration listingPostedAtMigration) {
+        return listingPostedAtMigration;
+    }
+
+    @Provides
+    @IntoSet
+    public Migration provideListingLocationMigration(
+            ListingLocationMigration listingLocationMigration) {
+        return listingLocationMigration;
+    }
+
+    @Provides
+    @IntoSet
+    public Migration provideListingCityKeyMigration(
+            ListingCityKeyMigration listingCityKeyMigration) {
+        return listingCityKeyMigration;
+    }
+}
@@ -0,0 +1,87 @@
+package edu.northeastern.cs5500.starterbot.migration;
+
+import edu.northeastern.cs5500.starterbot.model.MigrationRecord;
+import edu.northeastern.cs5500.starterbot.repository.GenericRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+@Singleton
+@Slf4j
+public class MigrationRunner {
+    private static final String NAME_FIELD = "name";
+
+    Set<Migration> migrations;
+    GenericRepository<MigrationRecord> migrationRecords;
+
+    @Inject
+    MigrationRunner(
+            Set<Migration> migrations, GenericRepository<MigrationRecord> migrationRecords) {
+        this.migrations = migrations;
+        this.migrationRecords = migrationRecords;
+    }
+
+    /**
+     * Runs every migration that has not completed yet. Called once on startup, before the bot
+     * handles any events. Migrations that run in the background are run one after another on a
+     * single thread and may finish later, so two of them never write the same item at once.
+     */
+    public void runAll() {
+        List<Migration> backgroundMigrations = new ArrayList<>();
+        for (Migration migration : migrations) {
+            if (isCompleted(migration)) {
+                continue;
+            }
+            if (migration.runsInBackground()) {
+                backgroundMigrations.add(migration);
+            } else {
+                run(migration);
+            }
+        }
+
+        if (!backgroundMigrations.isEmpty()) {
+            var thread = new Thread(() -> runQuietly(backgroundMigrations), "migration");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private boolean isCompleted(@Nonnull Migration migration) {
+        return migrationRecords.findOne(NAME_FIELD, migration.getName()) != null;
+    }
+
+    private void run(Migration migration) {
+        long start = System.nanoTime();
+        migration.migrate();
+
+        // Only recorded once it finished, so an interrupted migration runs again on the next start
+        var name = migration.getName();
+        migrationRecords.addIfAbsent(
+                Map.of(NAME_FIELD, name), new MigrationRecord(null, name, Instant.now()));
+        log.info(
+                "Migration {} finished in {} ms",
+                name,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // A failed migration does not stop the ones after it, they do not depend on each other
+    private void runQuietly(List<Migration> backgroundMigrations) {
+        for (Migration migration : backgroundMigrations) {
+            try {
+                run(migration);
+            } catch (RuntimeException e) {
+                log.error(
+                        "Migration {} failed, it will run again on the next start",
+                        migration.getName(),
+                        e);
+            }
+        }
+    }
+}
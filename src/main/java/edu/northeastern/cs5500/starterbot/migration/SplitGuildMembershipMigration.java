@@ -0,0 +1,66 @@
+package edu.northeastern.cs5500.starterbot.migration;
+
+import edu.northeastern.cs5500.starterbot.model.Guild;
+import edu.northeastern.cs5500.starterbot.model.GuildMembership;
+import edu.northeastern.cs5500.starterbot.repository.GenericRepository;
+import java.util.HashSet;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves the member ids stored in Guild.usersOnServer into GuildMembership documents and clears the
+ * set on the guild. Members that already have a membership are skipped, so a migration that was
+ * interrupted can simply run again.
+ */
+@Singleton
+@Slf4j
+public class SplitGuildMembershipMigration implements Migration {
+    private static final String GUILD_ID_FIELD = "guildId";
+    private static final String USERS_ON_SERVER_FIELD = "usersOnServer";
+
+    GenericRepository<Guild> guildRepository;
+    GenericRepository<GuildMembership> membershipRepository;
+
+    @Inject
+    SplitGuildMembershipMigration(
+            GenericRepository<Guild> guildRepository,
+            GenericRepository<GuildMembership> membershipRepository) {
+        this.guildRepository = guildRepository;
+        this.membershipRepository = membershipRepository;
+    }
+
+    @Override
+    @Nonnull
+    public String getName() {
+        return "split-guild-membership";
+    }
+
+    @Override
+    public void migrate() {
+        var migratedGuilds = 0;
+        for (Guild guild : guildRepository.iterateAll()) {
+            var usersOnServer = guild.getUsersOnServer();
+            if (usersOnServer == null) {
+                continue;
+            }
+
+            var guildId = guild.getGuildId();
+            var existingMemberships = membershipRepository.findMany(GUILD_ID_FIELD, guildId);
+            Set<String> newMembers = new HashSet<>(usersOnServer);
+            for (GuildMembership membership : existingMemberships) {
+                newMembers.remove(membership.getDiscordUserId());
+            }
+            for (String discordUserId : newMembers) {
+                membershipRepository.add(new GuildMembership(null, guildId, discordUserId));
+            }
+
+            // Only cleared once every member has a membership
+            guildRepository.updateField(GUILD_ID_FIELD, guildId, USERS_ON_SERVER_FIELD, null);
+            migratedGuilds++;
+        }
+        log.info("Moved the members of {} guilds to their own collection", migratedGuilds);
+    }
+}
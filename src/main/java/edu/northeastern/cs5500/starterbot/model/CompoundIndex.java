@@ -0,0 +1,20 @@
+package edu.northeastern.cs5500.starterbot.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Declares an index over several fields of a model, in the order they are given. */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Repeatable(CompoundIndexes.class)
+public @interface CompoundIndex {
+
+    /** The stored field names that make up the index, using dots for nested fields. */
+    String[] fields();
+
+    /** Whether no two documents may hold the same combination of values. */
+    boolean unique() default false;
+}
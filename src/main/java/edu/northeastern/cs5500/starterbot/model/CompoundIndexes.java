@@ -0,0 +1,13 @@
+package edu.northeastern.cs5500.starterbot.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Container that lets a model declare more than one {@link CompoundIndex}. */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CompoundIndexes {
+    CompoundIndex[] value();
+}
@@ -1,5 +1,6 @@
 package edu.northeastern.cs5500.starterbot.model;
 
+import com.mongodb.lang.Nullable;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import lombok.AllArgsConstructor;
@@ -19,7 +20,9 @@ public class Guild implements Model {
     ObjectId id;
 
     // The Guild id of the Guild
-    @Nonnull String guildId;
+    @Indexed(unique = true)
+    @Nonnull
+    String guildId;
 
     // The id of the guild owner
     @Nonnull String guildOwnerId;
@@ -27,6 +30,7 @@ public class Guild implements Model {
     // The id of the trading channel in the Guild
     @Nonnull String tradingChannelId;
 
-    // A set of users ids in the Guild
-    @Nonnull Set<String> usersOnServer;
+    // Legacy set of user ids in the Guild. Members are stored as GuildMembership documents now, so
+    // this is null once SplitGuildMembershipMigration has run
+    @Nullable Set<String> usersOnServer;
 }
@@ -0,0 +1,30 @@
+package edu.northeastern.cs5500.starterbot.model;
+
+import javax.annotation.Nonnull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+
+/*
+ * Represents a user being a member of a guild. One document is stored per member, so guilds of any
+ * size stay small and a membership check is a single indexed lookup.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@CompoundIndex(fields = {"guildId", "discordUserId"}, unique = true)
+public class GuildMembership implements Model {
+
+    // MongoDB id
+    ObjectId id;
+
+    // The Guild id of the Guild
+    @Nonnull String guildId;
+
+    // This is the "snowflake id" of the user. Indexed on its own so finding the guilds of a user,
+    // e.g. to check whether they are still in any guild, is a single index lookup
+    @Indexed
+    @Nonnull
+    String discordUserId;
+}
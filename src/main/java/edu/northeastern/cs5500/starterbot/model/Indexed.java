@@ -0,0 +1,15 @@
+package edu.northeastern.cs5500.starterbot.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Marks a model field that should have a single field index in MongoDB. */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Indexed {
+
+    /** Whether no two documents may hold the same value for the field. */
+    boolean unique() default false;
+}
@@ -2,6 +2,7 @@ package edu.northeastern.cs5500.starterbot.model;
 
 import com.mongodb.lang.Nullable;
 import java.util.List;
+import java.util.Locale;
 import javax.annotation.Nonnull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,6 +17,14 @@ import org.bson.types.ObjectId;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@CompoundIndex(fields = {"guildId", "discordUserId"})
+@CompoundIndex(fields = {"guildId", "fields.priceMinor"})
+@CompoundIndex(fields = {"guildId", "fields.postedAt"})
+@CompoundIndex(fields = {"guildId", "state", "cityKey"})
+@TextIndex(
+        fields = {"title", "fields.description"},
+        weights = {3, 1},
+        prefixFields = {"guildId"})
 public class Listing implements Model {
 
     // MongoDB id
@@ -30,6 +39,12 @@ public class Listing implements Model {
     // The guild that the listing is contained in
     @Nonnull String guildId;
 
+    // Abbreviation of the state the seller lives in, e.g. "WA", null if they never set it
+    @Nullable String state;
+
+    // City the seller lives in, null if they never set it
+    @Nullable String city;
+
     // Title of the listing
     @Nonnull String title;
 
@@ -41,4 +56,29 @@ public class Listing implements Model {
 
     // Additional fields of message
     @Nonnull ListingFields fields;
+
+    /**
+     * Returns the city as location filters match it, which is stored next to the city so the case
+     * and spacing a city is searched with do not matter.
+     *
+     * @return The key of the city, null if the listing has no city.
+     */
+    @Nullable
+    public String getCityKey() {
+        return toCityKey(city);
+    }
+
+    /**
+     * Normalizes a city name by trimming it, collapsing runs of whitespace and lower-casing it.
+     *
+     * @param city - The city name, may be null.
+     * @return The key of the city, null if the name is null or blank.
+     */
+    @Nullable
+    public static String toCityKey(@Nullable String city) {
+        if (city == null || city.isBlank()) {
+            return null;
+        }
+        return city.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
 }
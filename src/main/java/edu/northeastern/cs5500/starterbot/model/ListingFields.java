@@ -1,5 +1,12 @@
 package edu.northeastern.cs5500.starterbot.model;
 
+import com.mongodb.lang.Nullable;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
 import javax.annotation.Nonnull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,10 +21,20 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ListingFields {
+    // Format of datePosted, in the time zone the bot runs in
+    public static final DateTimeFormatter DATE_POSTED_FORMATTER =
+            DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss", Locale.ENGLISH)
+                    .withZone(ZoneId.systemDefault());
 
-    // Cost of item
+    // Cost of item as it is displayed, e.g. "USD 12"
     @Nonnull String cost;
 
+    // Cost of item in the minor unit of its currency, null if it was never parsed from the cost
+    @Nullable Long priceMinor;
+
+    // ISO 4217 code of the currency of priceMinor
+    @Nullable String currency;
+
     // Whether shipping is included in the cost of item
     @Nonnull Boolean shippingIncluded;
 
@@ -27,6 +44,24 @@ public class ListingFields {
     // Description of item listed
     @Nonnull String description;
 
-    // Original date posted of the listing
+    // Original date posted of the listing as it is displayed, e.g. "05/01/2023 10:00:00"
     @Nonnull String datePosted;
+
+    // When the listing was posted, null if it was never parsed from datePosted
+    @Nullable Instant postedAt;
+
+    /**
+     * Reads the time a listing was posted from its displayed date.
+     *
+     * @param datePosted - The date posted, formatted with {@link #DATE_POSTED_FORMATTER}.
+     * @return The time the listing was posted, or null if the text is not such a date.
+     */
+    @Nullable
+    public static Instant parseDatePosted(@Nonnull String datePosted) {
+        try {
+            return ZonedDateTime.parse(datePosted, DATE_POSTED_FORMATTER).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,19 @@
+package edu.northeastern.cs5500.starterbot.model;
+
+import com.mongodb.lang.Nullable;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * The location of a User, read without the listing draft the user may hold.
+ */
+@Data
+@NoArgsConstructor
+public class LocationView {
+
+    // The state the user lives in, null if user does not set state
+    @Nullable String stateOfResidence;
+
+    // The city the user lives in, null if user does not set city
+    @Nullable String cityOfResidence;
+}
@@ -0,0 +1,29 @@
+package edu.northeastern.cs5500.starterbot.model;
+
+import java.time.Instant;
+import javax.annotation.Nonnull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+
+/*
+ * Records that a migration has completed, so MigrationRunner does not run it again on the next
+ * start.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MigrationRecord implements Model {
+
+    // MongoDB id
+    ObjectId id;
+
+    // The name of the completed migration, see Migration.getName
+    @Indexed(unique = true)
+    @Nonnull
+    String name;
+
+    // When the migration completed
+    @Nonnull Instant completedAt;
+}
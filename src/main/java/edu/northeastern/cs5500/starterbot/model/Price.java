@@ -0,0 +1,106 @@
+package edu.northeastern.cs5500.starterbot.model;
+
+import com.mongodb.lang.Nullable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Map;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+import lombok.Value;
+
+/**
+ * An amount of money in the minor unit of its currency, e.g. cents for USD. It is not stored on
+ * its own; ListingFields holds its parts so MongoDB can index and sort by the amount.
+ */
+@Value
+public class Price {
+    public static final String DEFAULT_CURRENCY = "USD";
+
+    // Symbols users write instead of a currency code
+    private static final Map<String, String> CURRENCY_SYMBOLS =
+            Map.of("$", "USD", "\u20ac", "EUR", "\u00a3", "GBP");
+
+    // A currency code or symbol, the amount with optional thousands separators and decimals, and
+    // optionally a currency code after the amount, e.g. "USD 12", "$1,200.50" or "12.50 EUR"
+    private static final Pattern COST_PATTERN =
+            Pattern.compile(
+                    "\\s*([A-Za-z]{3}|[$\u20ac\u00a3])?\\s*"
+                            + "([0-9][0-9,]*(?:\\.[0-9]+)?)\\s*([A-Za-z]{3})?\\s*");
+
+    // The amount in the smallest unit of the currency
+    long minorUnits;
+
+    // ISO 4217 code of the currency
+    @Nonnull String currency;
+
+    /**
+     * Converts an amount in major units, e.g. dollars, into a price.
+     *
+     * @param amount - The amount in major units.
+     * @param currency - The ISO 4217 code of the currency.
+     * @return The price.
+     * @throws IllegalArgumentException If the currency is unknown, or the amount has more decimals
+     *     than the currency has minor units.
+     */
+    @Nonnull
+    public static Price of(@Nonnull BigDecimal amount, @Nonnull String currency) {
+        var fractionDigits = Math.max(0, Currency.getInstance(currency).getDefaultFractionDigits());
+        try {
+            var minorUnits =
+                    amount.setScale(fractionDigits, RoundingMode.UNNECESSARY)
+                            .movePointRight(fractionDigits)
+                            .longValueExact();
+            return new Price(minorUnits, currency);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                    String.format("%s is not a whole amount of %s minor units", amount, currency),
+                    e);
+        }
+    }
+
+    /**
+     * Reads a price from the cost text of a listing, such as "USD 12". Costs without a currency
+     * are taken to be in {@link #DEFAULT_CURRENCY}.
+     *
+     * @param cost - The cost as the user or the bot wrote it.
+     * @return The price, or null if the text is not a price.
+     */
+    @Nullable
+    public static Price parse(@Nonnull String cost) {
+        var matcher = COST_PATTERN.matcher(cost);
+        if (!matcher.matches() || (matcher.group(1) != null && matcher.group(3) != null)) {
+            return null;
+        }
+
+        var currency = matcher.group(1) != null ? matcher.group(1) : matcher.group(3);
+        if (currency == null) {
+            currency = DEFAULT_CURRENCY;
+        }
+        currency = CURRENCY_SYMBOLS.getOrDefault(currency, currency.toUpperCase());
+
+        try {
+            return of(new BigDecimal(matcher.group(2).replace(",", "")), currency);
+        } catch (IllegalArgumentException e) {
+            // An unknown currency code, or more decimals than the currency has
+            return null;
+        }
+    }
+
+    /**
+     * Gets the price of a listing, from the typed fields when they are set and from the cost text
+     * of listings that have not been migrated yet.
+     *
+     * @param fields - The fields of the listing.
+     * @return The price, or null if the listing has none that can be read.
+     */
+    @Nullable
+    public static Price of(@Nonnull ListingFields fields) {
+        var priceMinor = fields.getPriceMinor();
+        var currency = fields.getCurrency();
+        if (priceMinor != null && currency != null) {
+            return new Price(priceMinor, currency);
+        }
+        return parse(fields.getCost());
+    }
+}
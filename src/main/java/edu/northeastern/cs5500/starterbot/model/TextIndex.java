@@ -0,0 +1,27 @@
+package edu.northeastern.cs5500.starterbot.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the text index of a model, which MongoDB uses for $text searches. A collection can
+ * have only one.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface TextIndex {
+
+    /** The stored field names whose words are indexed, using dots for nested fields. */
+    String[] fields();
+
+    /** How much a match in each field counts, in the same order. Every field weighs 1 if empty. */
+    int[] weights() default {};
+
+    /**
+     * Fields placed before the text in the index. Every search then has to match them exactly,
+     * and only reads the part of the index holding those values.
+     */
+    String[] prefixFields() default {};
+}
@@ -0,0 +1,19 @@
+package edu.northeastern.cs5500.starterbot.model;
+
+import com.mongodb.lang.Nullable;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * The part of a Guild needed to find its trading channel, read without the rest of the guild.
+ */
+@Data
+@NoArgsConstructor
+public class TradingChannelView {
+
+    // The Guild id of the Guild
+    @Nullable String guildId;
+
+    // The id of the trading channel in the Guild
+    @Nullable String tradingChannelId;
+}
@@ -13,13 +13,15 @@ import org.bson.types.ObjectId;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class User implements Model {
+public class User implements VersionedModel {
 
     // MongoDB id
     ObjectId id;
 
     // This is the "snowflake id" of the user
-    @Nonnull String discordUserId;
+    @Indexed(unique = true)
+    @Nonnull
+    String discordUserId;
 
     // The state the user lives in, null if user does not set state
     @Nullable String stateOfResidence;
@@ -29,4 +31,7 @@ public class User implements Model {
 
     // The listing currently being worked on, null when not creating listing
     @Nullable Listing currentListing;
+
+    // Incremented by every conditional update, see GenericRepository.compareAndUpdate
+    long version;
 }
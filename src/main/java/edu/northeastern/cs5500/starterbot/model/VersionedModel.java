@@ -0,0 +1,12 @@
+package edu.northeastern.cs5500.starterbot.model;
+
+/**
+ * A model whose stored version is checked on conditional updates, so two handlers that read the
+ * same item cannot silently overwrite each other. Documents stored before the version existed read
+ * as version 0.
+ */
+public interface VersionedModel extends Model {
+    long getVersion();
+
+    void setVersion(long version);
+}
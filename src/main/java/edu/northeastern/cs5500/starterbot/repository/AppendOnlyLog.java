@@ -0,0 +1,250 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import javax.annotation.Nonnull;
+
+/**
+ * A file of length-prefixed, checksummed records that is only ever appended to. Each record is a
+ * one byte type, the payload length, a CRC32 of the payload, then the payload. A record that was
+ * only partly written when the process died fails its checksum and ends the replay.
+ */
+class AppendOnlyLog implements Closeable {
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+
+    // type + length + checksum
+    static final int HEADER_BYTES = 1 + Integer.BYTES + Integer.BYTES;
+
+    // Largest region a single mapping can address, larger files are mapped one window at a time
+    static final long MAX_MAPPING_BYTES = Integer.MAX_VALUE;
+
+    /** Receives the records of a log in the order they were written. */
+    @FunctionalInterface
+    interface RecordHandler {
+        void accept(byte type, @Nonnull ByteBuffer payload);
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+
+    /**
+     * Opens the log for appending, creating it if needed. Call {@link #replay} first to find where
+     * the valid records end.
+     *
+     * @param path - The file of the log.
+     * @param validLength - The length of the valid records, anything after it is discarded.
+     * @throws IOException If the file cannot be opened.
+     */
+    AppendOnlyLog(@Nonnull Path path, long validLength) throws IOException {
+        this.path = path;
+        this.channel =
+                FileChannel.open(
+                        path,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+        channel.truncate(validLength);
+        channel.position(validLength);
+    }
+
+    /**
+     * Appends a record. The record reaches the operating system before this returns, so it
+     * survives the process being killed. It is not flushed to the storage device, as that would
+     * cost more than the write itself; {@link #force} makes every record so far survive a crash
+     * of the machine.
+     *
+     * @param type - The type of the record.
+     * @param payload - The payload of the record.
+     * @throws IOException If the record cannot be written.
+     */
+    void append(byte type, @Nonnull byte[] payload) throws IOException {
+        var record = encode(type, payload);
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    /**
+     * Drops every record, e.g. after they were compacted into a snapshot.
+     *
+     * @throws IOException If the file cannot be truncated.
+     */
+    void clear() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+    }
+
+    /**
+     * Flushes the appended records to the storage device.
+     *
+     * @throws IOException If the file cannot be flushed.
+     */
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Returns the length of the log in bytes.
+     *
+     * @return The length of the log.
+     * @throws IOException If the length cannot be read.
+     */
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Nonnull
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Reads every valid record of the file through a memory mapping, so recovery does not copy
+     * the file through the heap. Files larger than a mapping can address are read through
+     * consecutive windows. Replaying a missing file reads nothing.
+     *
+     * @param path - The file to read.
+     * @param handler - Receives each record.
+     * @return The length of the valid records, which is shorter than the file if it ends in a
+     *     partly written record.
+     * @throws IOException If the file cannot be read.
+     */
+    static long replay(@Nonnull Path path, @Nonnull RecordHandler handler) throws IOException {
+        return replay(path, MAX_MAPPING_BYTES, handler);
+    }
+
+    @VisibleForTesting
+    static long replay(@Nonnull Path path, long windowBytes, @Nonnull RecordHandler handler)
+            throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long windowSize = Math.min(size - position, windowBytes);
+                var window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+                int valid = replayWindow(window, handler);
+
+                // A record cut off by the end of a window is read again from the next window. One
+                // that does not fit into a window of its own, or ends the file, is invalid.
+                if (position + windowSize == size || valid == 0) {
+                    return position + valid;
+                }
+                position += valid;
+            }
+            return position;
+        }
+    }
+
+    /**
+     * Reads the records of one mapped window.
+     *
+     * @param buffer - The window.
+     * @param handler - Receives each record.
+     * @return The length of the complete, valid records at the start of the window.
+     */
+    private static int replayWindow(@Nonnull ByteBuffer buffer, @Nonnull RecordHandler handler) {
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            byte type = buffer.get();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                return start;
+            }
+
+            var payload = buffer.slice();
+            payload.limit(length);
+            if (checksum != checksum(payload.duplicate())) {
+                return start;
+            }
+
+            handler.accept(type, payload);
+            buffer.position(buffer.position() + length);
+        }
+        return buffer.position();
+    }
+
+    /**
+     * Writes the records to a new file that replaces the given one atomically, so a reader sees
+     * either the old or the new file but never a partial one.
+     *
+     * @param path - The file to replace.
+     * @param type - The type of every record.
+     * @param payloads - The payloads of the records.
+     * @throws IOException If the file cannot be written.
+     */
+    static void rewrite(@Nonnull Path path, byte type, @Nonnull Iterable<byte[]> payloads)
+            throws IOException {
+        var temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var channel =
+                FileChannel.open(
+                        temporaryPath,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (byte[] payload : payloads) {
+                var record = encode(type, payload);
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            }
+            channel.force(true);
+        }
+        Files.move(
+                temporaryPath,
+                path,
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(path.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Flushes the entries of a directory to the storage device, so a file renamed into it is
+     * still there after a crash of the machine. Platforms that cannot open a directory, e.g.
+     * Windows, are skipped; the rename itself is still atomic there.
+     *
+     * @param directory - The directory to flush.
+     */
+    private static void forceDirectory(@Nonnull Path directory) {
+        try (var channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported for directories on this platform
+        }
+    }
+
+    @Nonnull
+    private static ByteBuffer encode(byte type, @Nonnull byte[] payload) {
+        var record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        record.put(type);
+        record.putInt(payload.length);
+        record.putInt(checksum(ByteBuffer.wrap(payload)));
+        record.put(payload);
+        return record.flip();
+    }
+
+    private static int checksum(@Nonnull ByteBuffer payload) {
+        var crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
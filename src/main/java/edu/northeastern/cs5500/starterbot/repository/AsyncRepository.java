@@ -0,0 +1,30 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import edu.northeastern.cs5500.starterbot.model.Model;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+
+/**
+ * The non-blocking counterpart of the {@link GenericRepository} reads that event handlers need.
+ * Every call returns at once and the future completes once the backend answered, so event handlers
+ * can reply from a callback instead of holding the gateway thread while the database responds.
+ */
+public interface AsyncRepository<T extends Model> {
+    /**
+     * Counts the items matching all the fields of the filter.
+     *
+     * @param filter - Field names mapped to the values they should hold.
+     * @return A future of the number of matching items.
+     */
+    public CompletableFuture<Long> count(@Nonnull Map<String, Object> filter);
+
+    /**
+     * Finds the items matching a query, in the order and up to the limit it asks for.
+     *
+     * @param query - The query to run.
+     * @return A future of the matching items.
+     */
+    public CompletableFuture<List<T>> find(@Nonnull Query query);
+}
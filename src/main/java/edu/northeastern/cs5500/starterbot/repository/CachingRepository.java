@@ -0,0 +1,338 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import edu.northeastern.cs5500.starterbot.model.Model;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.bson.types.ObjectId;
+
+/**
+ * A read-through cache in front of another repository. Items are cached by id, and field lookups
+ * remember which id they resolved to so repeated lookups by the same Discord id are served from
+ * memory. Entries expire after a fixed time and the least recently used ones are evicted once the
+ * total weight of the cached items exceeds the limit.
+ *
+ * <p>The cache holds its own copies of the items and hands out copies of them, so a caller that
+ * changes an item it read does not change what other callers read until the item is stored.
+ * Writes go to the delegate first and drop the cached item once they succeed. A read that missed
+ * before the write may only cache what it read afterwards, so every write counts itself before
+ * dropping the item, and a read whose item was cached while a write was counted drops it again.
+ */
+public class CachingRepository<T extends Model> implements GenericRepository<T> {
+    static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(5);
+    static final long DEFAULT_MAX_WEIGHT = 10_000;
+
+    GenericRepository<T> delegate;
+
+    // Cached items by id
+    Cache<ObjectId, T> items;
+
+    // (field, value) -> id of the item a findOne returned for it
+    Cache<Map.Entry<String, Object>, ObjectId> idsByField;
+
+    // Counts the writes that dropped cached items, see cacheRead
+    private final AtomicLong writes = new AtomicLong();
+
+    public CachingRepository(@Nonnull GenericRepository<T> delegate) {
+        this(delegate, item -> 1, DEFAULT_MAX_WEIGHT, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * Creates a cache in front of the delegate.
+     *
+     * @param delegate - The repository to read through to.
+     * @param weigher - The weight of an item, e.g. based on the size of its collections.
+     * @param maxWeight - The total weight of items that may be cached at once.
+     * @param timeToLive - How long an item may be served from the cache after it was read.
+     */
+    public CachingRepository(
+            @Nonnull GenericRepository<T> delegate,
+            @Nonnull ToIntFunction<T> weigher,
+            long maxWeight,
+            @Nonnull Duration timeToLive) {
+        this.delegate = delegate;
+        this.items =
+                CacheBuilder.newBuilder()
+                        .maximumWeight(maxWeight)
+                        .<ObjectId, T>weigher((id, item) -> weigher.applyAsInt(item))
+                        .expireAfterWrite(timeToLive)
+                        .recordStats()
+                        .build();
+        this.idsByField =
+                CacheBuilder.newBuilder()
+                        .maximumSize(maxWeight)
+                        .expireAfterWrite(timeToLive)
+                        .build();
+    }
+
+    /**
+     * Returns the hit, miss and eviction counts of the item cache.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    @Nonnull
+    public CacheStats getStats() {
+        return items.stats();
+    }
+
+    /**
+     * Returns the repository behind the cache, e.g. to report the statistics of a write buffer.
+     *
+     * @return The delegate of this cache.
+     */
+    @Nonnull
+    public GenericRepository<T> getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    @Nullable
+    public T get(@Nonnull ObjectId id) {
+        T item = items.getIfPresent(id);
+        if (item != null) {
+            return ModelCopies.copyOf(item);
+        }
+
+        long writesBeforeRead = writes.get();
+        item = delegate.get(id);
+        if (item != null) {
+            cacheRead(item, writesBeforeRead);
+        }
+        return item;
+    }
+
+    @Override
+    public T add(@Nonnull T item) {
+        T added = delegate.add(item);
+        items.put(item.getId(), ModelCopies.copyOf(item));
+        return added;
+    }
+
+    @Override
+    public T update(@Nonnull T item) {
+        T updated = delegate.update(item);
+        invalidate(item.getId());
+        return updated;
+    }
+
+    @Override
+    public boolean compareAndUpdate(@Nonnull T item, long expectedVersion) {
+        var updated = delegate.compareAndUpdate(item, expectedVersion);
+        // Dropped either way: on a conflict the cached copy is older than the stored item
+        invalidate(item.getId());
+        return updated;
+    }
+
+    @Override
+    public void updateAll(@Nonnull Collection<T> updatedItems) {
+        delegate.updateAll(updatedItems);
+        writes.incrementAndGet();
+        for (T item : updatedItems) {
+            items.invalidate(item.getId());
+        }
+    }
+
+    @Override
+    public boolean updateField(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nullable Object value) {
+        var modified = delegate.updateField(matchField, matchValue, field, value);
+        invalidateMatching(matchField, matchValue);
+        return modified;
+    }
+
+    @Override
+    public boolean addToSet(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nonnull Collection<?> values) {
+        var modified = delegate.addToSet(matchField, matchValue, field, values);
+        invalidateMatching(matchField, matchValue);
+        return modified;
+    }
+
+    @Override
+    public boolean pull(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nonnull Object value) {
+        var modified = delegate.pull(matchField, matchValue, field, value);
+        invalidateMatching(matchField, matchValue);
+        return modified;
+    }
+
+    @Override
+    public void delete(@Nonnull ObjectId id) {
+        delegate.delete(id);
+        invalidate(id);
+    }
+
+    @Override
+    public void addAll(@Nonnull Collection<T> addedItems) {
+        delegate.addAll(addedItems);
+        for (T item : addedItems) {
+            items.put(item.getId(), ModelCopies.copyOf(item));
+        }
+    }
+
+    @Override
+    public boolean addIfAbsent(@Nonnull Map<String, Object> filter, @Nonnull T item) {
+        return delegate.addIfAbsent(filter, item);
+    }
+
+    @Override
+    public void deleteAll(@Nonnull Collection<ObjectId> ids) {
+        delegate.deleteAll(ids);
+        writes.incrementAndGet();
+        items.invalidateAll(ids);
+    }
+
+    @Override
+    public long deleteWhere(@Nonnull Map<String, Object> filter) {
+        var deleted = delegate.deleteWhere(filter);
+        // Any number of items may match, so rather than reading every cached item the cache is
+        // emptied; bulk deletes are rare, e.g. when the bot leaves a guild
+        invalidateAll();
+        return deleted;
+    }
+
+    @Override
+    public long deleteWhereIn(@Nonnull String field, @Nonnull Collection<?> values) {
+        var deleted = delegate.deleteWhereIn(field, values);
+        invalidateAll();
+        return deleted;
+    }
+
+    @Override
+    public Collection<T> getAll() {
+        return delegate.getAll();
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long count(@Nonnull Map<String, Object> filter) {
+        return delegate.count(filter);
+    }
+
+    @Override
+    @Nullable
+    public T findOne(@Nonnull String field, @Nonnull Object value) {
+        var key = Map.entry(field, value);
+
+        ObjectId cachedId = idsByField.getIfPresent(key);
+        if (cachedId != null) {
+            T item = get(cachedId);
+            // The item may have been deleted or changed since the lookup was cached
+            if (item != null && FieldAccessor.matches(item, field, value)) {
+                return item;
+            }
+            idsByField.invalidate(key);
+        }
+
+        long writesBeforeRead = writes.get();
+        T item = delegate.findOne(field, value);
+        if (item != null) {
+            idsByField.put(key, item.getId());
+            cacheRead(item, writesBeforeRead);
+        }
+        return item;
+    }
+
+    @Override
+    @Nullable
+    public <V> V findOne(@Nonnull String field, @Nonnull Object value, @Nonnull Class<V> view) {
+        ObjectId cachedId = idsByField.getIfPresent(Map.entry(field, value));
+        T item = cachedId == null ? null : items.getIfPresent(cachedId);
+        if (item != null && FieldAccessor.matches(item, field, value)) {
+            return ViewProjection.project(item, view);
+        }
+
+        // Views are not cached, a miss reads just the view from the delegate
+        return delegate.findOne(field, value, view);
+    }
+
+    @Override
+    @Nonnull
+    public List<T> findMany(@Nonnull String field, @Nonnull Object value) {
+        return delegate.findMany(field, value);
+    }
+
+    @Override
+    @Nonnull
+    public List<T> findMany(@Nonnull Map<String, Object> filter) {
+        return delegate.findMany(filter);
+    }
+
+    @Override
+    @Nonnull
+    public List<T> find(@Nonnull Query query) {
+        return delegate.find(query);
+    }
+
+    @Override
+    @Nonnull
+    public List<T> getPage(
+            @Nonnull Map<String, Object> filter, @Nullable ObjectId afterId, int limit) {
+        return delegate.getPage(filter, afterId, limit);
+    }
+
+    /**
+     * Caches an item read from the delegate. If a write dropped cached items while it was read,
+     * the item may be older than what is stored, so it is dropped again. The write either dropped
+     * it already or counted itself before dropping it, so one of the two always sees the other.
+     *
+     * @param item - The item as read from the delegate.
+     * @param writesBeforeRead - The count of writes before the read started.
+     */
+    private void cacheRead(@Nonnull T item, long writesBeforeRead) {
+        var id = item.getId();
+        items.put(id, ModelCopies.copyOf(item));
+        if (writes.get() != writesBeforeRead) {
+            items.invalidate(id);
+        }
+    }
+
+    private void invalidate(@Nonnull ObjectId id) {
+        writes.incrementAndGet();
+        items.invalidate(id);
+    }
+
+    private void invalidateAll() {
+        writes.incrementAndGet();
+        items.invalidateAll();
+    }
+
+    /**
+     * Drops the cached item matching the field, so the next read sees a field level update that
+     * was applied by the delegate. The item is found through the id a findOne by the same field
+     * resolved to, and only looked for among the cached items when there is none.
+     *
+     * @param field - The field that identified the updated item.
+     * @param value - The value of the identifying field.
+     */
+    private void invalidateMatching(@Nonnull String field, @Nonnull Object value) {
+        writes.incrementAndGet();
+        var id = idsByField.getIfPresent(Map.entry(field, value));
+        if (id != null) {
+            items.invalidate(id);
+            return;
+        }
+        items.asMap().values().removeIf(item -> FieldAccessor.matches(item, field, value));
+    }
+}
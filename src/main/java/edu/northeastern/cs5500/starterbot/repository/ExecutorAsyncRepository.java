@@ -0,0 +1,39 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import edu.northeastern.cs5500.starterbot.model.Model;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import javax.annotation.Nonnull;
+
+/**
+ * Runs the calls of a blocking repository on an executor, so the thread that issues them is free
+ * while they wait on the backend. Failures of the delegate complete the future exceptionally.
+ */
+public class ExecutorAsyncRepository<T extends Model> implements AsyncRepository<T> {
+    GenericRepository<T> delegate;
+    Executor executor;
+
+    /**
+     * Creates an asynchronous view of the repository.
+     *
+     * @param delegate - The repository that does the work.
+     * @param executor - The executor the calls to the delegate run on.
+     */
+    public ExecutorAsyncRepository(
+            @Nonnull GenericRepository<T> delegate, @Nonnull Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Long> count(@Nonnull Map<String, Object> filter) {
+        return CompletableFuture.supplyAsync(() -> delegate.count(filter), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<T>> find(@Nonnull Query query) {
+        return CompletableFuture.supplyAsync(() -> delegate.find(query), executor);
+    }
+}
@@ -0,0 +1,147 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Reads model properties by their stored field name so that the in-memory backends can evaluate
+ * the same field-equality filters that MongoDB evaluates server side. Nested properties are
+ * addressed with dots, e.g. "fields.description".
+ */
+final class FieldAccessor {
+    private static final Map<String, Method> GETTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Method> SETTERS = new ConcurrentHashMap<>();
+
+    private FieldAccessor() {}
+
+    /**
+     * Reads the value stored under the given field path.
+     *
+     * @param item - The object to read from.
+     * @param fieldPath - The field name, using dots for nested properties.
+     * @return The value of the field, or null if it (or any parent) is null.
+     * @throws IllegalArgumentException If the field does not exist on the object.
+     */
+    @Nullable
+    static Object getValue(@Nonnull Object item, @Nonnull String fieldPath) {
+        Object current = item;
+        for (String property : fieldPath.split("\\.")) {
+            if (current == null) {
+                return null;
+            }
+            current = invoke(getter(current.getClass(), property), current);
+        }
+        return current;
+    }
+
+    /**
+     * Writes the value to the given field path. Every parent of the field must be non-null.
+     *
+     * @param item - The object to write to.
+     * @param fieldPath - The field name, using dots for nested properties.
+     * @param value - The value to store.
+     * @throws IllegalArgumentException If the field does not exist or cannot be written.
+     */
+    static void setValue(@Nonnull Object item, @Nonnull String fieldPath, @Nullable Object value) {
+        Object parent = item;
+        var lastDot = fieldPath.lastIndexOf('.');
+        if (lastDot >= 0) {
+            parent = getValue(item, fieldPath.substring(0, lastDot));
+            if (parent == null) {
+                throw new IllegalArgumentException("The parent of " + fieldPath + " is null");
+            }
+        }
+        var property = fieldPath.substring(lastDot + 1);
+        invoke(setter(parent.getClass(), property), parent, value);
+    }
+
+    /**
+     * Checks whether the field of the item equals the value. Like MongoDB, a collection valued
+     * field matches when any of its elements equals the value.
+     *
+     * @param item - The object to check.
+     * @param fieldPath - The field name, using dots for nested properties.
+     * @param value - The value the field should hold.
+     * @return Whether the field matches the value.
+     */
+    static boolean matches(@Nonnull Object item, @Nonnull String fieldPath, Object value) {
+        Object fieldValue = getValue(item, fieldPath);
+        if (fieldValue instanceof Collection<?> values) {
+            return values.contains(value);
+        }
+        return Objects.equals(fieldValue, value);
+    }
+
+    /**
+     * Checks whether every field in the filter matches the item.
+     *
+     * @param item - The object to check.
+     * @param filter - Field names mapped to the values they should hold.
+     * @return Whether all fields match.
+     */
+    static boolean matchesAll(@Nonnull Object item, @Nonnull Map<String, Object> filter) {
+        for (Map.Entry<String, Object> entry : filter.entrySet()) {
+            if (!matches(item, entry.getKey(), entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nonnull
+    private static Method getter(@Nonnull Class<?> clazz, @Nonnull String property) {
+        return GETTERS.computeIfAbsent(
+                clazz.getName() + "#" + property,
+                key -> {
+                    var suffix = capitalize(property);
+                    for (String prefix : new String[] {"get", "is"}) {
+                        try {
+                            return clazz.getMethod(prefix + suffix);
+                        } catch (NoSuchMethodException e) {
+                            // Try the next accessor naming convention
+                        }
+                    }
+                    throw new IllegalArgumentException(
+                            String.format("%s has no field named %s", clazz.getName(), property));
+                });
+    }
+
+    @Nonnull
+    private static Method setter(@Nonnull Class<?> clazz, @Nonnull String property) {
+        return SETTERS.computeIfAbsent(
+                clazz.getName() + "#" + property,
+                key -> {
+                    var name = "set" + capitalize(property);
+                    for (Method method : clazz.getMethods()) {
+                        if (method.getName().equals(name) && method.getParameterCount() == 1) {
+                            return method;
+                        }
+                    }
+                    throw new IllegalArgumentException(
+                            String.format(
+                                    "%s has no settable field named %s",
+                                    clazz.getName(), property));
+                });
+    }
+
+    @Nonnull
+    private static String capitalize(@Nonnull String property) {
+        return Character.toUpperCase(property.charAt(0)) + property.substring(1);
+    }
+
+    @Nullable
+    private static Object invoke(
+            @Nonnull Method method, @Nonnull Object target, Object... arguments) {
+        try {
+            return method.invoke(target, arguments);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Unable to access field with " + method.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Iterables;
+import edu.northeastern.cs5500.starterbot.model.Model;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+
+/**
+ * A repository that serves everything from memory and persists every write to a local
+ * append-only log, for deployments where a round trip to MongoDB costs more than the command
+ * itself. The log is compacted into a snapshot once it holds enough records, and both files are
+ * read through memory mappings on startup to rebuild the in-memory state.
+ *
+ * <p>Documents are stored as BSON with the same codecs the MongoDB backend uses. Writes are
+ * serialized; reads run concurrently against the in-memory copy. The files of a model are locked
+ * while a repository has them open, so a second process or repository cannot append to them.
+ *
+ * <p>Every write reaches the operating system before it returns, so it survives the process being
+ * killed. The log is only flushed to the storage device when a snapshot is taken and when the
+ * repository is closed, so a crash of the machine loses the writes since then.
+ */
+@Slf4j
+public class FileRepository<T extends Model> implements GenericRepository<T>, AutoCloseable {
+    // Number of logged writes after which the log is compacted into a new snapshot
+    static final int SNAPSHOT_EVERY_RECORDS = 100_000;
+
+    InMemoryRepository<T> items;
+    Codec<T> codec;
+    Path snapshotPath;
+    AppendOnlyLog appendLog;
+    int recordsSinceSnapshot;
+    boolean closed;
+
+    // Holds the lock on the files of the model until the repository is closed
+    FileChannel lockChannel;
+
+    // Compacts and closes the files on shutdown, removed again when the repository is closed
+    Thread shutdownHook;
+
+    /**
+     * Opens the repository stored in the directory, recovering its contents from the snapshot
+     * and the log.
+     *
+     * @param clazz - The model stored in the repository, which also names its files.
+     * @param codecRegistry - The registry providing the BSON codec of the model.
+     * @param directory - The directory holding the files of the repository.
+     * @throws IllegalStateException If the files cannot be read, or are already open.
+     */
+    public FileRepository(
+            @Nonnull Class<T> clazz,
+            @Nonnull CodecRegistry codecRegistry,
+            @Nonnull Path directory) {
+        this.items = new InMemoryRepository<>();
+        this.codec = codecRegistry.get(clazz);
+        this.snapshotPath = directory.resolve(clazz.getName() + ".snapshot");
+        var logPath = directory.resolve(clazz.getName() + ".log");
+
+        try {
+            Files.createDirectories(directory);
+            lock(directory.resolve(clazz.getName() + ".lock"));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to lock the repository in " + directory, e);
+        }
+
+        try {
+            long start = System.nanoTime();
+            AppendOnlyLog.replay(snapshotPath, this::apply);
+            long validLogLength = AppendOnlyLog.replay(logPath, this::apply);
+            if (Files.exists(logPath) && validLogLength < Files.size(logPath)) {
+                log.warn("Discarding a partly written record at the end of {}", logPath);
+            }
+            log.info(
+                    "Recovered {} {} documents in {} ms",
+                    items.count(),
+                    clazz.getSimpleName(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            appendLog = new AppendOnlyLog(logPath, validLogLength);
+        } catch (IOException e) {
+            closeQuietly(lockChannel);
+            throw new IllegalStateException("Unable to open the repository in " + directory, e);
+        }
+
+        shutdownHook = new Thread(() -> closeFiles(true), "file-repository-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Takes an exclusive lock on the lock file of the model. The lock is held by the open channel
+     * and released when it is closed, also when the process dies.
+     *
+     * @param lockPath - The lock file, created if needed.
+     * @throws IOException If the lock file cannot be opened.
+     * @throws IllegalStateException If another process or repository holds the lock.
+     */
+    private void lock(@Nonnull Path lockPath) throws IOException {
+        lockChannel =
+                FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Held by another repository in this process
+            lock = null;
+        }
+
+        if (lock == null) {
+            closeQuietly(lockChannel);
+            throw new IllegalStateException(
+                    lockPath + " is locked, the repository is already open");
+        }
+    }
+
+    /**
+     * Writes every item to a new snapshot and empties the log. Recovery replays the log over the
+     * snapshot, so stopping between the two steps loses nothing. The log is flushed first, so it
+     * is on the storage device for as long as the new snapshot may not be.
+     */
+    public synchronized void snapshot() {
+        try {
+            appendLog.force();
+            var documents = Iterables.transform(items.getAll(), this::encode);
+            AppendOnlyLog.rewrite(snapshotPath, AppendOnlyLog.PUT, documents);
+            appendLog.clear();
+            recordsSinceSnapshot = 0;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to write snapshot " + snapshotPath, e);
+        }
+    }
+
+    /** Compacts the log into a snapshot, closes it and releases the lock on the files. */
+    @Override
+    public void close() {
+        removeShutdownHook();
+        closeFiles(true);
+    }
+
+    /**
+     * Closes the files without compacting the log and releases the lock, leaving the files as a
+     * killed process would.
+     */
+    @VisibleForTesting
+    void closeWithoutSnapshot() {
+        removeShutdownHook();
+        closeFiles(false);
+    }
+
+    private void removeShutdownHook() {
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // The JVM is already shutting down and the hook is closing the files
+        }
+    }
+
+    private synchronized void closeFiles(boolean compact) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            if (compact && appendLog.size() > 0) {
+                snapshot();
+            }
+            appendLog.force();
+            appendLog.close();
+        } catch (IOException e) {
+            log.error("Unable to close {}", appendLog.getPath(), e);
+        } finally {
+            closeQuietly(lockChannel);
+        }
+    }
+
+    private static void closeQuietly(@Nonnull FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.error("Unable to release the lock on the repository", e);
+        }
+    }
+
+    @Override
+    @Nullable
+    public T get(@Nonnull ObjectId id) {
+        return items.get(id);
+    }
+
+    @Override
+    public synchronized T add(@Nonnull T item) {
+        if (item.getId() == null) {
+            item.setId(new ObjectId());
+        }
+        // The in-memory copy changes first, so a snapshot taken by the append includes the item
+        items.add(item);
+        logPut(item);
+        return item;
+    }
+
+    @Override
+    public synchronized boolean addIfAbsent(@Nonnull Map<String, Object> filter, @Nonnull T item) {
+        if (!items.addIfAbsent(filter, item)) {
+            return false;
+        }
+        logPut(item);
+        return true;
+    }
+
+    @Override
+    public synchronized T update(@Nonnull T item) {
+        if (items.update(item) == null) {
+            return null;
+        }
+        logPut(item);
+        return item;
+    }
+
+    @Override
+    public synchronized boolean compareAndUpdate(@Nonnull T item, long expectedVersion) {
+        if (!items.compareAndUpdate(item, expectedVersion)) {
+            return false;
+        }
+        logPut(item);
+        return true;
+    }
+
+    @Override
+    public synchronized void updateAll(@Nonnull Collection<T> updatedItems) {
+        for (T item : updatedItems) {
+            update(item);
+        }
+    }
+
+    @Override
+    public synchronized boolean updateField(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nullable Object value) {
+        T match = items.findOne(matchField, matchValue);
+        if (match == null || !items.updateField(matchField, matchValue, field, value)) {
+            return false;
+        }
+        logPut(match);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean addToSet(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nonnull Collection<?> values) {
+        T match = items.findOne(matchField, matchValue);
+        if (match == null || !items.addToSet(matchField, matchValue, field, values)) {
+            return false;
+        }
+        logPut(match);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean pull(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nonnull Object value) {
+        T match = items.findOne(matchField, matchValue);
+        if (match == null || !items.pull(matchField, matchValue, field, value)) {
+            return false;
+        }
+        logPut(match);
+        return true;
+    }
+
+    @Override
+    public synchronized void delete(@Nonnull ObjectId id) {
+        items.delete(id);
+        append(AppendOnlyLog.DELETE, id.toByteArray());
+    }
+
+    @Override
+    public synchronized void addAll(@Nonnull Collection<T> addedItems) {
+        for (T item : addedItems) {
+            add(item);
+        }
+    }
+
+    @Override
+    public synchronized void deleteAll(@Nonnull Collection<ObjectId> ids) {
+        for (ObjectId id : ids) {
+            delete(id);
+        }
+    }
+
+    @Override
+    public synchronized long deleteWhere(@Nonnull Map<String, Object> filter) {
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("deleteWhere needs a non-empty filter");
+        }
+
+        var matches = items.findMany(filter);
+        for (T item : matches) {
+            delete(item.getId());
+        }
+        return matches.size();
+    }
+
+    @Override
+    public synchronized long deleteWhereIn(@Nonnull String field, @Nonnull Collection<?> values) {
+        Set<ObjectId> ids = new HashSet<>();
+        for (Object value : values) {
+            for (T item : items.findMany(field, value)) {
+                ids.add(item.getId());
+            }
+        }
+        deleteAll(ids);
+        return ids.size();
+    }
+
+    @Override
+    public Collection<T> getAll() {
+        return items.getAll();
+    }
+
+    @Override
+    public long count() {
+        return items.count();
+    }
+
+    @Override
+    public long count(@Nonnull Map<String, Object> filter) {
+        return items.count(filter);
+    }
+
+    @Override
+    @Nullable
+    public T findOne(@Nonnull String field, @Nonnull Object value) {
+        return items.findOne(field, value);
+    }
+
+    @Override
+    @Nonnull
+    public List<T> findMany(@Nonnull String field, @Nonnull Object value) {
+        return items.findMany(field, value);
+    }
+
+    @Override
+    @Nonnull
+    public List<T> findMany(@Nonnull Map<String, Object> filter) {
+        return items.findMany(filter);
+    }
+
+    @Override
+    @Nonnull
+    public List<T> find(@Nonnull Query query) {
+        return items.find(query);
+    }
+
+    @Override
+    @Nonnull
+    public List<T> getPage(
+            @Nonnull Map<String, Object> filter, @Nullable ObjectId afterId, int limit) {
+        return items.getPage(filter, afterId, limit);
+    }
+
+    /**
+     * Applies a record read from the snapshot or the log to the in-memory copy.
+     *
+     * @param type - The type of the record.
+     * @param payload - The payload of the record.
+     */
+    private void apply(byte type, @Nonnull ByteBuffer payload) {
+        switch (type) {
+            case AppendOnlyLog.PUT -> items.add(decode(payload));
+            case AppendOnlyLog.DELETE -> {
+                var id = new byte[payload.remaining()];
+                payload.get(id);
+                items.delete(new ObjectId(id));
+            }
+            default -> throw new IllegalStateException("Unknown record type " + type);
+        }
+    }
+
+    private void logPut(@Nonnull T item) {
+        append(AppendOnlyLog.PUT, encode(item));
+    }
+
+    private void append(byte type, @Nonnull byte[] payload) {
+        try {
+            appendLog.append(type, payload);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to write to " + appendLog.getPath(), e);
+        }
+
+        if (++recordsSinceSnapshot >= SNAPSHOT_EVERY_RECORDS) {
+            snapshot();
+        }
+    }
+
+    @Nonnull
+    private byte[] encode(@Nonnull T item) {
+        var buffer = new BasicOutputBuffer();
+        codec.encode(
+                new BsonBinaryWriter(buffer),
+                item,
+                EncoderContext.builder().isEncodingCollectibleDocument(true).build());
+        return buffer.toByteArray();
+    }
+
+    @Nonnull
+    private T decode(@Nonnull ByteBuffer payload) {
+        payload.order(ByteOrder.LITTLE_ENDIAN);
+        return codec.decode(new BsonBinaryReader(payload), DecoderContext.builder().build());
+    }
+}
@@ -1,19 +1,281 @@
 package edu.northeastern.cs5500.starterbot.repository;
 
+import edu.northeastern.cs5500.starterbot.model.Model;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.bson.types.ObjectId;
 
-public interface GenericRepository<T> {
+public interface GenericRepository<T extends Model> {
+    /** Number of items fetched per round trip when iterating over a collection. */
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    /** Number of times updateWithRetry reads and changes an item before giving up. */
+    public static final int MAX_UPDATE_ATTEMPTS = 5;
+
     public T get(@Nonnull ObjectId id);
 
     public T add(@Nonnull T item);
 
+    /**
+     * Replaces the stored item with the same id. An item that is not stored, e.g. because it was
+     * deleted after it was read, is not added back.
+     *
+     * @param item - The changed item.
+     * @return A non-null item if one was replaced, or null if no item with the id is stored.
+     */
     public T update(@Nonnull T item);
 
     public void delete(@Nonnull ObjectId id);
 
+    /**
+     * Adds all the items, as one batch where the backend supports it. Items without an id are
+     * given one.
+     *
+     * @param items - The items to add.
+     */
+    public void addAll(@Nonnull Collection<T> items);
+
+    /**
+     * Adds the item unless an item matching the filter exists, as one atomic step, so two callers
+     * adding the same item at the same time store it only once.
+     *
+     * @param filter - Field names mapped to the values that identify the item, must not be empty.
+     * @param item - The item to add, which should match the filter.
+     * @return Whether the item was added, false if a matching item already existed.
+     * @throws IllegalArgumentException If the filter is empty.
+     */
+    public boolean addIfAbsent(@Nonnull Map<String, Object> filter, @Nonnull T item);
+
+    /**
+     * Deletes the items with the given ids, as one batch where the backend supports it.
+     *
+     * @param ids - The ids of the items to delete.
+     */
+    public void deleteAll(@Nonnull Collection<ObjectId> ids);
+
+    /**
+     * Deletes every item matching the filter in a single operation.
+     *
+     * @param filter - Field names mapped to the values they should hold, must not be empty.
+     * @return The number of items deleted.
+     * @throws IllegalArgumentException If the filter is empty.
+     */
+    public long deleteWhere(@Nonnull Map<String, Object> filter);
+
+    /**
+     * Deletes every item whose single valued field holds one of the values, in as few operations
+     * as the backend allows, e.g. to remove a batch of users by their Discord ids.
+     *
+     * @param field - The stored name of the field, using dots for nested fields.
+     * @param values - The values of the field whose items should be deleted.
+     * @return The number of items deleted.
+     */
+    public long deleteWhereIn(@Nonnull String field, @Nonnull Collection<?> values);
+
+    /**
+     * Replaces each of the items with the stored item of the same id, as one batch where the
+     * backend supports it.
+     *
+     * @param items - The items to update.
+     */
+    public void updateAll(@Nonnull Collection<T> items);
+
+    /**
+     * Replaces the stored item only if its version still equals the expected version, i.e. no
+     * other conditional update stored it since it was read. The version of the item is
+     * incremented when it is stored. Plain updates do not check or change the version.
+     *
+     * @param item - The changed item, whose model must implement VersionedModel.
+     * @param expectedVersion - The version the item had when it was read.
+     * @return Whether the item was replaced, false if it was changed or deleted in the meantime.
+     * @throws IllegalArgumentException If the model is not versioned.
+     */
+    public boolean compareAndUpdate(@Nonnull T item, long expectedVersion);
+
+    /**
+     * Reads the item, applies the change to a copy of it and stores the copy with
+     * compareAndUpdate, starting over from a fresh read whenever another update got there first.
+     * A change that loses is applied only to its discarded copy, so other readers never see it.
+     *
+     * @param id - The id of the item to change.
+     * @param change - Changes the copy in place. It may run more than once, so it must not have
+     *     effects beyond the item.
+     * @return The updated item, or null if there is no item with the id.
+     * @throws IllegalArgumentException If the model is not versioned.
+     * @throws IllegalStateException If every attempt lost to a concurrent update.
+     */
+    @Nullable
+    public default T updateWithRetry(@Nonnull ObjectId id, @Nonnull Consumer<T> change) {
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            T stored = get(id);
+            if (stored == null) {
+                return null;
+            }
+
+            // The backend or a cache may hand out the instance it holds, so change a copy
+            long version = Versions.of(stored).getVersion();
+            T item = ModelCopies.copyOf(stored);
+            change.accept(item);
+            if (compareAndUpdate(item, version)) {
+                return item;
+            }
+        }
+        throw new IllegalStateException(
+                "Gave up updating " + id + " after " + MAX_UPDATE_ATTEMPTS + " conflicts");
+    }
+
+    /**
+     * Sets a single field of the item matching the filter field, without replacing the rest of
+     * the item.
+     *
+     * @param matchField - The field that identifies the item, e.g. its Discord id.
+     * @param matchValue - The value of the identifying field.
+     * @param field - The field to set.
+     * @param value - The new value of the field.
+     * @return Whether an item was modified.
+     */
+    public boolean updateField(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nullable Object value);
+
+    /**
+     * Adds the values to a collection valued field of the item matching the filter field, skipping
+     * values that are already present. A missing collection is created.
+     *
+     * @param matchField - The field that identifies the item, e.g. its Discord id.
+     * @param matchValue - The value of the identifying field.
+     * @param field - The collection valued field to add to.
+     * @param values - The values to add.
+     * @return Whether an item was modified.
+     */
+    public boolean addToSet(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nonnull Collection<?> values);
+
+    /**
+     * Removes a value from a collection valued field of the item matching the filter field.
+     *
+     * @param matchField - The field that identifies the item, e.g. its Discord id.
+     * @param matchValue - The value of the identifying field.
+     * @param field - The collection valued field to remove from.
+     * @param value - The value to remove.
+     * @return Whether an item was modified.
+     */
+    public boolean pull(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nonnull Object value);
+
     public Collection<T> getAll();
 
     public long count();
+
+    /**
+     * Counts the items matching every field in the filter without loading them.
+     *
+     * @param filter - Field names mapped to the values they should hold, may be empty.
+     * @return The number of matching items.
+     */
+    public long count(@Nonnull Map<String, Object> filter);
+
+    /**
+     * Finds an item whose field equals the value. A collection valued field matches when it
+     * contains the value.
+     *
+     * @param field - The stored name of the field, using dots for nested fields.
+     * @param value - The value the field should hold.
+     * @return A matching item, or null if there is none.
+     */
+    @Nullable
+    public T findOne(@Nonnull String field, @Nonnull Object value);
+
+    /**
+     * Finds an item whose field equals the value and reads only the fields declared by the view,
+     * so callers that need a few fields do not load the whole item. Backends that hold whole items
+     * anyway copy the fields out of them.
+     *
+     * @param field - The stored name of the field, using dots for nested fields.
+     * @param value - The value the field should hold.
+     * @param view - A class declaring a subset of the model's fields under the same names, with a
+     *     no-argument constructor and setters.
+     * @return The view of a matching item, or null if there is none.
+     */
+    @Nullable
+    public default <V> V findOne(
+            @Nonnull String field, @Nonnull Object value, @Nonnull Class<V> view) {
+        T item = findOne(field, value);
+        return item == null ? null : ViewProjection.project(item, view);
+    }
+
+    /**
+     * Finds all items whose field equals the value.
+     *
+     * @param field - The stored name of the field, using dots for nested fields.
+     * @param value - The value the field should hold.
+     * @return The matching items.
+     */
+    @Nonnull
+    public List<T> findMany(@Nonnull String field, @Nonnull Object value);
+
+    /**
+     * Finds all items matching every field in the filter.
+     *
+     * @param filter - Field names mapped to the values they should hold.
+     * @return The matching items.
+     */
+    @Nonnull
+    public List<T> findMany(@Nonnull Map<String, Object> filter);
+
+    /**
+     * Finds the items matching a query, in the order and up to the limit it asks for.
+     *
+     * @param query - The query to run.
+     * @return The matching items.
+     */
+    @Nonnull
+    public List<T> find(@Nonnull Query query);
+
+    /**
+     * Returns one page of the items matching the filter, ordered by id. Passing the id of the last
+     * item of a page returns the page after it, so a collection can be walked in bounded memory.
+     *
+     * @param filter - Field names mapped to the values they should hold, may be empty.
+     * @param afterId - The id of the last item of the previous page, or null for the first page.
+     * @param limit - The maximum number of items to return.
+     * @return The items of the page, in ascending id order.
+     */
+    @Nonnull
+    public List<T> getPage(
+            @Nonnull Map<String, Object> filter, @Nullable ObjectId afterId, int limit);
+
+    /**
+     * Iterates over the items matching the filter, fetching them a page at a time.
+     *
+     * @param filter - Field names mapped to the values they should hold, may be empty.
+     * @param pageSize - The number of items to fetch per page.
+     * @return An iterable whose iterators hold at most one page in memory.
+     */
+    @Nonnull
+    public default Iterable<T> iterate(@Nonnull Map<String, Object> filter, int pageSize) {
+        return () -> new KeysetIterator<>(this, filter, pageSize);
+    }
+
+    /**
+     * Iterates over every item in the collection, fetching them a page at a time.
+     *
+     * @return An iterable whose iterators hold at most one page in memory.
+     */
+    @Nonnull
+    public default Iterable<T> iterateAll() {
+        return iterate(Map.of(), DEFAULT_PAGE_SIZE);
+    }
 }
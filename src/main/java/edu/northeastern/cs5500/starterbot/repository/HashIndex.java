@@ -0,0 +1,108 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import org.bson.types.ObjectId;
+
+/**
+ * A hash index over one field of the items in an in-memory repository. Collection valued fields
+ * are indexed under each of their elements, mirroring how MongoDB indexes arrays.
+ *
+ * <p>Lookups may run concurrently with updates. Updates of the same id must not run concurrently,
+ * which the repository ensures by locking on the id.
+ */
+class HashIndex {
+    private final String fieldPath;
+
+    // Field value -> ids of the items holding that value
+    private final Map<Object, Set<ObjectId>> idsByKey = new ConcurrentHashMap<>();
+
+    // Item id -> the keys it was indexed under, so stale keys can be removed on update
+    private final Map<ObjectId, Collection<?>> keysById = new ConcurrentHashMap<>();
+
+    HashIndex(@Nonnull String fieldPath) {
+        this.fieldPath = fieldPath;
+    }
+
+    /**
+     * Indexes the item, replacing whatever keys the id was previously indexed under.
+     *
+     * @param id - The id of the item.
+     * @param item - The item to index.
+     */
+    void put(@Nonnull ObjectId id, @Nonnull Object item) {
+        remove(id);
+
+        Collection<?> keys = keysOf(item);
+        for (Object key : keys) {
+            // compute() is atomic per key, so this cannot race with remove() dropping the set
+            idsByKey.compute(
+                    key,
+                    (k, ids) -> {
+                        var result = ids == null ? ConcurrentHashMap.<ObjectId>newKeySet() : ids;
+                        result.add(id);
+                        return result;
+                    });
+        }
+        keysById.put(id, keys);
+    }
+
+    /**
+     * Removes the id from the index.
+     *
+     * @param id - The id of the item to remove.
+     */
+    void remove(@Nonnull ObjectId id) {
+        Collection<?> keys = keysById.remove(id);
+        if (keys == null) {
+            return;
+        }
+
+        for (Object key : keys) {
+            idsByKey.computeIfPresent(
+                    key,
+                    (k, ids) -> {
+                        ids.remove(id);
+                        return ids.isEmpty() ? null : ids;
+                    });
+        }
+    }
+
+    /**
+     * Returns the ids of the items indexed under the value.
+     *
+     * @param value - The value to look up.
+     * @return A live view of the matching ids, possibly empty, that is safe to iterate while the
+     *     index changes.
+     */
+    @Nonnull
+    Set<ObjectId> lookup(Object value) {
+        Set<ObjectId> ids = idsByKey.get(value);
+        if (ids == null) {
+            return Collections.emptySet();
+        }
+        return ids;
+    }
+
+    @Nonnull
+    private Collection<?> keysOf(@Nonnull Object item) {
+        Object value = FieldAccessor.getValue(item, fieldPath);
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        if (value instanceof Collection<?> values) {
+            List<Object> keys = new ArrayList<>(values);
+            // Null elements cannot be looked up, and concurrent maps do not accept them as keys
+            keys.removeIf(Objects::isNull);
+            return keys;
+        }
+        return List.of(value);
+    }
+}
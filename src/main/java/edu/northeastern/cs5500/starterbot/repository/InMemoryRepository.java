@@ -1,22 +1,57 @@
 package edu.northeastern.cs5500.starterbot.repository;
 
+import com.google.common.util.concurrent.Striped;
 import edu.northeastern.cs5500.starterbot.model.Model;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.bson.types.ObjectId;
 
+/**
+ * A repository that keeps its items in memory. It is safe to use from several threads: reads never
+ * block, writes to the same id are serialized by a striped lock, and writes to different ids run in
+ * parallel. Iterating over getAll() or a page sees a weakly consistent view of the collection and
+ * never throws ConcurrentModificationException.
+ */
 @Singleton
 public class InMemoryRepository<T extends Model> implements GenericRepository<T> {
+    // Number of locks that ids are spread over
+    static final int LOCK_STRIPES = 64;
 
-    HashMap<ObjectId, T> collection;
+    // Sorted by id so pages can be read with a range scan
+    ConcurrentSkipListMap<ObjectId, T> collection;
+
+    // Hash indexes by field name, built the first time a field is queried
+    ConcurrentHashMap<String, HashIndex> indexes;
+
+    // Serializes writes to the same id so the collection and the indexes change together
+    Striped<Lock> idLocks;
+
+    // Writes hold the read lock; building a new index holds the write lock so no write is missed
+    ReadWriteLock indexBuildLock;
 
     @Inject
     public InMemoryRepository() {
-        collection = new HashMap<>();
+        collection = new ConcurrentSkipListMap<>();
+        indexes = new ConcurrentHashMap<>();
+        idLocks = Striped.lock(LOCK_STRIPES);
+        indexBuildLock = new ReentrantReadWriteLock();
     }
 
     @Nullable
@@ -31,28 +66,424 @@ public class InMemoryRepository<T extends Model> implements GenericRepository<T>
             id = new ObjectId();
             item.setId(id);
         }
-        collection.put(id, item);
-        return item;
+        return put(id, item);
     }
 
     @Override
     public T update(@Nonnull T item) {
-        collection.put(item.getId(), item);
-        return item;
+        var id = item.getId();
+        return withWriteLock(
+                id,
+                () -> {
+                    if (!collection.containsKey(id)) {
+                        return null;
+                    }
+                    collection.put(id, item);
+                    reindex(id, item);
+                    return item;
+                });
+    }
+
+    @Override
+    public boolean compareAndUpdate(@Nonnull T item, long expectedVersion) {
+        var versioned = Versions.of(item);
+        var id = item.getId();
+        return withWriteLock(
+                id,
+                () -> {
+                    T stored = collection.get(id);
+                    if (stored == null || Versions.of(stored).getVersion() != expectedVersion) {
+                        return false;
+                    }
+                    versioned.setVersion(expectedVersion + 1);
+                    collection.put(id, item);
+                    reindex(id, item);
+                    return true;
+                });
+    }
+
+    @Override
+    public void updateAll(@Nonnull Collection<T> items) {
+        for (T item : items) {
+            update(item);
+        }
+    }
+
+    @Override
+    public boolean updateField(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nullable Object value) {
+        return modifyMatching(
+                matchField,
+                matchValue,
+                item -> {
+                    if (Objects.equals(FieldAccessor.getValue(item, field), value)) {
+                        return false;
+                    }
+                    FieldAccessor.setValue(item, field, value);
+                    return true;
+                });
+    }
+
+    @Override
+    public boolean addToSet(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nonnull Collection<?> values) {
+        return modifyMatching(
+                matchField,
+                matchValue,
+                item -> {
+                    var existing = getCollection(item, field);
+                    if (existing == null) {
+                        FieldAccessor.setValue(item, field, new HashSet<>(values));
+                        return true;
+                    }
+
+                    var updated = copyOf(existing);
+                    for (Object value : values) {
+                        if (!updated.contains(value)) {
+                            updated.add(value);
+                        }
+                    }
+                    if (updated.size() == existing.size()) {
+                        return false;
+                    }
+                    FieldAccessor.setValue(item, field, updated);
+                    return true;
+                });
+    }
+
+    @Override
+    public boolean pull(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nonnull Object value) {
+        return modifyMatching(
+                matchField,
+                matchValue,
+                item -> {
+                    var existing = getCollection(item, field);
+                    if (existing == null) {
+                        return false;
+                    }
+
+                    var updated = copyOf(existing);
+                    if (!updated.removeIf(element -> Objects.equals(element, value))) {
+                        return false;
+                    }
+                    FieldAccessor.setValue(item, field, updated);
+                    return true;
+                });
     }
 
     @Override
     public void delete(@Nonnull ObjectId id) {
-        collection.remove(id);
+        withWriteLock(
+                id,
+                () -> {
+                    collection.remove(id);
+                    for (HashIndex index : indexes.values()) {
+                        index.remove(id);
+                    }
+                    return null;
+                });
+    }
+
+    @Override
+    public void addAll(@Nonnull Collection<T> items) {
+        for (T item : items) {
+            add(item);
+        }
+    }
+
+    @Override
+    public synchronized boolean addIfAbsent(@Nonnull Map<String, Object> filter, @Nonnull T item) {
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("addIfAbsent needs a non-empty filter");
+        }
+
+        // Concurrent calls are serialized, so the check and the add cannot interleave
+        if (count(filter) > 0) {
+            return false;
+        }
+        add(item);
+        return true;
+    }
+
+    @Override
+    public void deleteAll(@Nonnull Collection<ObjectId> ids) {
+        for (ObjectId id : ids) {
+            delete(id);
+        }
+    }
+
+    @Override
+    public long deleteWhere(@Nonnull Map<String, Object> filter) {
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("deleteWhere needs a non-empty filter");
+        }
+
+        var matches = findMany(filter);
+        for (T item : matches) {
+            delete(item.getId());
+        }
+        return matches.size();
+    }
+
+    @Override
+    public long deleteWhereIn(@Nonnull String field, @Nonnull Collection<?> values) {
+        Set<ObjectId> ids = new HashSet<>();
+        for (Object value : values) {
+            for (T item : findMany(field, value)) {
+                ids.add(item.getId());
+            }
+        }
+        deleteAll(ids);
+        return ids.size();
     }
 
     @Override
     public Collection<T> getAll() {
-        return collection.values();
+        // A copy, so callers can iterate or stream over it while other threads write
+        return new ArrayList<>(collection.values());
     }
 
     @Override
     public long count() {
         return collection.size();
     }
+
+    @Override
+    public long count(@Nonnull Map<String, Object> filter) {
+        if (filter.isEmpty()) {
+            return collection.size();
+        }
+
+        long matches = 0;
+        for (ObjectId id : candidates(filter)) {
+            T item = collection.get(id);
+            if (item != null && FieldAccessor.matchesAll(item, filter)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    @Nullable
+    public T findOne(@Nonnull String field, @Nonnull Object value) {
+        for (ObjectId id : getIndex(field).lookup(value)) {
+            T item = collection.get(id);
+            // Items mutated in place without an update() may have gone stale in the index
+            if (item != null && FieldAccessor.matches(item, field, value)) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    @Nonnull
+    public List<T> findMany(@Nonnull String field, @Nonnull Object value) {
+        return findMany(Map.of(field, value));
+    }
+
+    @Override
+    @Nonnull
+    public List<T> findMany(@Nonnull Map<String, Object> filter) {
+        if (filter.isEmpty()) {
+            return new ArrayList<>(collection.values());
+        }
+
+        List<T> results = new ArrayList<>();
+        for (ObjectId id : candidates(filter)) {
+            T item = collection.get(id);
+            if (item != null && FieldAccessor.matchesAll(item, filter)) {
+                results.add(item);
+            }
+        }
+        return results;
+    }
+
+    @Override
+    @Nonnull
+    public List<T> find(@Nonnull Query query) {
+        List<T> results = new ArrayList<>();
+        var filter = query.getFilter();
+        Iterable<ObjectId> ids = filter.isEmpty() ? collection.keySet() : candidates(filter);
+        for (ObjectId id : ids) {
+            T item = collection.get(id);
+            if (item != null && query.matches(item)) {
+                results.add(item);
+            }
+        }
+
+        return TopK.select(results, query.comparator(), query.getOffset(), query.getLimit());
+    }
+
+    @Override
+    @Nonnull
+    public List<T> getPage(
+            @Nonnull Map<String, Object> filter, @Nullable ObjectId afterId, int limit) {
+        Collection<T> candidates;
+        if (filter.isEmpty()) {
+            candidates =
+                    afterId == null
+                            ? collection.values()
+                            : collection.tailMap(afterId, false).values();
+        } else {
+            // Filtered pages come from the hash index and are sorted here
+            candidates =
+                    findMany(filter).stream()
+                            .filter(item -> afterId == null || item.getId().compareTo(afterId) > 0)
+                            .sorted(Comparator.comparing(Model::getId))
+                            .toList();
+        }
+
+        List<T> page = new ArrayList<>();
+        for (T item : candidates) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(item);
+        }
+        return page;
+    }
+
+    /**
+     * Narrows a non-empty filter to the ids that match one of its fields, using the index of that
+     * field. The caller still has to check the candidates against the whole filter.
+     *
+     * @param filter - Field names mapped to the values they should hold, must not be empty.
+     * @return The ids of the candidates.
+     */
+    @Nonnull
+    private Iterable<ObjectId> candidates(@Nonnull Map<String, Object> filter) {
+        var indexedField = filter.keySet().iterator().next();
+        return getIndex(indexedField).lookup(filter.get(indexedField));
+    }
+
+    /**
+     * Returns the index for the field, building it from the current items if it does not exist.
+     *
+     * @param field - The field to index.
+     * @return The index for the field.
+     */
+    @Nonnull
+    private HashIndex getIndex(@Nonnull String field) {
+        var index = indexes.get(field);
+        if (index != null) {
+            return index;
+        }
+
+        // Writes wait while the index is built, so it cannot miss one
+        indexBuildLock.writeLock().lock();
+        try {
+            return indexes.computeIfAbsent(
+                    field,
+                    key -> {
+                        var newIndex = new HashIndex(key);
+                        collection.forEach(newIndex::put);
+                        return newIndex;
+                    });
+        } finally {
+            indexBuildLock.writeLock().unlock();
+        }
+    }
+
+    @Nonnull
+    private T put(@Nonnull ObjectId id, @Nonnull T item) {
+        return withWriteLock(
+                id,
+                () -> {
+                    collection.put(id, item);
+                    reindex(id, item);
+                    return item;
+                });
+    }
+
+    /**
+     * Applies a change to the item matching the field while holding the lock of its id, and
+     * reindexes the item if it changed.
+     *
+     * @param matchField - The field that identifies the item.
+     * @param matchValue - The value of the identifying field.
+     * @param change - Changes the item and returns whether it modified anything.
+     * @return Whether an item was modified.
+     */
+    private boolean modifyMatching(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull Predicate<T> change) {
+        T match = findOne(matchField, matchValue);
+        if (match == null) {
+            return false;
+        }
+
+        var id = match.getId();
+        return withWriteLock(
+                id,
+                () -> {
+                    // Another thread may have replaced or deleted the item since it was found
+                    T item = collection.get(id);
+                    if (item == null
+                            || !FieldAccessor.matches(item, matchField, matchValue)
+                            || !change.test(item)) {
+                        return false;
+                    }
+                    reindex(id, item);
+                    return true;
+                });
+    }
+
+    private <R> R withWriteLock(@Nonnull ObjectId id, @Nonnull Supplier<R> write) {
+        indexBuildLock.readLock().lock();
+        var idLock = idLocks.get(id);
+        idLock.lock();
+        try {
+            return write.get();
+        } finally {
+            idLock.unlock();
+            indexBuildLock.readLock().unlock();
+        }
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static Collection<Object> getCollection(@Nonnull Object item, @Nonnull String field) {
+        var value = FieldAccessor.getValue(item, field);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Collection<?>) {
+            return (Collection<Object>) value;
+        }
+        throw new IllegalArgumentException(field + " is not a collection");
+    }
+
+    /**
+     * Copies a collection valued field before it is changed, so threads still reading the old
+     * collection never see it change under them.
+     *
+     * @param existing - The current value of the field.
+     * @return A mutable copy, a list if the field held a list and a set otherwise.
+     */
+    @Nonnull
+    private static Collection<Object> copyOf(@Nonnull Collection<Object> existing) {
+        if (existing instanceof List<?>) {
+            return new ArrayList<>(existing);
+        }
+        return new HashSet<>(existing);
+    }
+
+    private void reindex(@Nonnull ObjectId id, @Nonnull T item) {
+        for (HashIndex index : indexes.values()) {
+            index.put(id, item);
+        }
+    }
 }
@@ -0,0 +1,64 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import edu.northeastern.cs5500.starterbot.model.Model;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.bson.types.ObjectId;
+
+/**
+ * Walks the items of a repository one page at a time, keyed on the id of the last item seen. Only
+ * a single page is held in memory, and items deleted while iterating do not shift later pages.
+ */
+class KeysetIterator<T extends Model> implements Iterator<T> {
+    private final GenericRepository<T> repository;
+    private final Map<String, Object> filter;
+    private final int pageSize;
+
+    private List<T> page;
+    private int position;
+    @Nullable private ObjectId lastId;
+
+    KeysetIterator(
+            @Nonnull GenericRepository<T> repository,
+            @Nonnull Map<String, Object> filter,
+            int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.repository = repository;
+        this.filter = filter;
+        this.pageSize = pageSize;
+        this.page = repository.getPage(filter, null, pageSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (position < page.size()) {
+            return true;
+        }
+
+        // A short page means there is nothing left to fetch
+        if (page.size() < pageSize) {
+            return false;
+        }
+
+        page = repository.getPage(filter, lastId, pageSize);
+        position = 0;
+        return !page.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        T item = page.get(position++);
+        lastId = item.getId();
+        return item;
+    }
+}
@@ -0,0 +1,41 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import edu.northeastern.cs5500.starterbot.model.Model;
+import edu.northeastern.cs5500.starterbot.service.MongoDBService;
+import javax.annotation.Nonnull;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+
+/**
+ * Deep copies of models, for repositories that hold items other callers may still be changing. An
+ * item is copied by encoding it with the codec the MongoDB backend uses and decoding the result,
+ * so a copy holds exactly what would have been stored.
+ */
+final class ModelCopies {
+    private static final CodecRegistry CODEC_REGISTRY = MongoDBService.createCodecRegistry();
+
+    private ModelCopies() {}
+
+    /**
+     * Returns a copy of the item that shares no mutable state with it.
+     *
+     * @param item - The item to copy.
+     * @return The copy.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    static <T extends Model> T copyOf(@Nonnull T item) {
+        var codec = (Codec<T>) CODEC_REGISTRY.get(item.getClass());
+        var document = new BsonDocument();
+        codec.encode(
+                new BsonDocumentWriter(document),
+                item,
+                EncoderContext.builder().isEncodingCollectibleDocument(true).build());
+        return codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+    }
+}
@@ -1,28 +1,76 @@
 package edu.northeastern.cs5500.starterbot.repository;
 
+import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.exists;
+import static com.mongodb.client.model.Filters.gt;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.lte;
+import static com.mongodb.client.model.Filters.ne;
+import static com.mongodb.client.model.Filters.or;
+import static com.mongodb.client.model.Filters.text;
 
+import com.google.common.collect.Lists;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
 import edu.northeastern.cs5500.starterbot.model.Model;
+import edu.northeastern.cs5500.starterbot.service.IndexDefinition;
 import edu.northeastern.cs5500.starterbot.service.MongoDBService;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWrapper;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
+@Slf4j
 public class MongoDBRepository<T extends Model> implements GenericRepository<T> {
 
     static final String MONGODB_ID_FIELD = "_id";
 
+    // Field the $text relevance score is projected into
+    static final String TEXT_SCORE_FIELD = "textScore";
+
+    // Upper bound on the operations sent in a single bulk write
+    static final int BULK_WRITE_CHUNK_SIZE = 1_000;
+
     MongoCollection<T> collection;
 
+    // Indexes declared on the model, used to spot queries that would scan the collection
+    List<IndexDefinition> indexes;
+
+    // Field combinations already reported as unindexed, so each is only logged once
+    Set<Set<String>> unindexedQueries;
+
     @Inject
     public MongoDBRepository(Class<T> clazz, MongoDBService mongoDBService) {
         MongoDatabase mongoDatabase = mongoDBService.getMongoDatabase();
         collection = mongoDatabase.getCollection(clazz.getName(), clazz);
+        indexes = IndexDefinition.forModel(clazz);
+        unindexedQueries = ConcurrentHashMap.newKeySet();
     }
 
     @Nullable
@@ -44,11 +92,143 @@ public class MongoDBRepository<T extends Model> implements GenericRepository<T>
         return collection.findOneAndReplace(eq(MONGODB_ID_FIELD, item.getId()), item);
     }
 
+    @Override
+    public boolean compareAndUpdate(@Nonnull T item, long expectedVersion) {
+        var versioned = Versions.of(item);
+        // Documents stored before the version existed have no version field
+        Bson versionFilter =
+                expectedVersion == 0
+                        ? or(eq(Versions.VERSION_FIELD, 0L), exists(Versions.VERSION_FIELD, false))
+                        : eq(Versions.VERSION_FIELD, expectedVersion);
+
+        versioned.setVersion(expectedVersion + 1);
+        var result =
+                collection.replaceOne(and(eq(MONGODB_ID_FIELD, item.getId()), versionFilter), item);
+        if (result.getMatchedCount() == 0) {
+            versioned.setVersion(expectedVersion);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void updateAll(@Nonnull Collection<T> items) {
+        List<ReplaceOneModel<T>> replacements = new ArrayList<>();
+        for (T item : items) {
+            replacements.add(new ReplaceOneModel<>(eq(MONGODB_ID_FIELD, item.getId()), item));
+        }
+
+        var unordered = new BulkWriteOptions().ordered(false);
+        for (var chunk : Lists.partition(replacements, BULK_WRITE_CHUNK_SIZE)) {
+            collection.bulkWrite(chunk, unordered);
+        }
+    }
+
+    @Override
+    public boolean updateField(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nullable Object value) {
+        return updateOne(matchField, matchValue, Updates.set(field, value));
+    }
+
+    @Override
+    public boolean addToSet(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nonnull Collection<?> values) {
+        // $addToSet with $each only adds the values that are not already in the set
+        Bson update = Updates.addEachToSet(field, new ArrayList<>(values));
+        return updateOne(matchField, matchValue, update);
+    }
+
+    @Override
+    public boolean pull(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nonnull Object value) {
+        return updateOne(matchField, matchValue, Updates.pull(field, value));
+    }
+
     @Override
     public void delete(@Nonnull ObjectId id) {
         collection.deleteOne(eq(MONGODB_ID_FIELD, id));
     }
 
+    @Override
+    public void addAll(@Nonnull Collection<T> items) {
+        List<T> documents = new ArrayList<>(items.size());
+        for (T item : items) {
+            if (item.getId() == null) {
+                item.setId(new ObjectId());
+            }
+            documents.add(item);
+        }
+
+        var unordered = new InsertManyOptions().ordered(false);
+        for (var chunk : Lists.partition(documents, BULK_WRITE_CHUNK_SIZE)) {
+            collection.insertMany(chunk, unordered);
+        }
+    }
+
+    @Override
+    public boolean addIfAbsent(@Nonnull Map<String, Object> filter, @Nonnull T item) {
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("addIfAbsent needs a non-empty filter");
+        }
+        if (item.getId() == null) {
+            item.setId(new ObjectId());
+        }
+
+        warnIfUnindexed(filter.keySet());
+        // One upsert, so the server rather than a read before the insert decides who adds it
+        var document = BsonDocumentWrapper.asBsonDocument(item, collection.getCodecRegistry());
+        try {
+            var result =
+                    collection.updateOne(
+                            toFilter(filter),
+                            new Document("$setOnInsert", document),
+                            new UpdateOptions().upsert(true));
+            return result.getUpsertedId() != null;
+        } catch (MongoWriteException e) {
+            // Two upserts can both miss and race to insert; a unique index makes one of them fail
+            if (e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void deleteAll(@Nonnull Collection<ObjectId> ids) {
+        for (var chunk : Lists.partition(new ArrayList<>(ids), BULK_WRITE_CHUNK_SIZE)) {
+            collection.deleteMany(in(MONGODB_ID_FIELD, chunk));
+        }
+    }
+
+    @Override
+    public long deleteWhere(@Nonnull Map<String, Object> filter) {
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("deleteWhere needs a non-empty filter");
+        }
+
+        warnIfUnindexed(filter.keySet());
+        return collection.deleteMany(toFilter(filter)).getDeletedCount();
+    }
+
+    @Override
+    public long deleteWhereIn(@Nonnull String field, @Nonnull Collection<?> values) {
+        warnIfUnindexed(Set.of(field));
+        long deleted = 0;
+        for (var chunk : Lists.partition(new ArrayList<>(values), BULK_WRITE_CHUNK_SIZE)) {
+            deleted += collection.deleteMany(in(field, chunk)).getDeletedCount();
+        }
+        return deleted;
+    }
+
     @Override
     public Collection<T> getAll() {
         return collection.find().into(new ArrayList<>());
@@ -58,4 +238,251 @@ public class MongoDBRepository<T extends Model> implements GenericRepository<T>
     public long count() {
         return collection.countDocuments();
     }
+
+    @Override
+    public long count(@Nonnull Map<String, Object> filter) {
+        warnIfUnindexed(filter.keySet());
+        return collection.countDocuments(toFilter(filter));
+    }
+
+    @Override
+    @Nullable
+    public T findOne(@Nonnull String field, @Nonnull Object value) {
+        warnIfUnindexed(Set.of(field));
+        return collection.find(eq(field, value)).first();
+    }
+
+    @Override
+    @Nullable
+    public <V> V findOne(@Nonnull String field, @Nonnull Object value, @Nonnull Class<V> view) {
+        warnIfUnindexed(Set.of(field));
+        return collection.find(eq(field, value), view).projection(toProjection(view)).first();
+    }
+
+    @Override
+    @Nonnull
+    public List<T> findMany(@Nonnull String field, @Nonnull Object value) {
+        warnIfUnindexed(Set.of(field));
+        return collection.find(eq(field, value)).into(new ArrayList<>());
+    }
+
+    @Override
+    @Nonnull
+    public List<T> findMany(@Nonnull Map<String, Object> filter) {
+        warnIfUnindexed(filter.keySet());
+        return collection.find(toFilter(filter)).into(new ArrayList<>());
+    }
+
+    @Override
+    @Nonnull
+    public List<T> find(@Nonnull Query query) {
+        Set<String> queriedFields = new HashSet<>(query.getFilter().keySet());
+        if (query.getRangeField() != null) {
+            queriedFields.add(query.getRangeField());
+        }
+        warnIfUnindexed(queriedFields);
+
+        return collection
+                .find(toFilter(query))
+                .sort(toSort(query))
+                .skip(query.getOffset())
+                .limit(query.getLimit())
+                .into(new ArrayList<>());
+    }
+
+    @Override
+    @Nonnull
+    public List<T> getPage(
+            @Nonnull Map<String, Object> filter, @Nullable ObjectId afterId, int limit) {
+        Bson pageFilter = toFilter(filter);
+        if (afterId != null) {
+            pageFilter = and(pageFilter, gt(MONGODB_ID_FIELD, afterId));
+        }
+
+        return collection
+                .find(pageFilter)
+                .sort(Sorts.ascending(MONGODB_ID_FIELD))
+                .limit(limit)
+                .batchSize(limit)
+                .into(new ArrayList<>());
+    }
+
+    /**
+     * Runs a $text search over the text index declared on the model, among the documents matching
+     * the query. The filter of the query has to cover the prefix fields of the text index. Items
+     * are sorted by the sort field of the query if it has one, and by their score otherwise, and
+     * only the page of them the query asks for leaves the database.
+     *
+     * @param query - The filter, range, sort, offset and limit of the search.
+     * @param search - The $text search string.
+     * @return The matching items with the score MongoDB gave them.
+     */
+    @Nonnull
+    public List<Scored<T>> searchText(@Nonnull Query query, @Nonnull String search) {
+        var codec = collection.getCodecRegistry().get(collection.getDocumentClass());
+        var decoderContext = DecoderContext.builder().build();
+
+        var sort =
+                query.getSortField() != null
+                        ? toSort(query)
+                        : Sorts.orderBy(
+                                Sorts.metaTextScore(TEXT_SCORE_FIELD),
+                                Sorts.descending(MONGODB_ID_FIELD));
+
+        List<Scored<T>> results = new ArrayList<>();
+        for (BsonDocument document :
+                collection
+                        .find(and(toFilter(query), text(search)), BsonDocument.class)
+                        .projection(Projections.metaTextScore(TEXT_SCORE_FIELD))
+                        .sort(sort)
+                        .skip(query.getOffset())
+                        .limit(query.getLimit())) {
+            double score = document.remove(TEXT_SCORE_FIELD).asNumber().doubleValue();
+            T item = codec.decode(new BsonDocumentReader(document), decoderContext);
+            results.add(new Scored<>(item, score));
+        }
+        return results;
+    }
+
+    /**
+     * Counts the documents a $text search matches, stopping at a maximum so that counting a common
+     * word does not read every entry of the text index for it.
+     *
+     * @param query - The filter and range of the search.
+     * @param search - The $text search string.
+     * @param max - The count to stop at.
+     * @return The number of matching documents, at most max.
+     */
+    public long countText(@Nonnull Query query, @Nonnull String search, int max) {
+        return collection.countDocuments(
+                and(toFilter(query), text(search)), new CountOptions().limit(max));
+    }
+
+    /**
+     * Logs a warning the first time the collection is queried on fields that no declared index
+     * can serve, since MongoDB has to scan every document to answer such a query.
+     *
+     * @param fields - The fields the query filters on.
+     */
+    void warnIfUnindexed(@Nonnull Set<String> fields) {
+        if (fields.isEmpty() || fields.contains(MONGODB_ID_FIELD)) {
+            return;
+        }
+
+        for (IndexDefinition index : indexes) {
+            if (index.supports(fields)) {
+                return;
+            }
+        }
+
+        if (unindexedQueries.add(fields)) {
+            log.warn(
+                    "No index on {} covers a query by {}, it will scan the whole collection",
+                    collection.getNamespace().getCollectionName(),
+                    fields);
+        }
+    }
+
+    /**
+     * Converts the filter and range of a query into a MongoDB filter. Documents without a value
+     * for the range field never match, as in the in-memory backends.
+     *
+     * @param query - The query.
+     * @return The MongoDB filter.
+     */
+    @Nonnull
+    private static Bson toFilter(@Nonnull Query query) {
+        List<Bson> conditions = new ArrayList<>();
+        query.getFilter().forEach((field, value) -> conditions.add(eq(field, value)));
+
+        var rangeField = query.getRangeField();
+        if (rangeField != null) {
+            conditions.add(ne(rangeField, null));
+            if (query.getMin() != null) {
+                conditions.add(gte(rangeField, query.getMin()));
+            }
+            if (query.getMax() != null) {
+                conditions.add(lte(rangeField, query.getMax()));
+            }
+        }
+        return conditions.isEmpty() ? new Document() : and(conditions);
+    }
+
+    /**
+     * Converts the sort of a query into a MongoDB sort. Ties are broken by id, as the in-memory
+     * backends do.
+     *
+     * @param query - The query.
+     * @return The MongoDB sort.
+     */
+    @Nonnull
+    private static Bson toSort(@Nonnull Query query) {
+        List<String> sortFields = new ArrayList<>();
+        var sortField = query.getSortField();
+        if (sortField != null) {
+            sortFields.add(sortField);
+        }
+        sortFields.add(MONGODB_ID_FIELD);
+        return query.getOrder() == Query.Order.ASCENDING
+                ? Sorts.ascending(sortFields)
+                : Sorts.descending(sortFields);
+    }
+
+    /**
+     * Converts a map of field names and values into a MongoDB equality filter.
+     *
+     * @param filter - Field names mapped to the values they should hold.
+     * @return A filter matching documents where every field holds its value.
+     */
+    @Nonnull
+    static Bson toFilter(@Nonnull Map<String, Object> filter) {
+        List<Bson> conditions = new ArrayList<>();
+        filter.forEach((field, value) -> conditions.add(eq(field, value)));
+        if (conditions.isEmpty()) {
+            return new Document();
+        }
+        if (conditions.size() == 1) {
+            return conditions.get(0);
+        }
+        return and(conditions);
+    }
+
+    /**
+     * Builds a projection returning only the fields declared by the view. The id is left out
+     * unless the view declares it.
+     *
+     * @param view - The view class.
+     * @return The projection for the view.
+     */
+    @Nonnull
+    static Bson toProjection(@Nonnull Class<?> view) {
+        List<String> fields = new ArrayList<>();
+        boolean includesId = false;
+        for (String field : ViewProjection.fieldsOf(view)) {
+            if ("id".equals(field)) {
+                includesId = true;
+            } else {
+                fields.add(field);
+            }
+        }
+
+        if (includesId) {
+            return Projections.include(fields);
+        }
+        return Projections.fields(Projections.include(fields), Projections.excludeId());
+    }
+
+    /**
+     * Applies the update operator to the item matching the field on the server, so only the
+     * changed field is sent instead of the whole document.
+     *
+     * @param matchField - The field that identifies the item.
+     * @param matchValue - The value of the identifying field.
+     * @param update - The update operator to apply.
+     * @return Whether a document was modified.
+     */
+    private boolean updateOne(
+            @Nonnull String matchField, @Nonnull Object matchValue, @Nonnull Bson update) {
+        return collection.updateOne(eq(matchField, matchValue), update).getModifiedCount() > 0;
+    }
 }
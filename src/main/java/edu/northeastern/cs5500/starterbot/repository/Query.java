@@ -0,0 +1,169 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import edu.northeastern.cs5500.starterbot.model.Model;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Getter;
+
+/**
+ * Finds the items whose fields hold the given values, optionally with one more field inside a
+ * range, sorted by a field and cut down to one page of items. MongoDB answers it from an index
+ * over the equality fields followed by the range or sort field, e.g. guildId then the price.
+ */
+@Getter
+public class Query {
+
+    public enum Order {
+        ASCENDING,
+        DESCENDING
+    }
+
+    // Field names mapped to the values they should hold
+    @Nonnull Map<String, Object> filter = new LinkedHashMap<>();
+
+    // The field that has to lie between min and max, both inclusive, null if unbounded
+    @Nullable String rangeField;
+    @Nullable Object min;
+    @Nullable Object max;
+
+    // The field to sort by, in id order if null
+    @Nullable String sortField;
+    @Nonnull Order order = Order.ASCENDING;
+
+    // The number of items to skip, in the sort order, before the first one returned
+    int offset;
+
+    // The maximum number of items to return, 0 for all of them
+    int limit;
+
+    private Query() {}
+
+    /**
+     * Starts a query for the items matching every field in the filter.
+     *
+     * @param filter - Field names mapped to the values they should hold, may be empty.
+     * @return The query.
+     */
+    @Nonnull
+    public static Query where(@Nonnull Map<String, Object> filter) {
+        var query = new Query();
+        query.filter.putAll(filter);
+        return query;
+    }
+
+    /**
+     * Only matches items whose field lies between the bounds. Items without a value never match.
+     *
+     * @param field - The stored name of the field, using dots for nested fields.
+     * @param min - The smallest value that matches, or null for no lower bound.
+     * @param max - The largest value that matches, or null for no upper bound.
+     * @return This query.
+     */
+    @Nonnull
+    public Query between(@Nonnull String field, @Nullable Object min, @Nullable Object max) {
+        this.rangeField = field;
+        this.min = min;
+        this.max = max;
+        return this;
+    }
+
+    /**
+     * Sorts the items by a field. Items without a value come first in ascending order, as in
+     * MongoDB, and items with the same value are in id order.
+     *
+     * @param field - The stored name of the field, using dots for nested fields.
+     * @param order - The direction to sort in.
+     * @return This query.
+     */
+    @Nonnull
+    public Query sortBy(@Nonnull String field, @Nonnull Order order) {
+        this.sortField = field;
+        this.order = order;
+        return this;
+    }
+
+    /**
+     * Skips the given number of items, for the pages after the first one.
+     *
+     * @param offset - The number of items to skip.
+     * @return This query.
+     */
+    @Nonnull
+    public Query offset(int offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * Returns at most the given number of items.
+     *
+     * @param limit - The maximum number of items, 0 for all of them.
+     * @return This query.
+     */
+    @Nonnull
+    public Query limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Checks an item against the filter and the range, for backends that evaluate queries in
+     * memory.
+     *
+     * @param item - The item to check.
+     * @return Whether the item matches the query.
+     */
+    boolean matches(@Nonnull Object item) {
+        if (!FieldAccessor.matchesAll(item, filter)) {
+            return false;
+        }
+        if (rangeField == null) {
+            return true;
+        }
+
+        var value = FieldAccessor.getValue(item, rangeField);
+        if (value == null) {
+            return false;
+        }
+        return (min == null || compare(value, min) >= 0)
+                && (max == null || compare(value, max) <= 0);
+    }
+
+    /**
+     * Orders items the way MongoDB sorts the query, for backends that evaluate queries in memory.
+     *
+     * @return The comparator for the sort order of the query.
+     */
+    @Nonnull
+    <T extends Model> Comparator<T> comparator() {
+        Comparator<T> byId = Comparator.comparing(Model::getId);
+        Comparator<T> comparator = byId;
+        if (sortField != null) {
+            var field = sortField;
+            Comparator<T> byField =
+                    Comparator.comparing(
+                            item -> FieldAccessor.getValue(item, field),
+                            Comparator.nullsFirst(Query::compare));
+            comparator = byField.thenComparing(byId);
+        }
+        return order == Order.ASCENDING ? comparator : comparator.reversed();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(@Nonnull Object a, @Nonnull Object b) {
+        // MongoDB compares numbers by value whatever their type, so an int bound works on a long
+        if (a instanceof Number x && b instanceof Number y && a.getClass() != b.getClass()) {
+            return Double.compare(x.doubleValue(), y.doubleValue());
+        }
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+}
@@ -0,0 +1,29 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import java.util.Locale;
+import javax.annotation.Nonnull;
+
+/** Where the repositories keep their data, chosen with the REPOSITORY_BACKEND variable. */
+public enum RepositoryBackend {
+    /** A MongoDB database, see MONGODB_URI. The default. */
+    MONGODB,
+
+    /** Local files in REPOSITORY_DATA_DIRECTORY, with everything served from memory. */
+    FILE;
+
+    /**
+     * Reads the backend from the environment.
+     *
+     * @return The configured backend, or MONGODB if none is configured.
+     * @throws IllegalArgumentException If the configured backend does not exist.
+     */
+    @Nonnull
+    public static RepositoryBackend fromEnvironment() {
+        ProcessBuilder processBuilder = new ProcessBuilder();
+        final String backend = processBuilder.environment().get("REPOSITORY_BACKEND");
+        if (backend == null) {
+            return MONGODB;
+        }
+        return valueOf(backend.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,67 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import com.google.common.cache.CacheStats;
+import edu.northeastern.cs5500.starterbot.model.Guild;
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.model.User;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/** Collects the statistics of the caches and write buffers of the repositories, for /metrics. */
+@Singleton
+public class RepositoryMetrics {
+    // Model name -> its repository, in the order they are reported
+    Map<String, GenericRepository<?>> repositories = new LinkedHashMap<>();
+
+    @Inject
+    RepositoryMetrics(
+            GenericRepository<Guild> guildRepository,
+            GenericRepository<User> userRepository,
+            GenericRepository<Listing> listingRepository) {
+        repositories.put("guild", guildRepository);
+        repositories.put("user", userRepository);
+        repositories.put("listing", listingRepository);
+    }
+
+    /**
+     * Returns the hit, miss and eviction counts of every repository that is behind a cache. The
+     * file backend serves everything from memory, so it has none.
+     *
+     * @return The cache statistics by model name.
+     */
+    @Nonnull
+    public Map<String, CacheStats> getCacheStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        repositories.forEach(
+                (name, repository) -> {
+                    if (repository instanceof CachingRepository<?> cachingRepository) {
+                        stats.put(name, cachingRepository.getStats());
+                    }
+                });
+        return stats;
+    }
+
+    /**
+     * Returns how many updates were received per document written for every repository that
+     * buffers its writes.
+     *
+     * @return The coalescing ratio by model name.
+     */
+    @Nonnull
+    public Map<String, Double> getCoalescingRatios() {
+        Map<String, Double> ratios = new LinkedHashMap<>();
+        repositories.forEach(
+                (name, repository) -> {
+                    if (repository instanceof CachingRepository<?> cachingRepository) {
+                        repository = cachingRepository.getDelegate();
+                    }
+                    if (repository instanceof WriteBehindRepository<?> writeBehindRepository) {
+                        ratios.put(name, writeBehindRepository.getCoalescingRatio());
+                    }
+                });
+        return ratios;
+    }
+}
@@ -3,24 +3,128 @@ package edu.northeastern.cs5500.starterbot.repository;
 import dagger.Module;
 import dagger.Provides;
 import edu.northeastern.cs5500.starterbot.model.Guild;
+import edu.northeastern.cs5500.starterbot.model.GuildMembership;
 import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.model.MigrationRecord;
+import edu.northeastern.cs5500.starterbot.model.Model;
 import edu.northeastern.cs5500.starterbot.model.User;
+import edu.northeastern.cs5500.starterbot.service.MongoDBService;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import javax.annotation.Nonnull;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
 
 @Module
 public class RepositoryModule {
-    @Provides
-    public GenericRepository<Guild> provideGuildRepository(MongoDBRepository<Guild> repository) {
+    // Guilds are weighed by member count, so this bounds the member ids held in memory
+    static final long GUILD_CACHE_MAX_WEIGHT = 1_000_000;
+
+    // Threads that asynchronous repository calls run on, i.e. how many can wait on the backend
+    static final int REPOSITORY_THREADS = 8;
+
+    /** Qualifies the executor that asynchronous repository calls run on. */
+    public static final String REPOSITORY_EXECUTOR = "repository";
+
+    /**
+     * Whether user updates should be buffered and written in batches. Off by default, as buffered
+     * updates are lost if the process is killed before they are flushed. Guilds are only changed a
+     * field at a time, which goes straight to the backing store, so a buffer would hold nothing.
+     */
+    static boolean isWriteBehindEnabled() {
+        ProcessBuilder processBuilder = new ProcessBuilder();
+        return Boolean.parseBoolean(processBuilder.environment().get("REPOSITORY_WRITE_BEHIND"));
+    }
+
+    static Path getDataDirectory() {
+        ProcessBuilder processBuilder = new ProcessBuilder();
+        final String dataDirectory = processBuilder.environment().get("REPOSITORY_DATA_DIRECTORY");
+        if (dataDirectory != null) {
+            return Path.of(dataDirectory);
+        }
+        return Path.of("data");
+    }
+
+    /**
+     * Opens the file backed repository of the model if REPOSITORY_BACKEND is FILE. It serves
+     * everything from memory, so it is not wrapped in a cache or a write buffer.
+     *
+     * @param clazz - The model stored in the repository.
+     * @return The file backed repository, or null if MongoDB is the backend.
+     */
+    static <T extends Model> GenericRepository<T> openFileRepository(@Nonnull Class<T> clazz) {
+        if (RepositoryBackend.fromEnvironment() != RepositoryBackend.FILE) {
+            return null;
+        }
+        return new FileRepository<>(
+                clazz, MongoDBService.createCodecRegistry(), getDataDirectory());
+    }
+
+    static <T extends Model> GenericRepository<T> withWriteBehind(GenericRepository<T> repository) {
+        if (isWriteBehindEnabled()) {
+            return new WriteBehindRepository<>(repository);
+        }
         return repository;
     }
 
+    @Provides
+    @Singleton
+    public GenericRepository<Guild> provideGuildRepository(
+            Provider<MongoDBRepository<Guild>> repository) {
+        var fileRepository = openFileRepository(Guild.class);
+        if (fileRepository != null) {
+            return fileRepository;
+        }
+        return new CachingRepository<>(
+                repository.get(),
+                RepositoryModule::weighGuild,
+                GUILD_CACHE_MAX_WEIGHT,
+                CachingRepository.DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * Weighs a guild by its member count so a few large guilds cannot crowd out the cache.
+     *
+     * @param guild - The guild to weigh.
+     * @return The cache weight of the guild.
+     */
+    static int weighGuild(@Nonnull Guild guild) {
+        var usersOnServer = guild.getUsersOnServer();
+        return 1 + (usersOnServer == null ? 0 : usersOnServer.size());
+    }
+
     @Provides
     public Class<Guild> provideGuild() {
         return Guild.class;
     }
 
     @Provides
-    public GenericRepository<User> provideUserRepository(MongoDBRepository<User> repository) {
-        return repository;
+    @Singleton
+    public GenericRepository<GuildMembership> provideGuildMembershipRepository(
+            Provider<MongoDBRepository<GuildMembership>> repository) {
+        var fileRepository = openFileRepository(GuildMembership.class);
+        if (fileRepository != null) {
+            return fileRepository;
+        }
+        return repository.get();
+    }
+
+    @Provides
+    public Class<GuildMembership> provideGuildMembership() {
+        return GuildMembership.class;
+    }
+
+    @Provides
+    @Singleton
+    public GenericRepository<User> provideUserRepository(
+            Provider<MongoDBRepository<User>> repository) {
+        var fileRepository = openFileRepository(User.class);
+        if (fileRepository != null) {
+            return fileRepository;
+        }
+        return new CachingRepository<>(withWriteBehind(repository.get()));
     }
 
     @Provides
@@ -29,9 +133,51 @@ public class RepositoryModule {
     }
 
     @Provides
+    @Singleton
     public GenericRepository<Listing> providelistingRepository(
-            MongoDBRepository<Listing> repository) {
-        return repository;
+            Provider<MongoDBRepository<Listing>> repository) {
+        var fileRepository = openFileRepository(Listing.class);
+        if (fileRepository != null) {
+            return fileRepository;
+        }
+        return new CachingRepository<>(repository.get());
+    }
+
+    @Provides
+    @Singleton
+    public GenericRepository<MigrationRecord> provideMigrationRecordRepository(
+            Provider<MongoDBRepository<MigrationRecord>> repository) {
+        var fileRepository = openFileRepository(MigrationRecord.class);
+        if (fileRepository != null) {
+            return fileRepository;
+        }
+        return repository.get();
+    }
+
+    @Provides
+    public Class<MigrationRecord> provideMigrationRecord() {
+        return MigrationRecord.class;
+    }
+
+    @Provides
+    @Singleton
+    public AsyncRepository<Listing> provideAsyncListingRepository(
+            GenericRepository<Listing> repository,
+            @Named(REPOSITORY_EXECUTOR) Executor executor) {
+        return new ExecutorAsyncRepository<>(repository, executor);
+    }
+
+    @Provides
+    @Singleton
+    @Named(REPOSITORY_EXECUTOR)
+    public Executor provideRepositoryExecutor() {
+        return Executors.newFixedThreadPool(
+                REPOSITORY_THREADS,
+                runnable -> {
+                    var thread = new Thread(runnable, "repository");
+                    thread.setDaemon(true);
+                    return thread;
+                });
     }
 
     @Provides
@@ -0,0 +1,14 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import javax.annotation.Nonnull;
+import lombok.Value;
+
+/** An item returned by a search, along with how well it matched. */
+@Value
+public class Scored<T> {
+
+    @Nonnull T item;
+
+    // Higher is a better match, only comparable within the results of one search
+    double score;
+}
@@ -0,0 +1,60 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import javax.annotation.Nonnull;
+
+/**
+ * Selects one page of items in sort order without sorting all of them. The first offset + limit
+ * items are kept in a heap whose top is the worst of them, so each further item costs a comparison
+ * with the top and, if it is better, O(log k) to swap it in. Every item is still looked at once,
+ * so time is O(n log k) rather than O(n log n), and memory depends on the page alone.
+ */
+public final class TopK {
+
+    private TopK() {}
+
+    /**
+     * Selects the items at the given positions of the sort order.
+     *
+     * @param items - The items to select from, in any order.
+     * @param order - The sort order.
+     * @param offset - The number of items to skip.
+     * @param limit - The maximum number of items to return, 0 for all of them.
+     * @return The selected items, sorted.
+     */
+    @Nonnull
+    public static <T> List<T> select(
+            @Nonnull Iterable<T> items,
+            @Nonnull Comparator<? super T> order,
+            int offset,
+            int limit) {
+        if (limit == 0) {
+            List<T> sorted = new ArrayList<>();
+            items.forEach(sorted::add);
+            sorted.sort(order);
+            return new ArrayList<>(sorted.subList(Math.min(offset, sorted.size()), sorted.size()));
+        }
+
+        int k = offset + limit;
+        PriorityQueue<T> heap = new PriorityQueue<>(Collections.reverseOrder(order));
+        for (T item : items) {
+            if (heap.size() < k) {
+                heap.add(item);
+            } else if (order.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+
+        List<T> selected = new ArrayList<>(heap.size());
+        while (heap.size() > offset) {
+            selected.add(heap.poll());
+        }
+        Collections.reverse(selected);
+        return selected;
+    }
+}
@@ -0,0 +1,28 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import edu.northeastern.cs5500.starterbot.model.Model;
+import edu.northeastern.cs5500.starterbot.model.VersionedModel;
+import javax.annotation.Nonnull;
+
+/** Access to the version of items passed to conditional updates. */
+final class Versions {
+    static final String VERSION_FIELD = "version";
+
+    private Versions() {}
+
+    /**
+     * Returns the item as a versioned model.
+     *
+     * @param item - The item of a conditional update.
+     * @return The same item.
+     * @throws IllegalArgumentException If the model of the item is not versioned.
+     */
+    @Nonnull
+    static VersionedModel of(@Nonnull Model item) {
+        if (item instanceof VersionedModel versioned) {
+            return versioned;
+        }
+        throw new IllegalArgumentException(
+                item.getClass().getSimpleName() + " does not implement VersionedModel");
+    }
+}
@@ -0,0 +1,65 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+
+/**
+ * Copies the fields declared by a view class out of a model, for backends that hold whole items
+ * and have nothing to save by asking the store for fewer fields. A view declares a subset of the
+ * fields of the model, under the same names.
+ */
+final class ViewProjection {
+    private static final Map<Class<?>, List<String>> FIELDS = new ConcurrentHashMap<>();
+
+    private ViewProjection() {}
+
+    /**
+     * Returns the names of the fields a view declares.
+     *
+     * @param view - The view class.
+     * @return The names of its instance fields, in declaration order.
+     */
+    @Nonnull
+    static List<String> fieldsOf(@Nonnull Class<?> view) {
+        return FIELDS.computeIfAbsent(
+                view,
+                key -> {
+                    List<String> names = new ArrayList<>();
+                    for (Field field : key.getDeclaredFields()) {
+                        if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                            names.add(field.getName());
+                        }
+                    }
+                    return Collections.unmodifiableList(names);
+                });
+    }
+
+    /**
+     * Creates a view holding the values of the item's fields of the same names.
+     *
+     * @param item - The model to copy from.
+     * @param view - The view class, which needs a no-argument constructor and setters.
+     * @return The populated view.
+     * @throws IllegalArgumentException If the view cannot be created or a field does not exist.
+     */
+    @Nonnull
+    static <V> V project(@Nonnull Object item, @Nonnull Class<V> view) {
+        V projected;
+        try {
+            projected = view.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Unable to create view " + view.getName(), e);
+        }
+
+        for (String field : fieldsOf(view)) {
+            FieldAccessor.setValue(projected, field, FieldAccessor.getValue(item, field));
+        }
+        return projected;
+    }
+}
@@ -0,0 +1,422 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import com.google.common.util.concurrent.Striped;
+import edu.northeastern.cs5500.starterbot.model.Model;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+
+/**
+ * Buffers updates in memory and writes them to another repository in batches. Updates to the same
+ * id within one flush interval are coalesced, so only the latest version of each item is written.
+ * Reads of a buffered item return the buffered version, and queries that have to run against the
+ * backing store flush the buffer first.
+ *
+ * <p>Conditional updates are buffered too. Their version is checked against the buffered item if
+ * there is one and against the stored item otherwise, so this has to be the only writer of the
+ * backing store, as it already is for buffered updates to be safe.
+ *
+ * <p>At most maxPending distinct items are buffered. If the backing store keeps failing, updates
+ * of further items are written through and fail to the caller instead of piling up in memory.
+ */
+@Slf4j
+public class WriteBehindRepository<T extends Model> implements GenericRepository<T>, AutoCloseable {
+    static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(250);
+    static final int DEFAULT_MAX_PENDING = 1_000;
+
+    // Conditional updates of ids in the same stripe check their versions one at a time
+    static final int VERSION_LOCK_STRIPES = 64;
+
+    /** A buffered update. Compared by identity, so a newer update of the same id never matches. */
+    private static class PendingWrite<T> {
+        final T item;
+
+        PendingWrite(T item) {
+            this.item = item;
+        }
+    }
+
+    GenericRepository<T> delegate;
+    int maxPending;
+
+    // Buffered updates by id, guarded by the map itself
+    Map<ObjectId, PendingWrite<T>> pending;
+
+    ScheduledExecutorService scheduler;
+
+    // Flushes on shutdown, removed again when the repository is closed
+    Thread shutdownHook;
+
+    Striped<Lock> versionLocks = Striped.lock(VERSION_LOCK_STRIPES);
+
+    AtomicLong updatesReceived;
+    AtomicLong documentsWritten;
+
+    public WriteBehindRepository(@Nonnull GenericRepository<T> delegate) {
+        this(delegate, DEFAULT_FLUSH_INTERVAL, DEFAULT_MAX_PENDING);
+    }
+
+    /**
+     * Creates a write-behind buffer in front of the delegate and starts flushing it periodically.
+     *
+     * @param delegate - The repository that updates are written to.
+     * @param flushInterval - How long an update may stay buffered.
+     * @param maxPending - How many distinct items may be buffered before a flush is forced.
+     */
+    public WriteBehindRepository(
+            @Nonnull GenericRepository<T> delegate,
+            @Nonnull Duration flushInterval,
+            int maxPending) {
+        this.delegate = delegate;
+        this.maxPending = maxPending;
+        this.pending = new LinkedHashMap<>();
+        this.updatesReceived = new AtomicLong();
+        this.documentsWritten = new AtomicLong();
+
+        this.scheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        runnable -> {
+                            var thread = new Thread(runnable, "write-behind-flush");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        scheduler.scheduleWithFixedDelay(
+                this::flushQuietly,
+                flushInterval.toMillis(),
+                flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+
+        // Write out whatever is still buffered when the bot is stopped
+        this.shutdownHook = new Thread(this::flushQuietly, "write-behind-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Writes every buffered update to the delegate as a single batch. Updates stay buffered if the
+     * write fails, so they are retried on the next flush. Deletes wait for a flush in progress, so
+     * a batch read before a delete cannot write the deleted item back.
+     */
+    public synchronized void flush() {
+        List<PendingWrite<T>> batch;
+        synchronized (pending) {
+            batch = new ArrayList<>(pending.values());
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<T> items = new ArrayList<>(batch.size());
+        for (PendingWrite<T> write : batch) {
+            items.add(write.item);
+        }
+        delegate.updateAll(items);
+        documentsWritten.addAndGet(items.size());
+
+        synchronized (pending) {
+            // Only drop writes that were not superseded while the batch was in flight
+            for (PendingWrite<T> write : batch) {
+                pending.remove(write.item.getId(), write);
+            }
+        }
+        log.debug("Flushed {} documents, coalescing ratio {}", items.size(), getCoalescingRatio());
+    }
+
+    /**
+     * Returns how many updates were received per document written. A ratio of 2 means every write
+     * to the backing store replaced two updates.
+     *
+     * @return The coalescing ratio, or 0 if nothing has been written yet.
+     */
+    public double getCoalescingRatio() {
+        long written = documentsWritten.get();
+        if (written == 0) {
+            return 0;
+        }
+        return (double) updatesReceived.get() / written;
+    }
+
+    /** Stops the periodic flush and writes out everything still buffered. */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // The JVM is already shutting down and the hook is flushing
+        }
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Unable to flush buffered updates, they will be retried", e);
+        }
+    }
+
+    @Override
+    @Nullable
+    public T get(@Nonnull ObjectId id) {
+        synchronized (pending) {
+            var write = pending.get(id);
+            if (write != null) {
+                return write.item;
+            }
+        }
+        return delegate.get(id);
+    }
+
+    @Override
+    public T add(@Nonnull T item) {
+        return delegate.add(item);
+    }
+
+    @Override
+    public T update(@Nonnull T item) {
+        updatesReceived.incrementAndGet();
+        int pendingCount = buffer(item);
+        if (pendingCount < 0) {
+            // The buffer is full because the last flush failed, try once more before giving up
+            flushQuietly();
+            pendingCount = buffer(item);
+        }
+        if (pendingCount < 0) {
+            // Still failing, so fail this update rather than buffer more than maxPending items
+            T updated = delegate.update(item);
+            documentsWritten.incrementAndGet();
+            return updated;
+        }
+
+        if (pendingCount >= maxPending) {
+            flushQuietly();
+        }
+        return item;
+    }
+
+    /**
+     * Buffers the update, unless it is for a new item and the buffer is already full.
+     *
+     * @param item - The updated item.
+     * @return The number of buffered items, or -1 if the update was not buffered.
+     */
+    private int buffer(@Nonnull T item) {
+        synchronized (pending) {
+            if (pending.size() >= maxPending && !pending.containsKey(item.getId())) {
+                return -1;
+            }
+            pending.put(item.getId(), new PendingWrite<>(item));
+            return pending.size();
+        }
+    }
+
+    @Override
+    public boolean compareAndUpdate(@Nonnull T item, long expectedVersion) {
+        var versioned = Versions.of(item);
+        var versionLock = versionLocks.get(item.getId());
+        versionLock.lock();
+        try {
+            // The buffered item is newer than the stored one, so its version is the current one
+            T current = get(item.getId());
+            if (current == null || Versions.of(current).getVersion() != expectedVersion) {
+                return false;
+            }
+
+            versioned.setVersion(expectedVersion + 1);
+            try {
+                update(item);
+            } catch (RuntimeException e) {
+                versioned.setVersion(expectedVersion);
+                throw e;
+            }
+            return true;
+        } finally {
+            versionLock.unlock();
+        }
+    }
+
+    @Override
+    public void updateAll(@Nonnull Collection<T> items) {
+        for (T item : items) {
+            update(item);
+        }
+    }
+
+    @Override
+    public boolean updateField(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nullable Object value) {
+        // Buffered replacements must land first, or they would overwrite this update
+        flush();
+        return delegate.updateField(matchField, matchValue, field, value);
+    }
+
+    @Override
+    public boolean addToSet(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nonnull Collection<?> values) {
+        // Buffered replacements must land first, or they would overwrite this update
+        flush();
+        return delegate.addToSet(matchField, matchValue, field, values);
+    }
+
+    @Override
+    public boolean pull(
+            @Nonnull String matchField,
+            @Nonnull Object matchValue,
+            @Nonnull String field,
+            @Nonnull Object value) {
+        // Buffered replacements must land first, or they would overwrite this update
+        flush();
+        return delegate.pull(matchField, matchValue, field, value);
+    }
+
+    @Override
+    public synchronized void delete(@Nonnull ObjectId id) {
+        synchronized (pending) {
+            pending.remove(id);
+        }
+        delegate.delete(id);
+    }
+
+    @Override
+    public void addAll(@Nonnull Collection<T> items) {
+        delegate.addAll(items);
+    }
+
+    @Override
+    public boolean addIfAbsent(@Nonnull Map<String, Object> filter, @Nonnull T item) {
+        // Buffered updates may change whether an item matches the filter
+        flush();
+        return delegate.addIfAbsent(filter, item);
+    }
+
+    @Override
+    public synchronized void deleteAll(@Nonnull Collection<ObjectId> ids) {
+        synchronized (pending) {
+            pending.keySet().removeAll(ids);
+        }
+        delegate.deleteAll(ids);
+    }
+
+    @Override
+    public synchronized long deleteWhere(@Nonnull Map<String, Object> filter) {
+        // Buffered items may match the filter only after they are written
+        flush();
+        return delegate.deleteWhere(filter);
+    }
+
+    @Override
+    public synchronized long deleteWhereIn(@Nonnull String field, @Nonnull Collection<?> values) {
+        // Buffered items may match the values only after they are written
+        flush();
+        return delegate.deleteWhereIn(field, values);
+    }
+
+    @Override
+    public Collection<T> getAll() {
+        flush();
+        return delegate.getAll();
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long count(@Nonnull Map<String, Object> filter) {
+        // Buffered updates may change which items match. A failed flush is logged rather than
+        // thrown, so an update the store keeps rejecting does not fail every count as well.
+        flushQuietly();
+        return delegate.count(filter);
+    }
+
+    @Override
+    @Nullable
+    public T findOne(@Nonnull String field, @Nonnull Object value) {
+        synchronized (pending) {
+            for (PendingWrite<T> write : pending.values()) {
+                if (FieldAccessor.matches(write.item, field, value)) {
+                    return write.item;
+                }
+            }
+        }
+
+        T item = delegate.findOne(field, value);
+        if (item != null && isPending(item.getId())) {
+            // The stored version matched, but the buffered version no longer does
+            flush();
+            return delegate.findOne(field, value);
+        }
+        return item;
+    }
+
+    @Override
+    @Nullable
+    public <V> V findOne(@Nonnull String field, @Nonnull Object value, @Nonnull Class<V> view) {
+        boolean anyPending;
+        synchronized (pending) {
+            anyPending = !pending.isEmpty();
+        }
+
+        if (anyPending) {
+            // A view has no id to tell whether a buffered version supersedes it, so read whole
+            // items while updates are buffered
+            T item = findOne(field, value);
+            return item == null ? null : ViewProjection.project(item, view);
+        }
+        return delegate.findOne(field, value, view);
+    }
+
+    @Override
+    @Nonnull
+    public List<T> findMany(@Nonnull String field, @Nonnull Object value) {
+        flush();
+        return delegate.findMany(field, value);
+    }
+
+    @Override
+    @Nonnull
+    public List<T> findMany(@Nonnull Map<String, Object> filter) {
+        flush();
+        return delegate.findMany(filter);
+    }
+
+    @Override
+    @Nonnull
+    public List<T> find(@Nonnull Query query) {
+        flush();
+        return delegate.find(query);
+    }
+
+    @Override
+    @Nonnull
+    public List<T> getPage(
+            @Nonnull Map<String, Object> filter, @Nullable ObjectId afterId, int limit) {
+        flush();
+        return delegate.getPage(filter, afterId, limit);
+    }
+
+    private boolean isPending(@Nonnull ObjectId id) {
+        synchronized (pending) {
+            return pending.containsKey(id);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.bson.types.ObjectId;
+
+/**
+ * Maps terms to the documents that contain them. Terms are kept sorted, so every term starting
+ * with a prefix is one contiguous range of the map. Not thread-safe, callers have to lock.
+ */
+class InvertedIndex {
+    // Words that only start with a query term count for less than an exact match
+    static final double PREFIX_MATCH_WEIGHT = 0.5;
+
+    // Misspelled words count for less still, scaled by how similar they are
+    static final double FUZZY_MATCH_WEIGHT = 0.5;
+
+    // Term -> document id -> weight of the term in that document
+    private final NavigableMap<String, Map<ObjectId, Integer>> postings = new TreeMap<>();
+
+    // Document id -> its terms, so a document can be removed without scanning every posting
+    private final Map<ObjectId, Map<String, Integer>> documents = new HashMap<>();
+
+    // Every term in the postings, to look up the terms a misspelled query term was meant to be
+    private final TrigramIndex trigrams = new TrigramIndex();
+
+    /**
+     * Indexes a document, replacing whatever was indexed for the id before.
+     *
+     * @param id - The id of the document.
+     * @param termWeights - The weight of every term in the document.
+     */
+    void put(@Nonnull ObjectId id, @Nonnull Map<String, Integer> termWeights) {
+        remove(id);
+        documents.put(id, termWeights);
+        for (Map.Entry<String, Integer> entry : termWeights.entrySet()) {
+            var posting = postings.get(entry.getKey());
+            if (posting == null) {
+                posting = new HashMap<>();
+                postings.put(entry.getKey(), posting);
+                trigrams.add(entry.getKey());
+            }
+            posting.put(id, entry.getValue());
+        }
+    }
+
+    /**
+     * Removes a document from the index.
+     *
+     * @param id - The id of the document.
+     */
+    void remove(@Nonnull ObjectId id) {
+        var termWeights = documents.remove(id);
+        if (termWeights == null) {
+            return;
+        }
+        for (String term : termWeights.keySet()) {
+            var posting = postings.get(term);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+                trigrams.remove(term);
+            }
+        }
+    }
+
+    /** @return The number of documents in the index. */
+    int size() {
+        return documents.size();
+    }
+
+    /**
+     * Finds the documents that contain every query term, either as a whole word or as the start of
+     * one. A query term that no word starts with is taken to be misspelled, and matches the words
+     * within a few edits of it instead. Documents are scored by the weight of the matched terms,
+     * scaled by how rare each term is and how well it matched.
+     *
+     * @param queryTerms - The normalized query terms.
+     * @return The ids of the matching documents mapped to their scores, in no particular order.
+     */
+    @Nonnull
+    Map<ObjectId, Double> search(@Nonnull List<String> queryTerms) {
+        return search(queryTerms, null);
+    }
+
+    /**
+     * Finds the documents among the candidates that contain every query term. Terms are scored as
+     * if the whole index was searched, so a document scores the same with or without candidates.
+     *
+     * @param queryTerms - The normalized query terms.
+     * @param candidates - The ids of the documents that may match, or null for every document.
+     * @return The ids of the matching documents mapped to their scores, in no particular order.
+     */
+    @Nonnull
+    Map<ObjectId, Double> search(
+            @Nonnull List<String> queryTerms, @Nullable Set<ObjectId> candidates) {
+        Map<ObjectId, Double> scores = null;
+        for (String queryTerm : queryTerms) {
+            var termScores = score(queryTerm, candidates);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores == null ? new HashMap<>() : scores;
+    }
+
+    /**
+     * Scores every document containing a term that starts with the query term, or if there is
+     * none, a term similar to it.
+     */
+    @Nonnull
+    private Map<ObjectId, Double> score(
+            @Nonnull String queryTerm, @Nullable Set<ObjectId> candidates) {
+        Map<ObjectId, Double> scores = new HashMap<>();
+        var matches = postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Map<ObjectId, Integer>> match : matches.entrySet()) {
+            double matchWeight =
+                    match.getKey().length() == queryTerm.length() ? 1 : PREFIX_MATCH_WEIGHT;
+            addScores(scores, match.getValue(), candidates, matchWeight);
+        }
+
+        if (matches.isEmpty()) {
+            for (Map.Entry<String, Double> similar : trigrams.similar(queryTerm).entrySet()) {
+                double matchWeight = FUZZY_MATCH_WEIGHT * similar.getValue();
+                addScores(scores, postings.get(similar.getKey()), candidates, matchWeight);
+            }
+        }
+        return scores;
+    }
+
+    private void addScores(
+            @Nonnull Map<ObjectId, Double> scores,
+            @Nonnull Map<ObjectId, Integer> posting,
+            @Nullable Set<ObjectId> candidates,
+            double matchWeight) {
+        double rarity = Math.log(1 + (double) documents.size() / posting.size());
+        if (candidates == null) {
+            for (Map.Entry<ObjectId, Integer> entry : posting.entrySet()) {
+                scores.merge(entry.getKey(), entry.getValue() * rarity * matchWeight, Double::sum);
+            }
+            return;
+        }
+
+        // Walks whichever of the two is smaller, so a narrow filter never reads a long posting
+        if (candidates.size() < posting.size()) {
+            for (ObjectId id : candidates) {
+                var weight = posting.get(id);
+                if (weight != null) {
+                    scores.merge(id, weight * rarity * matchWeight, Double::sum);
+                }
+            }
+        } else {
+            for (Map.Entry<ObjectId, Integer> entry : posting.entrySet()) {
+                if (candidates.contains(entry.getKey())) {
+                    scores.merge(
+                            entry.getKey(), entry.getValue() * rarity * matchWeight, Double::sum);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import java.util.List;
+import javax.annotation.Nonnull;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Value;
+
+/** One page of the listings found by a search. */
+@Value
+public class ListingPage {
+
+    // The listings on the page, in the order of the search
+    @Nonnull List<Listing> listings;
+
+    // The position of the first listing on the page among all the matches
+    int offset;
+
+    // How many listings match the search. Backends may stop counting at some point, so this is a
+    // lower bound on large result sets
+    int totalEstimate;
+
+    // Whether a listing was found after the last one on the page. Backends whose count is capped
+    // find out by asking for one listing more than the page holds, so this is exact either way
+    @Getter(AccessLevel.NONE)
+    boolean hasNext;
+
+    /** @return Whether there are more listings after this page. */
+    public boolean hasNext() {
+        return hasNext;
+    }
+}
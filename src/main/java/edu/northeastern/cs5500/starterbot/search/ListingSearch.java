@@ -0,0 +1,92 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+
+/**
+ * Keyword search over the title and description of the listings in a guild. Words are matched as
+ * whole words, or from their start where the implementation supports it, never in the middle of a
+ * longer word. ListingController reports every listing it stores or deletes, for implementations
+ * that keep their own index.
+ */
+public interface ListingSearch {
+
+    /**
+     * Indexes a listing that was just stored, replacing any earlier version of it.
+     *
+     * @param listing - The stored listing.
+     */
+    public void add(@Nonnull Listing listing);
+
+    /**
+     * Removes a listing that was just deleted.
+     *
+     * @param listing - The deleted listing.
+     */
+    public void remove(@Nonnull Listing listing);
+
+    /**
+     * Drops whatever is indexed for a guild whose listings were all deleted.
+     *
+     * @param guildId - The id of the guild.
+     */
+    public void removeGuild(@Nonnull String guildId);
+
+    /**
+     * Finds one page of the listings in a guild whose title or description contains every word of
+     * the query, among the listings posted by sellers in the location. Every match is found and
+     * scored, so that part of the cost grows with the number of matches. Only the listings up to
+     * the end of the page are sorted, and only those on the page are read.
+     *
+     * @param guildId - The id of the guild to search.
+     * @param query - The words to search for.
+     * @param location - Where the sellers of the listings live.
+     * @param sort - The order of the matching listings.
+     * @param offset - The number of matching listings to skip.
+     * @param limit - The maximum number of listings on the page, 0 for all of them.
+     * @return The page of matching listings.
+     */
+    @Nonnull
+    public ListingPage search(
+            @Nonnull String guildId,
+            @Nonnull String query,
+            @Nonnull LocationFilter location,
+            @Nonnull ListingSort sort,
+            int offset,
+            int limit);
+
+    /**
+     * Finds one page of matching listings without blocking the caller.
+     *
+     * @param guildId - The id of the guild to search.
+     * @param query - The words to search for.
+     * @param location - Where the sellers of the listings live.
+     * @param sort - The order of the matching listings.
+     * @param offset - The number of matching listings to skip.
+     * @param limit - The maximum number of listings on the page, 0 for all of them.
+     * @return A future of the page of matching listings.
+     */
+    @Nonnull
+    public CompletableFuture<ListingPage> searchAsync(
+            @Nonnull String guildId,
+            @Nonnull String query,
+            @Nonnull LocationFilter location,
+            @Nonnull ListingSort sort,
+            int offset,
+            int limit);
+
+    /**
+     * Finds every listing in a guild whose title or description contains every word of the query.
+     *
+     * @param guildId - The id of the guild to search.
+     * @param query - The words to search for.
+     * @return The matching listings, most relevant first.
+     */
+    @Nonnull
+    public default List<Listing> search(@Nonnull String guildId, @Nonnull String query) {
+        return search(guildId, query, LocationFilter.ANYWHERE, ListingSort.BY_RELEVANCE, 0, 0)
+                .getListings();
+    }
+}
@@ -0,0 +1,329 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.model.ListingFields;
+import edu.northeastern.cs5500.starterbot.model.Price;
+import edu.northeastern.cs5500.starterbot.repository.GenericRepository;
+import edu.northeastern.cs5500.starterbot.repository.Query;
+import edu.northeastern.cs5500.starterbot.repository.RepositoryModule;
+import edu.northeastern.cs5500.starterbot.repository.TopK;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+
+/**
+ * Searches an inverted index over the listings in each guild, held in memory. A guild's index is
+ * loaded from the repository the first time the guild is searched, and is then kept up to date as
+ * listings are added and deleted, so a search only reads the listings on the page it returns.
+ * Guilds that are not searched for a while are dropped, and the number of guilds held at once is
+ * bounded. The index keeps the terms, sort keys and locations of a listing, not the listing itself.
+ *
+ * <p>Query words match whole words or the start of longer ones, so "bike" finds "bikes" but not
+ * "ebike". Unlike the substring match on titles that /searchlistings used to run, a query word is
+ * never found in the middle of a longer word. A query word that matches nothing is treated as a
+ * typo of the words a few edits away from it.
+ *
+ * <p>The price and posting time of every listing are read when it is indexed, so sorting the
+ * matches never parses them. Listings are also grouped by the state and city of their seller, and
+ * a search filtered on a location only scores the listings in it.
+ */
+@Slf4j
+@Singleton
+public class ListingSearchIndex implements ListingSearch {
+    // A term in the title says more about a listing than the same term in its description
+    static final int TITLE_WEIGHT = 3;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    // Guilds that were not searched for this long are dropped, and loaded again when searched
+    static final Duration IDLE_GUILD_TIME = Duration.ofMinutes(30);
+
+    // Upper bound on the number of guilds indexed at once, the least recently searched go first
+    static final long MAX_GUILDS = 1_000;
+
+    private static final String GUILD_ID_FIELD = "guildId";
+
+    /** The keys a listing is sorted by and the locations it is grouped under, read once. */
+    private static class IndexedListing {
+        @Nullable final Long priceMinor;
+        @Nullable final Instant postedAt;
+        final List<LocationFilter> locations;
+
+        IndexedListing(@Nonnull Listing listing) {
+            var fields = listing.getFields();
+            var price = Price.of(fields);
+            this.priceMinor = price == null ? null : price.getMinorUnits();
+            var postedAt = fields.getPostedAt();
+            this.postedAt =
+                    postedAt != null
+                            ? postedAt
+                            : ListingFields.parseDatePosted(fields.getDatePosted());
+            this.locations = locationsOf(listing);
+        }
+    }
+
+    /** The index of a single guild, along with the sort keys of the listings it refers to. */
+    private static class GuildIndex {
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        final InvertedIndex terms = new InvertedIndex();
+        final Map<ObjectId, IndexedListing> listings = new HashMap<>();
+        // The ids of the listings in each state, and in each city of a state
+        final Map<LocationFilter, Set<ObjectId>> locations = new HashMap<>();
+        volatile boolean loaded;
+    }
+
+    GenericRepository<Listing> listingRepository;
+    Executor executor;
+
+    Cache<String, GuildIndex> guildIndexes;
+
+    @Inject
+    public ListingSearchIndex(
+            GenericRepository<Listing> listingRepository,
+            @Named(RepositoryModule.REPOSITORY_EXECUTOR) Executor executor) {
+        this(listingRepository, executor, MAX_GUILDS, IDLE_GUILD_TIME);
+    }
+
+    /**
+     * Creates an index that holds a bounded number of guilds.
+     *
+     * @param listingRepository - The repository the listings are loaded from.
+     * @param executor - Runs asynchronous searches.
+     * @param maxGuilds - The number of guilds that may be indexed at once.
+     * @param idleTime - How long a guild that is not searched stays indexed.
+     */
+    ListingSearchIndex(
+            @Nonnull GenericRepository<Listing> listingRepository,
+            @Nonnull Executor executor,
+            long maxGuilds,
+            @Nonnull Duration idleTime) {
+        this.listingRepository = listingRepository;
+        this.executor = executor;
+        this.guildIndexes =
+                CacheBuilder.newBuilder()
+                        .maximumSize(maxGuilds)
+                        .expireAfterAccess(idleTime)
+                        .build();
+    }
+
+    // Guilds that are not indexed are skipped, loading them will read the listing anyway
+    @Override
+    public void add(@Nonnull Listing listing) {
+        var id = listing.getId();
+        var index = guildIndexes.getIfPresent(listing.getGuildId());
+        if (id == null || index == null) {
+            return;
+        }
+
+        index.lock.writeLock().lock();
+        try {
+            put(index, id, listing);
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(@Nonnull Listing listing) {
+        var id = listing.getId();
+        var index = guildIndexes.getIfPresent(listing.getGuildId());
+        if (id == null || index == null) {
+            return;
+        }
+
+        index.lock.writeLock().lock();
+        try {
+            delete(index, id);
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeGuild(@Nonnull String guildId) {
+        guildIndexes.invalidate(guildId);
+    }
+
+    @Override
+    @Nonnull
+    public ListingPage search(
+            @Nonnull String guildId,
+            @Nonnull String query,
+            @Nonnull LocationFilter location,
+            @Nonnull ListingSort sort,
+            int offset,
+            int limit) {
+        List<Listing> results = new ArrayList<>();
+        var queryTerms = Tokenizer.tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return new ListingPage(results, offset, 0, false);
+        }
+
+        var index = getLoadedIndex(guildId);
+        List<ObjectId> pageIds;
+        int totalMatches;
+        index.lock.readLock().lock();
+        try {
+            Set<ObjectId> candidates = null;
+            if (!location.isAnywhere()) {
+                candidates = index.locations.getOrDefault(location, Set.of());
+                if (candidates.isEmpty()) {
+                    return new ListingPage(results, offset, 0, false);
+                }
+            }
+
+            var scores = index.terms.search(queryTerms, candidates);
+            var order = comparator(index, scores, sort);
+            pageIds = TopK.select(scores.keySet(), order, offset, limit);
+            totalMatches = scores.size();
+        } finally {
+            index.lock.readLock().unlock();
+        }
+
+        // Read outside the lock; a listing deleted since it was found is left out
+        for (ObjectId id : pageIds) {
+            var listing = listingRepository.get(id);
+            if (listing != null) {
+                results.add(listing);
+            }
+        }
+        // Every match is counted, so the count tells whether there is a next page
+        boolean hasNext = limit > 0 && offset + limit < totalMatches;
+        return new ListingPage(results, offset, totalMatches, hasNext);
+    }
+
+    // The first search of a guild has to load it from the repository
+    @Override
+    @Nonnull
+    public CompletableFuture<ListingPage> searchAsync(
+            @Nonnull String guildId,
+            @Nonnull String query,
+            @Nonnull LocationFilter location,
+            @Nonnull ListingSort sort,
+            int offset,
+            int limit) {
+        return CompletableFuture.supplyAsync(
+                () -> search(guildId, query, location, sort, offset, limit), executor);
+    }
+
+    /**
+     * Orders the ids of matching listings the way MongoDBListingSearch sorts them: by score with
+     * newer listings first on a tie, or by the sort key with ties in id order.
+     */
+    @Nonnull
+    private static Comparator<ObjectId> comparator(
+            @Nonnull GuildIndex index,
+            @Nonnull Map<ObjectId, Double> scores,
+            @Nonnull ListingSort sort) {
+        if (sort.getKey() == ListingSort.Key.RELEVANCE) {
+            return Comparator.<ObjectId, Double>comparing(scores::get, Comparator.reverseOrder())
+                    .thenComparing(Comparator.reverseOrder());
+        }
+
+        Comparator<ObjectId> byKey =
+                sort.getKey() == ListingSort.Key.PRICE
+                        ? Comparator.<ObjectId, Long>comparing(
+                                id -> index.listings.get(id).priceMinor,
+                                Comparator.nullsFirst(Comparator.naturalOrder()))
+                        : Comparator.<ObjectId, Instant>comparing(
+                                id -> index.listings.get(id).postedAt,
+                                Comparator.nullsFirst(Comparator.naturalOrder()));
+        var comparator = byKey.thenComparing(Comparator.naturalOrder());
+        return sort.getOrder() == Query.Order.ASCENDING ? comparator : comparator.reversed();
+    }
+
+    @Nonnull
+    private GuildIndex getLoadedIndex(@Nonnull String guildId) {
+        var index = guildIndexes.asMap().computeIfAbsent(guildId, key -> new GuildIndex());
+        if (index.loaded) {
+            return index;
+        }
+
+        index.lock.writeLock().lock();
+        try {
+            if (!index.loaded) {
+                for (Listing listing :
+                        listingRepository.iterate(
+                                Map.of(GUILD_ID_FIELD, guildId),
+                                GenericRepository.DEFAULT_PAGE_SIZE)) {
+                    put(index, listing.getId(), listing);
+                }
+                index.loaded = true;
+                log.info("Indexed {} listings in guild {}", index.terms.size(), guildId);
+            }
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+        return index;
+    }
+
+    private static void put(
+            @Nonnull GuildIndex index, @Nonnull ObjectId id, @Nonnull Listing listing) {
+        // The listing may have been indexed before, under other locations
+        delete(index, id);
+
+        Map<String, Integer> termWeights = new HashMap<>();
+        for (String term : Tokenizer.tokenize(listing.getTitle())) {
+            termWeights.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : Tokenizer.tokenize(listing.getFields().getDescription())) {
+            termWeights.merge(term, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        index.terms.put(id, termWeights);
+        var indexed = new IndexedListing(listing);
+        index.listings.put(id, indexed);
+        for (LocationFilter location : indexed.locations) {
+            index.locations.computeIfAbsent(location, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static void delete(@Nonnull GuildIndex index, @Nonnull ObjectId id) {
+        index.terms.remove(id);
+        var indexed = index.listings.remove(id);
+        if (indexed == null) {
+            return;
+        }
+        // The listing may have been changed since, so it is removed from where it was indexed
+        for (LocationFilter location : indexed.locations) {
+            var ids = index.locations.get(location);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    index.locations.remove(location);
+                }
+            }
+        }
+    }
+
+    /** Lists the filters a listing matches, other than {@link LocationFilter#ANYWHERE}. */
+    @Nonnull
+    private static List<LocationFilter> locationsOf(@Nonnull Listing listing) {
+        var state = listing.getState();
+        if (state == null) {
+            return List.of();
+        }
+        var city = listing.getCity();
+        if (city == null) {
+            return List.of(new LocationFilter(state, null));
+        }
+        return List.of(new LocationFilter(state, null), new LocationFilter(state, city));
+    }
+}
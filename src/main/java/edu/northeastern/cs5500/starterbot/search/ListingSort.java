@@ -0,0 +1,39 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import edu.northeastern.cs5500.starterbot.repository.Query;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+/** The order listings found by a search come back in. */
+@Value
+public class ListingSort {
+
+    public enum Key {
+        // Best match first, the order is ignored
+        RELEVANCE(null),
+        PRICE("fields.priceMinor"),
+        DATE("fields.postedAt");
+
+        // The stored field the listings are sorted by, null for the score of the search
+        @Nullable private final String field;
+
+        Key(@Nullable String field) {
+            this.field = field;
+        }
+
+        @Nullable
+        public String getField() {
+            return field;
+        }
+    }
+
+    public static final ListingSort BY_RELEVANCE =
+            new ListingSort(Key.RELEVANCE, Query.Order.DESCENDING);
+
+    // What to sort by. Listings without a price or date come first in ascending order, as in
+    // MongoDB, and listings with the same value are in id order
+    @Nonnull Key key;
+
+    @Nonnull Query.Order order;
+}
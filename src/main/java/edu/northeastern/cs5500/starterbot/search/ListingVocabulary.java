@@ -0,0 +1,171 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.repository.GenericRepository;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The distinct words used in the listings of each guild, to correct misspelled query words before
+ * a search is run again. Only the words are held, not which listings use them, so a guild costs
+ * memory in proportion to its vocabulary rather than to its listings. A guild's words are read
+ * from the repository a page of listings at a time the first time a correction is needed, and
+ * words of new listings are added after that.
+ *
+ * <p>Words are not removed when a listing is deleted, as other listings may still use them. A
+ * correction to a word no listing uses any more finds nothing, as the uncorrected query did.
+ * Guilds that are not searched for a while are dropped, and the number of guilds and of words per
+ * guild held at once is bounded.
+ */
+@Slf4j
+@Singleton
+public class ListingVocabulary {
+    // Guilds that were not corrected for this long are dropped, and loaded again when needed
+    static final Duration IDLE_GUILD_TIME = Duration.ofMinutes(30);
+
+    // Upper bound on the number of guilds held at once, the least recently used go first
+    static final long MAX_GUILDS = 1_000;
+
+    // Words past this many in one guild are not held, so they cannot be corrected to
+    static final int MAX_TERMS_PER_GUILD = 50_000;
+
+    private static final String GUILD_ID_FIELD = "guildId";
+
+    /** The words of a single guild. Access is synchronized on the instance. */
+    private static class GuildVocabulary {
+        final Set<String> terms = new HashSet<>();
+        final TrigramIndex trigrams = new TrigramIndex();
+        boolean loaded;
+    }
+
+    GenericRepository<Listing> listingRepository;
+    int maxTermsPerGuild;
+
+    Cache<String, GuildVocabulary> guildVocabularies;
+
+    @Inject
+    public ListingVocabulary(GenericRepository<Listing> listingRepository) {
+        this(listingRepository, MAX_GUILDS, IDLE_GUILD_TIME, MAX_TERMS_PER_GUILD);
+    }
+
+    /**
+     * Creates a vocabulary that holds a bounded number of guilds and words.
+     *
+     * @param listingRepository - The repository the listings are read from.
+     * @param maxGuilds - The number of guilds that may be held at once.
+     * @param idleTime - How long a guild that is not used stays held.
+     * @param maxTermsPerGuild - The number of words held for one guild.
+     */
+    ListingVocabulary(
+            @Nonnull GenericRepository<Listing> listingRepository,
+            long maxGuilds,
+            @Nonnull Duration idleTime,
+            int maxTermsPerGuild) {
+        this.listingRepository = listingRepository;
+        this.maxTermsPerGuild = maxTermsPerGuild;
+        this.guildVocabularies =
+                CacheBuilder.newBuilder()
+                        .maximumSize(maxGuilds)
+                        .expireAfterAccess(idleTime)
+                        .build();
+    }
+
+    // Guilds that are not held are skipped, loading them will read the listing anyway
+    public void add(@Nonnull Listing listing) {
+        var vocabulary = guildVocabularies.getIfPresent(listing.getGuildId());
+        if (vocabulary == null) {
+            return;
+        }
+
+        synchronized (vocabulary) {
+            if (vocabulary.loaded) {
+                put(vocabulary, listing);
+            }
+        }
+    }
+
+    public void removeGuild(@Nonnull String guildId) {
+        guildVocabularies.invalidate(guildId);
+    }
+
+    /**
+     * Replaces every query word no listing in the guild uses with the most similar word that one
+     * does, preferring the first in alphabetical order on a tie.
+     *
+     * @param guildId - The guild whose words are used.
+     * @param queryTerms - The normalized query terms.
+     * @return The corrected terms in query order, or an empty list if a word has nothing close to
+     *     it.
+     */
+    @Nonnull
+    public List<String> correct(@Nonnull String guildId, @Nonnull List<String> queryTerms) {
+        var vocabulary =
+                guildVocabularies.asMap().computeIfAbsent(guildId, key -> new GuildVocabulary());
+        List<String> corrected = new ArrayList<>(queryTerms.size());
+        synchronized (vocabulary) {
+            if (!vocabulary.loaded) {
+                load(vocabulary, guildId);
+            }
+
+            for (String term : queryTerms) {
+                if (vocabulary.terms.contains(term)) {
+                    corrected.add(term);
+                    continue;
+                }
+
+                String closest = null;
+                double closestSimilarity = 0;
+                for (Map.Entry<String, Double> similar :
+                        vocabulary.trigrams.similar(term).entrySet()) {
+                    var candidate = similar.getKey();
+                    double similarity = similar.getValue();
+                    if (closest == null
+                            || similarity > closestSimilarity
+                            || (similarity == closestSimilarity
+                                    && candidate.compareTo(closest) < 0)) {
+                        closest = candidate;
+                        closestSimilarity = similarity;
+                    }
+                }
+                if (closest == null) {
+                    return List.of();
+                }
+                corrected.add(closest);
+            }
+        }
+        return corrected;
+    }
+
+    private void load(@Nonnull GuildVocabulary vocabulary, @Nonnull String guildId) {
+        for (Listing listing :
+                listingRepository.iterate(
+                        Map.of(GUILD_ID_FIELD, guildId), GenericRepository.DEFAULT_PAGE_SIZE)) {
+            put(vocabulary, listing);
+        }
+        vocabulary.loaded = true;
+        log.info("Loaded {} words of guild {}", vocabulary.terms.size(), guildId);
+    }
+
+    private void put(@Nonnull GuildVocabulary vocabulary, @Nonnull Listing listing) {
+        List<String> terms = new ArrayList<>(Tokenizer.tokenize(listing.getTitle()));
+        terms.addAll(Tokenizer.tokenize(listing.getFields().getDescription()));
+        for (String term : terms) {
+            if (vocabulary.terms.size() >= maxTermsPerGuild) {
+                return;
+            }
+            if (vocabulary.terms.add(term)) {
+                vocabulary.trigrams.add(term);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+/**
+ * Where the sellers of the listings found by a search live. A city is only looked for within a
+ * state, as many states have a city of the same name, which also lets MongoDB answer it from the
+ * index on guildId, state and city key. Cities are compared by their key, so "seattle" finds
+ * listings in "Seattle".
+ */
+@Value
+public class LocationFilter {
+    private static final String STATE_FIELD = "state";
+    private static final String CITY_KEY_FIELD = "cityKey";
+
+    public static final LocationFilter ANYWHERE = new LocationFilter(null, null);
+
+    // Abbreviation of the state, null for every state
+    @Nullable String state;
+
+    // Key of the city within the state, see Listing.toCityKey, null for every city
+    @Nullable String city;
+
+    /**
+     * Creates a filter for the listings in a state, or in a city of the state.
+     *
+     * @param state - The abbreviation of the state, or null for every state.
+     * @param city - The city in any case, or null for every city in the state.
+     * @throws IllegalArgumentException If a city is given without a state.
+     */
+    public LocationFilter(@Nullable String state, @Nullable String city) {
+        if (city != null && state == null) {
+            throw new IllegalArgumentException("A city can only be filtered on within a state");
+        }
+        this.state = state;
+        this.city = Listing.toCityKey(city);
+    }
+
+    /** @return Whether the filter lets every listing through. */
+    public boolean isAnywhere() {
+        return state == null;
+    }
+
+    /**
+     * Converts the filter into the fields a repository query should hold.
+     *
+     * @return The stored names of the location fields mapped to their values, empty for anywhere.
+     */
+    @Nonnull
+    public Map<String, Object> toFilter() {
+        Map<String, Object> filter = new LinkedHashMap<>();
+        if (state != null) {
+            filter.put(STATE_FIELD, state);
+        }
+        if (city != null) {
+            filter.put(CITY_KEY_FIELD, city);
+        }
+        return filter;
+    }
+}
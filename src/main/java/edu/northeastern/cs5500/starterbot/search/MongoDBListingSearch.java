@@ -0,0 +1,149 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.repository.MongoDBRepository;
+import edu.northeastern.cs5500.starterbot.repository.Query;
+import edu.northeastern.cs5500.starterbot.repository.RepositoryModule;
+import edu.northeastern.cs5500.starterbot.repository.Scored;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+/**
+ * Searches listings with the MongoDB text index declared on Listing, so only the matches leave the
+ * database. The index starts with guildId, so a search only reads the entries of one guild.
+ *
+ * <p>Every query word is sent as a quoted phrase, as that is the only way to make $text require
+ * all of them. A listing matches a phrase if one of its words stems like the query word and its
+ * title or description contains the query word as typed, case-insensitively, anywhere. So "bikes"
+ * does not find a listing that only says "bike", and the substring check passes on "motorbike" if
+ * the listing also has the word "bike". ListingSearchIndex matches prefixes of words instead, so
+ * the two can differ on such queries.
+ *
+ * <p>$text has no notion of misspellings, so a search that finds nothing is run again with every
+ * unknown query word replaced by the closest word used in the guild, found in a vocabulary that
+ * holds the distinct words of each guild rather than its listings. MongoDB sorts the matches and
+ * returns only the requested page. A location filter is added to the guild as equality conditions,
+ * which MongoDB checks on the text matches.
+ */
+@Singleton
+public class MongoDBListingSearch implements ListingSearch {
+    private static final String GUILD_ID_FIELD = "guildId";
+
+    // Counting stops here, so a common word does not read its whole posting in the text index
+    static final int MAX_COUNTED_MATCHES = 1000;
+
+    MongoDBRepository<Listing> listingRepository;
+    ListingVocabulary vocabulary;
+    Executor executor;
+
+    @Inject
+    public MongoDBListingSearch(
+            MongoDBRepository<Listing> listingRepository,
+            ListingVocabulary vocabulary,
+            @Named(RepositoryModule.REPOSITORY_EXECUTOR) Executor executor) {
+        this.listingRepository = listingRepository;
+        this.vocabulary = vocabulary;
+        this.executor = executor;
+    }
+
+    /**
+     * Builds a $text search string that requires every term. Unquoted terms are OR'ed by MongoDB,
+     * while every quoted phrase has to match. A phrase is also checked as a substring of the raw
+     * text, so it is not stemmed: the term has to appear as typed.
+     *
+     * @param queryTerms - The normalized query terms.
+     * @return The $text search string.
+     */
+    @Nonnull
+    static String toTextSearch(@Nonnull List<String> queryTerms) {
+        List<String> phrases = new ArrayList<>(queryTerms.size());
+        for (String term : queryTerms) {
+            phrases.add('"' + term + '"');
+        }
+        return String.join(" ", phrases);
+    }
+
+    // The text index is maintained by MongoDB, only the vocabulary has to learn new words
+    @Override
+    public void add(@Nonnull Listing listing) {
+        vocabulary.add(listing);
+    }
+
+    // Other listings may still use the words of a removed listing, so they are kept
+    @Override
+    public void remove(@Nonnull Listing listing) {}
+
+    @Override
+    public void removeGuild(@Nonnull String guildId) {
+        vocabulary.removeGuild(guildId);
+    }
+
+    @Override
+    @Nonnull
+    public ListingPage search(
+            @Nonnull String guildId,
+            @Nonnull String query,
+            @Nonnull LocationFilter location,
+            @Nonnull ListingSort sort,
+            int offset,
+            int limit) {
+        List<Listing> results = new ArrayList<>();
+        var queryTerms = Tokenizer.tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return new ListingPage(results, offset, 0, false);
+        }
+
+        var textSearch = toTextSearch(queryTerms);
+        Map<String, Object> filter = new LinkedHashMap<>();
+        filter.put(GUILD_ID_FIELD, guildId);
+        filter.putAll(location.toFilter());
+        // One listing more than the page holds tells whether there is a next page, which the
+        // capped count cannot
+        var textQuery = Query.where(filter).offset(offset).limit(limit == 0 ? 0 : limit + 1);
+        var sortField = sort.getKey().getField();
+        if (sortField != null) {
+            textQuery.sortBy(sortField, sort.getOrder());
+        }
+
+        var total = listingRepository.countText(textQuery, textSearch, MAX_COUNTED_MATCHES);
+        if (total == 0) {
+            // Most likely a misspelling, so the closest words used in the guild are tried instead
+            var correctedTerms = vocabulary.correct(guildId, queryTerms);
+            if (correctedTerms.isEmpty() || correctedTerms.equals(queryTerms)) {
+                return new ListingPage(results, offset, 0, false);
+            }
+            textSearch = toTextSearch(correctedTerms);
+            total = listingRepository.countText(textQuery, textSearch, MAX_COUNTED_MATCHES);
+        }
+
+        for (Scored<Listing> match : listingRepository.searchText(textQuery, textSearch)) {
+            results.add(match.getItem());
+        }
+        boolean hasNext = limit > 0 && results.size() > limit;
+        if (hasNext) {
+            results.remove(limit);
+        }
+        return new ListingPage(results, offset, (int) total, hasNext);
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<ListingPage> searchAsync(
+            @Nonnull String guildId,
+            @Nonnull String query,
+            @Nonnull LocationFilter location,
+            @Nonnull ListingSort sort,
+            int offset,
+            int limit) {
+        return CompletableFuture.supplyAsync(
+                () -> search(guildId, query, location, sort, offset, limit), executor);
+    }
+}
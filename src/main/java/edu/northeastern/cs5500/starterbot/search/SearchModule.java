@@ -0,0 +1,36 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import dagger.Module;
+import dagger.Provides;
+import edu.northeastern.cs5500.starterbot.repository.RepositoryBackend;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+@Module
+public class SearchModule {
+    // The search behind the result cache
+    public static final String UNCACHED_SEARCH = "uncached";
+
+    /**
+     * Searches with the MongoDB text index when listings are stored in MongoDB, and with an index
+     * held in memory otherwise.
+     */
+    @Provides
+    @Singleton
+    @Named(UNCACHED_SEARCH)
+    public ListingSearch provideUncachedListingSearch(
+            Provider<MongoDBListingSearch> mongoDBListingSearch,
+            Provider<ListingSearchIndex> listingSearchIndex) {
+        if (RepositoryBackend.fromEnvironment() == RepositoryBackend.MONGODB) {
+            return mongoDBListingSearch.get();
+        }
+        return listingSearchIndex.get();
+    }
+
+    /** Serves repeated searches, such as the steps of one /searchlistings, from the cache. */
+    @Provides
+    public ListingSearch provideListingSearch(SearchResultCache searchResultCache) {
+        return searchResultCache;
+    }
+}
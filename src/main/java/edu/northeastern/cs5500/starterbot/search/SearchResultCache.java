@@ -0,0 +1,159 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import lombok.Value;
+
+/**
+ * Caches pages of search results in front of another ListingSearch, keyed by guild, the
+ * normalized query terms, the location, the sort and the page. Entries expire after a short time,
+ * and every entry of a guild is dropped as soon as ListingController adds or deletes a listing in
+ * it, so the pages of other guilds stay cached.
+ */
+@Singleton
+public class SearchResultCache implements ListingSearch {
+    static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(2);
+    static final long DEFAULT_MAX_SIZE = 1_000;
+
+    /** What a page of results depends on. Queries that tokenize the same share an entry. */
+    @Value
+    private static class SearchKey {
+        @Nonnull String guildId;
+        @Nonnull List<String> queryTerms;
+        @Nonnull LocationFilter location;
+        @Nonnull ListingSort sort;
+        int offset;
+        int limit;
+    }
+
+    ListingSearch delegate;
+
+    Cache<SearchKey, ListingPage> pages;
+
+    // Guild id -> how often its entries were dropped, so a search that overlapped a change in the
+    // guild does not cache what it read before the change
+    Map<String, Long> generations;
+
+    @Inject
+    public SearchResultCache(@Named(SearchModule.UNCACHED_SEARCH) ListingSearch delegate) {
+        this(delegate, DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * Creates a cache in front of the delegate.
+     *
+     * @param delegate - The search to run on a miss.
+     * @param maxSize - The number of pages that may be cached at once.
+     * @param timeToLive - How long a page may be served from the cache after it was searched.
+     */
+    public SearchResultCache(
+            @Nonnull ListingSearch delegate, long maxSize, @Nonnull Duration timeToLive) {
+        this.delegate = delegate;
+        this.pages =
+                CacheBuilder.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(timeToLive)
+                        .recordStats()
+                        .build();
+        this.generations = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the hit, miss and eviction counts of the cache.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    @Nonnull
+    public CacheStats getStats() {
+        return pages.stats();
+    }
+
+    @Override
+    public void add(@Nonnull Listing listing) {
+        delegate.add(listing);
+        invalidateGuild(listing.getGuildId());
+    }
+
+    @Override
+    public void remove(@Nonnull Listing listing) {
+        delegate.remove(listing);
+        invalidateGuild(listing.getGuildId());
+    }
+
+    @Override
+    public void removeGuild(@Nonnull String guildId) {
+        delegate.removeGuild(guildId);
+        invalidateGuild(guildId);
+    }
+
+    @Override
+    @Nonnull
+    public ListingPage search(
+            @Nonnull String guildId,
+            @Nonnull String query,
+            @Nonnull LocationFilter location,
+            @Nonnull ListingSort sort,
+            int offset,
+            int limit) {
+        var key =
+                new SearchKey(guildId, Tokenizer.tokenize(query), location, sort, offset, limit);
+        var page = pages.getIfPresent(key);
+        if (page != null) {
+            return page;
+        }
+
+        long generation = generations.getOrDefault(guildId, 0L);
+        page = delegate.search(guildId, query, location, sort, offset, limit);
+        cache(key, generation, page);
+        return page;
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<ListingPage> searchAsync(
+            @Nonnull String guildId,
+            @Nonnull String query,
+            @Nonnull LocationFilter location,
+            @Nonnull ListingSort sort,
+            int offset,
+            int limit) {
+        var key =
+                new SearchKey(guildId, Tokenizer.tokenize(query), location, sort, offset, limit);
+        var page = pages.getIfPresent(key);
+        if (page != null) {
+            return CompletableFuture.completedFuture(page);
+        }
+
+        long generation = generations.getOrDefault(guildId, 0L);
+        return delegate.searchAsync(guildId, query, location, sort, offset, limit)
+                .thenApply(
+                        result -> {
+                            cache(key, generation, result);
+                            return result;
+                        });
+    }
+
+    private void cache(@Nonnull SearchKey key, long generation, @Nonnull ListingPage page) {
+        pages.put(key, page);
+        // Checked after the put, so a change in between either sees the entry or drops it here
+        if (generations.getOrDefault(key.getGuildId(), 0L) != generation) {
+            pages.invalidate(key);
+        }
+    }
+
+    private void invalidateGuild(@Nonnull String guildId) {
+        generations.merge(guildId, 1L, Long::sum);
+        pages.asMap().keySet().removeIf(key -> key.getGuildId().equals(guildId));
+    }
+}
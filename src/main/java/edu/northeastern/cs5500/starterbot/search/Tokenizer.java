@@ -0,0 +1,53 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Splits text into search terms. Terms are lower-cased and stripped of accents, so an accented
+ * word matches the same word typed without them, and anything that is not a letter or a digit
+ * separates terms.
+ */
+final class Tokenizer {
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private Tokenizer() {}
+
+    /**
+     * Normalizes a single piece of text without splitting it.
+     *
+     * @param text - The text to normalize.
+     * @return The lower-cased text without accents.
+     */
+    @Nonnull
+    static String normalize(@Nonnull String text) {
+        var decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits text into normalized terms, in the order they appear.
+     *
+     * @param text - The text to split, may be null.
+     * @return The terms, empty if the text has none.
+     */
+    @Nonnull
+    static List<String> tokenize(@Nullable String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String term : SEPARATORS.split(normalize(text))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
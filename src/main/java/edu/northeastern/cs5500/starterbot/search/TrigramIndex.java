@@ -0,0 +1,149 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+
+/**
+ * Maps the three-letter substrings of terms to the terms containing them, to find the indexed
+ * terms a misspelled query term is close to without comparing it against every term. Not
+ * thread-safe, callers have to lock.
+ */
+class TrigramIndex {
+    // Terms are padded so their first and last letters appear in as many trigrams as the others
+    private static final String START_PADDING = "  ";
+    private static final String END_PADDING = " ";
+
+    // An insertion, deletion or substitution changes at most three trigrams of a padded term, and
+    // swapping two adjacent letters at most four
+    private static final int TRIGRAMS_PER_EDIT = 4;
+
+    // Trigram -> terms containing it
+    private final Map<String, Set<String>> terms = new HashMap<>();
+
+    /**
+     * Returns how many edits a query term may be away from an indexed term and still match it.
+     * Short terms have to be spelled right, as a single edit already turns them into other words.
+     *
+     * @param length - The length of the query term.
+     * @return The number of insertions, deletions or substitutions allowed.
+     */
+    static int maxEdits(int length) {
+        if (length < 3) {
+            return 0;
+        }
+        if (length < 6) {
+            return 1;
+        }
+        return 2;
+    }
+
+    /** Pads a term and splits it into its distinct three-letter substrings. */
+    @Nonnull
+    static Set<String> trigrams(@Nonnull String term) {
+        var padded = START_PADDING + term + END_PADDING;
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Counts the insertions, deletions, substitutions and swaps of adjacent letters needed to
+     * turn one term into the other. Swapped letters are the most common typo, so they count as a
+     * single edit rather than two substitutions.
+     *
+     * @param a - The first term.
+     * @param b - The second term.
+     * @return The optimal string alignment distance between the terms.
+     */
+    static int editDistance(@Nonnull String a, @Nonnull String b) {
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] =
+                        Math.min(
+                                previous[j - 1] + substitution,
+                                Math.min(previous[j], current[j - 1]) + 1);
+                if (i > 1
+                        && j > 1
+                        && a.charAt(i - 1) == b.charAt(j - 2)
+                        && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                }
+            }
+            int[] reused = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = reused;
+        }
+        return previous[b.length()];
+    }
+
+    void add(@Nonnull String term) {
+        for (String trigram : trigrams(term)) {
+            terms.computeIfAbsent(trigram, key -> new HashSet<>()).add(term);
+        }
+    }
+
+    void remove(@Nonnull String term) {
+        for (String trigram : trigrams(term)) {
+            var containing = terms.get(trigram);
+            if (containing != null) {
+                containing.remove(term);
+                if (containing.isEmpty()) {
+                    terms.remove(trigram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the indexed terms within {@link #maxEdits} of the query term. Only terms sharing
+     * enough trigrams with the query term to be that close are compared with it.
+     *
+     * @param queryTerm - The normalized query term.
+     * @return The similar terms mapped to their similarity, from 1 for the same term towards 0.
+     */
+    @Nonnull
+    Map<String, Double> similar(@Nonnull String queryTerm) {
+        Map<String, Double> similar = new HashMap<>();
+        int maxEdits = maxEdits(queryTerm.length());
+        if (maxEdits == 0) {
+            return similar;
+        }
+
+        var queryTrigrams = trigrams(queryTerm);
+        Map<String, Integer> sharedTrigrams = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            for (String term : terms.getOrDefault(trigram, Set.of())) {
+                sharedTrigrams.merge(term, 1, Integer::sum);
+            }
+        }
+
+        int minShared = Math.max(1, queryTrigrams.size() - TRIGRAMS_PER_EDIT * maxEdits);
+        for (Map.Entry<String, Integer> candidate : sharedTrigrams.entrySet()) {
+            var term = candidate.getKey();
+            if (candidate.getValue() < minShared
+                    || Math.abs(term.length() - queryTerm.length()) > maxEdits) {
+                continue;
+            }
+            int distance = editDistance(queryTerm, term);
+            if (distance <= maxEdits) {
+                similar.put(
+                        term, 1 - (double) distance / Math.max(term.length(), queryTerm.length()));
+            }
+        }
+        return similar;
+    }
+}
@@ -0,0 +1,65 @@
+package edu.northeastern.cs5500.starterbot.service;
+
+import edu.northeastern.cs5500.starterbot.model.CompoundIndex;
+import edu.northeastern.cs5500.starterbot.model.Indexed;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import javax.annotation.Nonnull;
+import lombok.Value;
+
+/** An index declared on a model with {@link Indexed} or {@link CompoundIndex}. */
+@Value
+public class IndexDefinition {
+
+    // The indexed fields, in index order
+    @Nonnull List<String> fields;
+
+    // Whether the index enforces unique values
+    boolean unique;
+
+    /**
+     * Collects every index declared on the model class.
+     *
+     * @param modelClass - The model class to read the declarations from.
+     * @return The declared indexes, compound indexes first.
+     */
+    @Nonnull
+    public static List<IndexDefinition> forModel(@Nonnull Class<?> modelClass) {
+        List<IndexDefinition> definitions = new ArrayList<>();
+        for (CompoundIndex compoundIndex : modelClass.getAnnotationsByType(CompoundIndex.class)) {
+            definitions.add(
+                    new IndexDefinition(List.of(compoundIndex.fields()), compoundIndex.unique()));
+        }
+
+        for (Field field : modelClass.getDeclaredFields()) {
+            var indexed = field.getAnnotation(Indexed.class);
+            if (indexed != null) {
+                definitions.add(new IndexDefinition(List.of(field.getName()), indexed.unique()));
+            }
+        }
+        return definitions;
+    }
+
+    /**
+     * Checks whether MongoDB can use this index for an equality query on the given fields, which
+     * is the case when the query constrains the first field of the index.
+     *
+     * @param queriedFields - The fields the query filters on.
+     * @return Whether the index can serve the query.
+     */
+    public boolean supports(@Nonnull Collection<String> queriedFields) {
+        return queriedFields.contains(fields.get(0));
+    }
+
+    /**
+     * Returns the name MongoDB gives an ascending index over these fields.
+     *
+     * @return The index name, e.g. "guildId_1_discordUserId_1".
+     */
+    @Nonnull
+    public String getName() {
+        return String.join("_1_", fields) + "_1";
+    }
+}
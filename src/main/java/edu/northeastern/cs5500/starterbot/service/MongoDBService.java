@@ -5,13 +5,28 @@ import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
 
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import edu.northeastern.cs5500.starterbot.model.Guild;
+import edu.northeastern.cs5500.starterbot.model.GuildMembership;
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.model.MigrationRecord;
+import edu.northeastern.cs5500.starterbot.model.TextIndex;
+import edu.northeastern.cs5500.starterbot.model.User;
+import edu.northeastern.cs5500.starterbot.service.codec.ModelCodecProvider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.codecs.pojo.PojoCodecProvider;
 
@@ -28,14 +43,36 @@ public class MongoDBService implements Service {
         return "mongodb://localhost:27017/Stuff"; // connect to localhost by default
     }
 
+    // Models whose collections get the indexes they declare when the service registers
+    private static final List<Class<?>> INDEXED_MODELS =
+            List.of(
+                    Guild.class,
+                    GuildMembership.class,
+                    User.class,
+                    Listing.class,
+                    MigrationRecord.class);
+
     @Getter private MongoDatabase mongoDatabase;
 
+    /**
+     * Creates the codec registry used to convert models to and from BSON. Shared with the file
+     * backed repository so both store documents in the same format. The stored models use
+     * hand-written codecs; anything else falls back to the reflective POJO codec.
+     *
+     * @return The codec registry for the models.
+     */
+    @Nonnull
+    public static CodecRegistry createCodecRegistry() {
+        return fromRegistries(
+                MongoClientSettings.getDefaultCodecRegistry(),
+                fromProviders(
+                        new ModelCodecProvider(),
+                        PojoCodecProvider.builder().automatic(true).build()));
+    }
+
     @Inject
     public MongoDBService() {
-        CodecRegistry codecRegistry =
-                fromRegistries(
-                        MongoClientSettings.getDefaultCodecRegistry(),
-                        fromProviders(PojoCodecProvider.builder().automatic(true).build()));
+        CodecRegistry codecRegistry = createCodecRegistry();
 
         ConnectionString connectionString = new ConnectionString(getDatabaseURI());
 
@@ -52,5 +89,90 @@ public class MongoDBService implements Service {
     @Override
     public void register() {
         log.info("MongoDBService > register");
+
+        for (Class<?> modelClass : INDEXED_MODELS) {
+            ensureIndexes(modelClass);
+        }
+    }
+
+    /**
+     * Creates the indexes declared on the model in its collection. Creating an index that already
+     * exists is a no-op in MongoDB, so this is safe to run on every startup.
+     *
+     * @param modelClass - The model whose collection should be indexed.
+     */
+    void ensureIndexes(@Nonnull Class<?> modelClass) {
+        var collection = mongoDatabase.getCollection(modelClass.getName());
+
+        for (IndexDefinition definition : IndexDefinition.forModel(modelClass)) {
+            long start = System.nanoTime();
+            try {
+                collection.createIndex(
+                        Indexes.ascending(definition.getFields()),
+                        new IndexOptions().unique(definition.isUnique()));
+            } catch (MongoException e) {
+                // Most likely existing documents violate a unique constraint
+                log.error(
+                        "Unable to create index {} on {}",
+                        definition.getName(),
+                        modelClass.getSimpleName(),
+                        e);
+                continue;
+            }
+
+            log.info(
+                    "Index {} on {} ready in {} ms",
+                    definition.getName(),
+                    modelClass.getSimpleName(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+
+        var textIndex = modelClass.getAnnotation(TextIndex.class);
+        if (textIndex != null) {
+            ensureTextIndex(modelClass, textIndex);
+        }
+    }
+
+    /**
+     * Creates the text index declared on the model, with its prefix fields in front of the text.
+     *
+     * @param modelClass - The model whose collection should be indexed.
+     * @param textIndex - The text index declared on the model.
+     */
+    void ensureTextIndex(@Nonnull Class<?> modelClass, @Nonnull TextIndex textIndex) {
+        var collection = mongoDatabase.getCollection(modelClass.getName());
+
+        var keys = new Document();
+        for (String field : textIndex.prefixFields()) {
+            keys.put(field, 1);
+        }
+        List<String> textFields = List.of(textIndex.fields());
+        var weights = new Document();
+        for (int i = 0; i < textFields.size(); i++) {
+            keys.put(textFields.get(i), "text");
+            int weight = i < textIndex.weights().length ? textIndex.weights()[i] : 1;
+            weights.put(textFields.get(i), weight);
+        }
+
+        List<String> indexedFields = new ArrayList<>(List.of(textIndex.prefixFields()));
+        indexedFields.addAll(textFields);
+        long start = System.nanoTime();
+        try {
+            collection.createIndex(keys, new IndexOptions().weights(weights));
+        } catch (MongoException e) {
+            // Most likely the collection already has a text index over other fields
+            log.error(
+                    "Unable to create text index over {} on {}",
+                    indexedFields,
+                    modelClass.getSimpleName(),
+                    e);
+            return;
+        }
+
+        log.info(
+                "Text index over {} on {} ready in {} ms",
+                indexedFields,
+                modelClass.getSimpleName(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
     }
 }
@@ -0,0 +1,129 @@
+package edu.northeastern.cs5500.starterbot.service.codec;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * A codec that writes its class as a BSON document field by field, without the reflection of the
+ * POJO codec. Documents are laid out the way the POJO codec lays them out, so both can read what
+ * the other wrote: null fields are left out, and unknown fields are skipped when reading.
+ */
+abstract class DocumentCodec<T> implements Codec<T> {
+
+    /**
+     * Creates the empty object that decoded fields are set on.
+     *
+     * @return A new instance of the encoded class.
+     */
+    @Nonnull
+    abstract T newInstance();
+
+    /**
+     * Writes the fields of the value. The document is already started.
+     *
+     * @param writer - The writer to write to.
+     * @param value - The value to encode.
+     * @param encoderContext - The context for encoding nested documents.
+     */
+    abstract void encodeFields(
+            @Nonnull BsonWriter writer, @Nonnull T value, @Nonnull EncoderContext encoderContext);
+
+    /**
+     * Reads the value of one field into the object. The name has been read and the value is
+     * known not to be null.
+     *
+     * @param reader - The reader positioned at the value.
+     * @param name - The name of the field.
+     * @param value - The object being decoded.
+     * @param decoderContext - The context for decoding nested documents.
+     * @return Whether the field was read, false if the field is unknown and must be skipped.
+     */
+    abstract boolean decodeField(
+            @Nonnull BsonReader reader,
+            @Nonnull String name,
+            @Nonnull T value,
+            @Nonnull DecoderContext decoderContext);
+
+    @Override
+    public void encode(BsonWriter writer, T value, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        encodeFields(writer, value, encoderContext);
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public T decode(BsonReader reader, DecoderContext decoderContext) {
+        T value = newInstance();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            var name = reader.readName();
+            if (reader.getCurrentBsonType() == BsonType.NULL) {
+                // A null leaves the field unset, which is also null
+                reader.readNull();
+            } else if (!decodeField(reader, name, value, decoderContext)) {
+                reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return value;
+    }
+
+    static void writeString(
+            @Nonnull BsonWriter writer, @Nonnull String name, @Nullable String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+
+    static void writeStrings(
+            @Nonnull BsonWriter writer,
+            @Nonnull String name,
+            @Nullable Collection<String> values) {
+        if (values == null) {
+            return;
+        }
+        writer.writeStartArray(name);
+        for (String value : values) {
+            if (value == null) {
+                writer.writeNull();
+            } else {
+                writer.writeString(value);
+            }
+        }
+        writer.writeEndArray();
+    }
+
+    static long readLong(@Nonnull BsonReader reader) {
+        // Numbers written from the shell are doubles or 32-bit integers
+        return switch (reader.getCurrentBsonType()) {
+            case INT32 -> reader.readInt32();
+            case DOUBLE -> (long) reader.readDouble();
+            default -> reader.readInt64();
+        };
+    }
+
+    @Nonnull
+    static List<String> readStrings(@Nonnull BsonReader reader) {
+        List<String> values = new ArrayList<>();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (reader.getCurrentBsonType() == BsonType.NULL) {
+                reader.readNull();
+                values.add(null);
+            } else {
+                values.add(reader.readString());
+            }
+        }
+        reader.readEndArray();
+        return values;
+    }
+}
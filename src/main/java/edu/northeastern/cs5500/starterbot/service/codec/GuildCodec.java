@@ -0,0 +1,47 @@
+package edu.northeastern.cs5500.starterbot.service.codec;
+
+import edu.northeastern.cs5500.starterbot.model.Guild;
+import java.util.HashSet;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/** Encodes a Guild field by field. */
+class GuildCodec extends ModelCodec<Guild> {
+
+    @Override
+    public Class<Guild> getEncoderClass() {
+        return Guild.class;
+    }
+
+    @Override
+    Guild newInstance() {
+        return new Guild();
+    }
+
+    @Override
+    void encodeFields(BsonWriter writer, Guild value, EncoderContext encoderContext) {
+        writeId(writer, value);
+        writeString(writer, "guildId", value.getGuildId());
+        writeString(writer, "guildOwnerId", value.getGuildOwnerId());
+        writeString(writer, "tradingChannelId", value.getTradingChannelId());
+        writeStrings(writer, "usersOnServer", value.getUsersOnServer());
+    }
+
+    @Override
+    boolean decodeField(
+            BsonReader reader, String name, Guild value, DecoderContext decoderContext) {
+        switch (name) {
+            case ID_FIELD -> value.setId(reader.readObjectId());
+            case "guildId" -> value.setGuildId(reader.readString());
+            case "guildOwnerId" -> value.setGuildOwnerId(reader.readString());
+            case "tradingChannelId" -> value.setTradingChannelId(reader.readString());
+            case "usersOnServer" -> value.setUsersOnServer(new HashSet<>(readStrings(reader)));
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+}
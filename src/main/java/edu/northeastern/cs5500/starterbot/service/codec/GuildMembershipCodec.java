@@ -0,0 +1,45 @@
+package edu.northeastern.cs5500.starterbot.service.codec;
+
+import edu.northeastern.cs5500.starterbot.model.GuildMembership;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/** Encodes a GuildMembership field by field. */
+class GuildMembershipCodec extends ModelCodec<GuildMembership> {
+
+    @Override
+    public Class<GuildMembership> getEncoderClass() {
+        return GuildMembership.class;
+    }
+
+    @Override
+    GuildMembership newInstance() {
+        return new GuildMembership();
+    }
+
+    @Override
+    void encodeFields(BsonWriter writer, GuildMembership value, EncoderContext encoderContext) {
+        writeId(writer, value);
+        writeString(writer, "guildId", value.getGuildId());
+        writeString(writer, "discordUserId", value.getDiscordUserId());
+    }
+
+    @Override
+    boolean decodeField(
+            BsonReader reader,
+            String name,
+            GuildMembership value,
+            DecoderContext decoderContext) {
+        switch (name) {
+            case ID_FIELD -> value.setId(reader.readObjectId());
+            case "guildId" -> value.setGuildId(reader.readString());
+            case "discordUserId" -> value.setDiscordUserId(reader.readString());
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+}
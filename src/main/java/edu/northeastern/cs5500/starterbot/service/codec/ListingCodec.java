@@ -0,0 +1,74 @@
+package edu.northeastern.cs5500.starterbot.service.codec;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.model.ListingFields;
+import javax.annotation.Nonnull;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/** Encodes a Listing field by field, both in its own collection and nested in a User. */
+class ListingCodec extends ModelCodec<Listing> {
+    private final Codec<ListingFields> fieldsCodec;
+
+    ListingCodec(@Nonnull Codec<ListingFields> fieldsCodec) {
+        this.fieldsCodec = fieldsCodec;
+    }
+
+    @Override
+    public Class<Listing> getEncoderClass() {
+        return Listing.class;
+    }
+
+    @Override
+    Listing newInstance() {
+        return new Listing();
+    }
+
+    @Override
+    void encodeFields(BsonWriter writer, Listing value, EncoderContext encoderContext) {
+        writeId(writer, value);
+        var messageId = value.getMessageId();
+        if (messageId != null) {
+            writer.writeInt64("messageId", messageId);
+        }
+        writeString(writer, "discordUserId", value.getDiscordUserId());
+        writeString(writer, "guildId", value.getGuildId());
+        writeString(writer, "state", value.getState());
+        writeString(writer, "city", value.getCity());
+        // Derived from the city, so it is only written for queries and skipped when read
+        writeString(writer, "cityKey", value.getCityKey());
+        writeString(writer, "title", value.getTitle());
+        writeString(writer, "url", value.getUrl());
+        writeStrings(writer, "images", value.getImages());
+        var fields = value.getFields();
+        if (fields != null) {
+            writer.writeName("fields");
+            encoderContext.encodeWithChildContext(fieldsCodec, writer, fields);
+        }
+    }
+
+    @Override
+    boolean decodeField(
+            BsonReader reader, String name, Listing value, DecoderContext decoderContext) {
+        switch (name) {
+            case ID_FIELD -> value.setId(reader.readObjectId());
+            case "messageId" -> value.setMessageId(reader.readInt64());
+            case "discordUserId" -> value.setDiscordUserId(reader.readString());
+            case "guildId" -> value.setGuildId(reader.readString());
+            case "state" -> value.setState(reader.readString());
+            case "city" -> value.setCity(reader.readString());
+            case "title" -> value.setTitle(reader.readString());
+            case "url" -> value.setUrl(reader.readString());
+            case "images" -> value.setImages(readStrings(reader));
+            case "fields" ->
+                    value.setFields(decoderContext.decodeWithChildContext(fieldsCodec, reader));
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+}
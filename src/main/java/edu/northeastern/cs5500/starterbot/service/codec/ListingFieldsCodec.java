@@ -0,0 +1,62 @@
+package edu.northeastern.cs5500.starterbot.service.codec;
+
+import edu.northeastern.cs5500.starterbot.model.ListingFields;
+import java.time.Instant;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/** Encodes the ListingFields nested in a Listing field by field. */
+class ListingFieldsCodec extends DocumentCodec<ListingFields> {
+
+    @Override
+    public Class<ListingFields> getEncoderClass() {
+        return ListingFields.class;
+    }
+
+    @Override
+    ListingFields newInstance() {
+        return new ListingFields();
+    }
+
+    @Override
+    void encodeFields(BsonWriter writer, ListingFields value, EncoderContext encoderContext) {
+        writeString(writer, "cost", value.getCost());
+        var priceMinor = value.getPriceMinor();
+        if (priceMinor != null) {
+            writer.writeInt64("priceMinor", priceMinor);
+        }
+        writeString(writer, "currency", value.getCurrency());
+        var shippingIncluded = value.getShippingIncluded();
+        if (shippingIncluded != null) {
+            writer.writeBoolean("shippingIncluded", shippingIncluded);
+        }
+        writeString(writer, "condition", value.getCondition());
+        writeString(writer, "description", value.getDescription());
+        writeString(writer, "datePosted", value.getDatePosted());
+        var postedAt = value.getPostedAt();
+        if (postedAt != null) {
+            writer.writeDateTime("postedAt", postedAt.toEpochMilli());
+        }
+    }
+
+    @Override
+    boolean decodeField(
+            BsonReader reader, String name, ListingFields value, DecoderContext decoderContext) {
+        switch (name) {
+            case "cost" -> value.setCost(reader.readString());
+            case "priceMinor" -> value.setPriceMinor(readLong(reader));
+            case "currency" -> value.setCurrency(reader.readString());
+            case "shippingIncluded" -> value.setShippingIncluded(reader.readBoolean());
+            case "condition" -> value.setCondition(reader.readString());
+            case "description" -> value.setDescription(reader.readString());
+            case "datePosted" -> value.setDatePosted(reader.readString());
+            case "postedAt" -> value.setPostedAt(Instant.ofEpochMilli(reader.readDateTime()));
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+package edu.northeastern.cs5500.starterbot.service.codec;
+
+import edu.northeastern.cs5500.starterbot.model.MigrationRecord;
+import java.time.Instant;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/** Encodes a MigrationRecord field by field. */
+class MigrationRecordCodec extends ModelCodec<MigrationRecord> {
+
+    @Override
+    public Class<MigrationRecord> getEncoderClass() {
+        return MigrationRecord.class;
+    }
+
+    @Override
+    MigrationRecord newInstance() {
+        return new MigrationRecord();
+    }
+
+    @Override
+    void encodeFields(BsonWriter writer, MigrationRecord value, EncoderContext encoderContext) {
+        writeId(writer, value);
+        writeString(writer, "name", value.getName());
+        var completedAt = value.getCompletedAt();
+        if (completedAt != null) {
+            writer.writeDateTime("completedAt", completedAt.toEpochMilli());
+        }
+    }
+
+    @Override
+    boolean decodeField(
+            BsonReader reader,
+            String name,
+            MigrationRecord value,
+            DecoderContext decoderContext) {
+        switch (name) {
+            case ID_FIELD -> value.setId(reader.readObjectId());
+            case "name" -> value.setName(reader.readString());
+            case "completedAt" -> value.setCompletedAt(Instant.ofEpochMilli(reader.readDateTime()));
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+}
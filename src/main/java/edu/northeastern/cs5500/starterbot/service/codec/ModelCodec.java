@@ -0,0 +1,52 @@
+package edu.northeastern.cs5500.starterbot.service.codec;
+
+import edu.northeastern.cs5500.starterbot.model.Model;
+import javax.annotation.Nonnull;
+import org.bson.BsonObjectId;
+import org.bson.BsonValue;
+import org.bson.BsonWriter;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.types.ObjectId;
+
+/**
+ * A document codec for a model stored in its own collection. It gives the driver access to the
+ * _id, so inserting a model without one generates it like the POJO codec does.
+ */
+abstract class ModelCodec<T extends Model> extends DocumentCodec<T>
+        implements CollectibleCodec<T> {
+    static final String ID_FIELD = "_id";
+
+    @Override
+    public T generateIdIfAbsentFromDocument(T document) {
+        if (!documentHasId(document)) {
+            document.setId(new ObjectId());
+        }
+        return document;
+    }
+
+    @Override
+    public boolean documentHasId(T document) {
+        return document.getId() != null;
+    }
+
+    @Override
+    public BsonValue getDocumentId(T document) {
+        if (!documentHasId(document)) {
+            throw new IllegalStateException("The document does not contain an _id");
+        }
+        return new BsonObjectId(document.getId());
+    }
+
+    /**
+     * Writes the _id first, as the POJO codec does, if the model has one.
+     *
+     * @param writer - The writer to write to.
+     * @param value - The model being encoded.
+     */
+    static void writeId(@Nonnull BsonWriter writer, @Nonnull Model value) {
+        var id = value.getId();
+        if (id != null) {
+            writer.writeObjectId(ID_FIELD, id);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package edu.northeastern.cs5500.starterbot.service.codec;
+
+import edu.northeastern.cs5500.starterbot.model.Guild;
+import edu.northeastern.cs5500.starterbot.model.GuildMembership;
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.model.ListingFields;
+import edu.northeastern.cs5500.starterbot.model.MigrationRecord;
+import edu.northeastern.cs5500.starterbot.model.User;
+import java.util.Map;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+
+/**
+ * Provides the hand-written codecs of the stored models. Registered ahead of the automatic POJO
+ * provider, which still handles every other class, such as the views. A field added to one of
+ * these models has to be added to its codec as well, or it is silently not stored.
+ */
+public class ModelCodecProvider implements CodecProvider {
+    private final Map<Class<?>, Codec<?>> codecs;
+
+    public ModelCodecProvider() {
+        var listingFieldsCodec = new ListingFieldsCodec();
+        var listingCodec = new ListingCodec(listingFieldsCodec);
+        codecs =
+                Map.of(
+                        Guild.class, new GuildCodec(),
+                        GuildMembership.class, new GuildMembershipCodec(),
+                        User.class, new UserCodec(listingCodec),
+                        Listing.class, listingCodec,
+                        ListingFields.class, listingFieldsCodec,
+                        MigrationRecord.class, new MigrationRecordCodec());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Codec<T> get(Class<T> clazz, CodecRegistry registry) {
+        return (Codec<T>) codecs.get(clazz);
+    }
+}
@@ -0,0 +1,62 @@
+package edu.northeastern.cs5500.starterbot.service.codec;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.model.User;
+import javax.annotation.Nonnull;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/** Encodes a User field by field, including the listing draft nested in it. */
+class UserCodec extends ModelCodec<User> {
+    private final Codec<Listing> listingCodec;
+
+    UserCodec(@Nonnull Codec<Listing> listingCodec) {
+        this.listingCodec = listingCodec;
+    }
+
+    @Override
+    public Class<User> getEncoderClass() {
+        return User.class;
+    }
+
+    @Override
+    User newInstance() {
+        return new User();
+    }
+
+    @Override
+    void encodeFields(BsonWriter writer, User value, EncoderContext encoderContext) {
+        writeId(writer, value);
+        writeString(writer, "discordUserId", value.getDiscordUserId());
+        writeString(writer, "stateOfResidence", value.getStateOfResidence());
+        writeString(writer, "cityOfResidence", value.getCityOfResidence());
+        var currentListing = value.getCurrentListing();
+        if (currentListing != null) {
+            writer.writeName("currentListing");
+            encoderContext.encodeWithChildContext(listingCodec, writer, currentListing);
+        }
+        writer.writeInt64("version", value.getVersion());
+    }
+
+    @Override
+    boolean decodeField(BsonReader reader, String name, User value, DecoderContext decoderContext) {
+        switch (name) {
+            case ID_FIELD -> value.setId(reader.readObjectId());
+            case "discordUserId" -> value.setDiscordUserId(reader.readString());
+            case "stateOfResidence" -> value.setStateOfResidence(reader.readString());
+            case "cityOfResidence" -> value.setCityOfResidence(reader.readString());
+            case "currentListing" -> {
+                var currentListing = decoderContext.decodeWithChildContext(listingCodec, reader);
+                value.setCurrentListing(currentListing);
+            }
+            case "version" -> value.setVersion(readLong(reader));
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -2,9 +2,12 @@ package edu.northeastern.cs5500.starterbot.controller;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import edu.northeastern.cs5500.starterbot.model.GuildMembership;
 import edu.northeastern.cs5500.starterbot.repository.InMemoryRepository;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -14,7 +17,7 @@ public class GuildControllerTest {
     GuildController guildController;
 
     private GuildController getGuildController() {
-        return new GuildController(new InMemoryRepository<>());
+        return new GuildController(new InMemoryRepository<>(), new InMemoryRepository<>());
     }
 
     @BeforeEach
@@ -120,22 +123,18 @@ public class GuildControllerTest {
         var guildId = "12345";
         var userToAdd = "testUser1";
 
-        // Create a new guild object
-        var guild = guildController.getGuildByGuildId(guildId);
-
-        // Check that List of users is empty when the guild is first created
-        assertThat(guild.getUsersOnServer()).isNotNull();
-        assertThat(guild.getUsersOnServer().size()).isEqualTo(0);
+        // Check that there are no members when the guild is first created
+        guildController.getGuildByGuildId(guildId);
+        assertThat(guildController.getMemberIdsInGuild(guildId)).isEmpty();
 
-        // Add a user to the guild and check that size of set increases
+        // Add a user to the guild and check that the number of members increases
         guildController.addUserToServer(guildId, userToAdd);
-        assertThat(guild.getUsersOnServer().size()).isEqualTo(1);
-        assertThat(guild.getUsersOnServer().contains(userToAdd)).isEqualTo(true);
+        assertThat(guildController.getMemberIdsInGuild(guildId)).containsExactly(userToAdd);
+        assertThat(guildController.verifyUserInGuild(guildId, userToAdd)).isTrue();
 
-        // Check that a user cannot be added twice to the set of users
+        // Check that a user cannot be added twice to the guild
         guildController.addUserToServer(guildId, userToAdd);
-        assertThat(guild.getUsersOnServer().size()).isEqualTo(1);
-        assertThat(guild.getUsersOnServer().contains(userToAdd)).isEqualTo(true);
+        assertThat(guildController.getMemberIdsInGuild(guildId)).containsExactly(userToAdd);
     }
 
     @Test
@@ -149,17 +148,41 @@ public class GuildControllerTest {
         listOfUserIdsToAdd.add("testUser3");
         listOfUserIdsToAdd.add("testUser4");
 
-        // Create a new guild object
-        var guild = guildController.getGuildByGuildId(guildId);
-
-        // Check that List of users is empty when the guild is first created
-        assertThat(guild.getUsersOnServer()).isNotNull();
-        assertThat(guild.getUsersOnServer().size()).isEqualTo(0);
+        // Check that there are no members when the guild is first created
+        guildController.getGuildByGuildId(guildId);
+        assertThat(guildController.getMemberIdsInGuild(guildId)).isEmpty();
 
-        // Add a user to the guild and check that size of set increases
+        // Add the users to the guild, one of them already being a member
+        guildController.addUserToServer(guildId, listOfUserIdsToAdd.get(0));
         guildController.addAllCurrentUsersToServer(guildId, listOfUserIdsToAdd);
-        assertThat(guild.getUsersOnServer().size()).isEqualTo(listOfUserIdsToAdd.size());
-        assertThat(guild.getUsersOnServer().contains(listOfUserIdsToAdd.get(0))).isEqualTo(true);
+        assertThat(guildController.getMemberIdsInGuild(guildId))
+                .containsExactlyElementsIn(listOfUserIdsToAdd);
+    }
+
+    @Test
+    void testAMemberWhoJoinsWhileTheMembersAreAddedIsStoredOnce() {
+        var guildId = "12345";
+        var memberships =
+                new InMemoryRepository<GuildMembership>() {
+                    boolean joined;
+
+                    @Override
+                    public List<GuildMembership> findMany(String field, Object value) {
+                        var members = super.findMany(field, value);
+                        // The member's join event is handled right after the members were read
+                        if (!joined) {
+                            joined = true;
+                            add(new GuildMembership(null, guildId, "testUser1"));
+                        }
+                        return members;
+                    }
+                };
+        guildController = new GuildController(new InMemoryRepository<>(), memberships);
+
+        guildController.addAllCurrentUsersToServer(guildId, List.of("testUser1", "testUser2"));
+
+        assertThat(guildController.getMemberIdsInGuild(guildId))
+                .containsExactly("testUser1", "testUser2");
     }
 
     @Test
@@ -168,30 +191,17 @@ public class GuildControllerTest {
         var guildId = "12345";
         var userToAddThenRemove = "testUser1";
 
-        // Create a new guild object
-        var guild = guildController.getGuildByGuildId(guildId);
-
-        // Check that List of users is empty when the guild is first created
-        assertThat(guild.getUsersOnServer()).isNotNull();
-        assertThat(guild.getUsersOnServer().size()).isEqualTo(0);
-
-        // Add a user to the guild and check that size of set increases
+        // Add a user to the guild and check that it is a member
         guildController.addUserToServer(guildId, userToAddThenRemove);
-        assertThat(guild.getUsersOnServer().size()).isEqualTo(1);
-        assertThat(guild.getUsersOnServer().contains(userToAddThenRemove)).isEqualTo(true);
         assertThat(guildController.verifyUserInGuild(guildId, userToAddThenRemove)).isTrue();
-        ;
 
-        // Remove the user and check that the size of the set decreases
+        // Remove the user and check that it is no longer a member
         assertThat(guildController.removeUserInServer(guildId, userToAddThenRemove)).isTrue();
-        ;
-        assertThat(guild.getUsersOnServer().size()).isEqualTo(0);
+        assertThat(guildController.getMemberIdsInGuild(guildId)).isEmpty();
         assertThat(guildController.verifyUserInGuild(guildId, userToAddThenRemove)).isFalse();
-        ;
 
-        // Attempt to remove a user not in the set
+        // Attempt to remove a user not in the guild
         assertThat(guildController.removeUserInServer(guildId, userToAddThenRemove)).isFalse();
-        ;
     }
 
     @Test
@@ -203,47 +213,66 @@ public class GuildControllerTest {
         // Define user that will be added and removed
         var userToAddThenRemove = "testUser1";
 
-        // Create the new guild objects
-        var guildOne = guildController.getGuildByGuildId(firstGuildId);
-        var guildTwo = guildController.getGuildByGuildId(secondGuildId);
-
-        // Confirm that the user does not exist in either guild
-        assertThat(guildOne.getUsersOnServer().size()).isEqualTo(0);
-        assertThat(guildTwo.getUsersOnServer().size()).isEqualTo(0);
-
         // Add a user to each guild
         guildController.addUserToServer(firstGuildId, userToAddThenRemove);
         guildController.addUserToServer(secondGuildId, userToAddThenRemove);
-
-        // Confirm user was added to guild one
-        assertThat(guildOne.getUsersOnServer().size()).isEqualTo(1);
-        assertThat(guildOne.getUsersOnServer().contains(userToAddThenRemove)).isEqualTo(true);
-
-        // Confirm user was added to guild two
-        assertThat(guildTwo.getUsersOnServer().size()).isEqualTo(1);
-        assertThat(guildTwo.getUsersOnServer().contains(userToAddThenRemove)).isEqualTo(true);
+        assertThat(guildController.verifyUserInGuild(firstGuildId, userToAddThenRemove)).isTrue();
+        assertThat(guildController.verifyUserInGuild(secondGuildId, userToAddThenRemove)).isTrue();
 
         // Remove the user from guild one and confirm removal
         assertThat(guildController.removeUserInServer(firstGuildId, userToAddThenRemove)).isTrue();
-        ;
-        assertThat(guildOne.getUsersOnServer().size()).isEqualTo(0);
+        assertThat(guildController.verifyUserInGuild(firstGuildId, userToAddThenRemove)).isFalse();
 
         // Confirm that the user still exists in guild two
         assertThat(guildController.verifyUserNoLongerExistsInAnyGuild(userToAddThenRemove))
                 .isFalse();
-        ;
-        assertThat(guildTwo.getUsersOnServer().contains(userToAddThenRemove)).isTrue();
-        ;
+        assertThat(guildController.verifyUserInGuild(secondGuildId, userToAddThenRemove)).isTrue();
 
         // Remove the user from guild two and confirm removal
-        assertThat(guildController.removeUserInServer(secondGuildId, userToAddThenRemove)).isTrue();
-        ;
-        assertThat(guildTwo.getUsersOnServer().size()).isEqualTo(0);
+        assertThat(guildController.removeUserInServer(secondGuildId, userToAddThenRemove))
+                .isTrue();
 
         // Confirm user now no longer exists in any guild
         assertThat(guildController.verifyUserNoLongerExistsInAnyGuild(userToAddThenRemove))
                 .isTrue();
-        ;
+    }
+
+    @Test
+    void testRemoveAllMembersInGuildOnlyRemovesThatGuild() {
+        var guildId = "12345";
+        var otherGuildId = "54321";
+
+        // One user is in both guilds, the other only in the first
+        guildController.addUserToServer(guildId, "testUser1");
+        guildController.addUserToServer(guildId, "testUser2");
+        guildController.addUserToServer(otherGuildId, "testUser1");
+
+        assertThat(guildController.removeAllMembersInGuild(guildId))
+                .containsExactly("testUser1", "testUser2");
+        assertThat(guildController.getMemberIdsInGuild(guildId)).isEmpty();
+
+        // Only the user that is still in another guild exists after the removal
+        assertThat(guildController.verifyUserNoLongerExistsInAnyGuild("testUser1")).isFalse();
+        assertThat(guildController.verifyUserNoLongerExistsInAnyGuild("testUser2")).isTrue();
+    }
+
+    @Test
+    void testAMemberWhoJoinsWhileTheMembersAreRemovedIsKept() {
+        var guildId = "12345";
+        var memberships =
+                new InMemoryRepository<GuildMembership>() {
+                    @Override
+                    public void deleteAll(Collection<ObjectId> ids) {
+                        // The member's join event is handled right after the members were read
+                        add(new GuildMembership(null, guildId, "testUser2"));
+                        super.deleteAll(ids);
+                    }
+                };
+        guildController = new GuildController(new InMemoryRepository<>(), memberships);
+        guildController.addUserToServer(guildId, "testUser1");
+
+        assertThat(guildController.removeAllMembersInGuild(guildId)).containsExactly("testUser1");
+        assertThat(guildController.getMemberIdsInGuild(guildId)).containsExactly("testUser2");
     }
 
     @Test
@@ -261,8 +290,10 @@ public class GuildControllerTest {
         // Check that trying to remove a guild not in the collection returns false
         assertThat(guildController.removeGuildByGuildId(fakeGuildId)).isFalse();
 
-        // Remove the guild from the collection
+        // Remove the guild from the collection along with its members
+        guildController.addUserToServer(guildId, "testUser1");
         assertThat(guildController.removeGuildByGuildId(guildId)).isTrue();
         assertThat(guildController.getSizeGuildCollection()).isEqualTo(0);
+        assertThat(guildController.verifyUserNoLongerExistsInAnyGuild("testUser1")).isTrue();
     }
 }
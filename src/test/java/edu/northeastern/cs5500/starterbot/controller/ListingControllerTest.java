@@ -4,13 +4,18 @@ import static com.google.common.truth.Truth.assertThat;
 
 import edu.northeastern.cs5500.starterbot.model.Listing;
 import edu.northeastern.cs5500.starterbot.model.ListingFields;
+import edu.northeastern.cs5500.starterbot.repository.ExecutorAsyncRepository;
 import edu.northeastern.cs5500.starterbot.repository.InMemoryRepository;
+import edu.northeastern.cs5500.starterbot.search.ListingSearchIndex;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,6 +34,7 @@ class ListingControllerTest {
     ListingFields LISTING_FIELDS;
     Listing TEST_LISTING;
     ListingController listingController;
+    ExecutorService pool = Executors.newSingleThreadExecutor();
 
     @BeforeAll
     void createListing() {
@@ -56,10 +62,20 @@ class ListingControllerTest {
                         .build();
     }
 
+    @AfterAll
+    void shutdownPool() {
+        pool.shutdown();
+    }
+
     @BeforeEach
     void getListingController() {
         // setup
-        listingController = new ListingController(new InMemoryRepository<>());
+        var repository = new InMemoryRepository<Listing>();
+        listingController =
+                new ListingController(
+                        repository,
+                        new ExecutorAsyncRepository<>(repository, pool),
+                        new ListingSearchIndex(repository, pool));
     }
 
     @Test
@@ -201,4 +217,82 @@ class ListingControllerTest {
         ;
         assertThat(listingController.getListingsByMemberId(USER_ID, GUILD_ID)).isNotEmpty();
     }
+
+    @Test
+    void testDeleteListingsInGuildOnlyDeletesThatGuild() {
+        // setup
+        for (int i = 0; i < 3; i++) {
+            listingController.addListing(
+                    Listing.builder()
+                            .discordUserId(USER_ID)
+                            .guildId(GUILD_ID)
+                            .title(TITLE + i)
+                            .url(URL)
+                            .images(IMAGES)
+                            .fields(LISTING_FIELDS)
+                            .build());
+        }
+        listingController.addListing(
+                Listing.builder()
+                        .discordUserId(USER_ID)
+                        .guildId("other guild")
+                        .title(TITLE)
+                        .url(URL)
+                        .images(IMAGES)
+                        .fields(LISTING_FIELDS)
+                        .build());
+
+        // precondition
+        assertThat(listingController.getListingsWithKeyword(TITLE, GUILD_ID)).hasSize(3);
+
+        // mutation
+        assertThat(listingController.deleteListingsInGuild(GUILD_ID)).isEqualTo(3);
+
+        // post
+        assertThat(listingController.getListingsInGuild(GUILD_ID)).isEmpty();
+        assertThat(listingController.getListingsInGuild("other guild")).hasSize(1);
+        assertThat(listingController.getListingsWithKeyword(TITLE, GUILD_ID)).isEmpty();
+    }
+
+    private Listing addListingTitled(String title) {
+        var listing =
+                Listing.builder()
+                        .discordUserId(USER_ID)
+                        .guildId(GUILD_ID)
+                        .title(title)
+                        .url(URL)
+                        .images(IMAGES)
+                        .fields(
+                                ListingFields.builder()
+                                        .cost("123")
+                                        .description("test description")
+                                        .shippingIncluded(false)
+                                        .condition("Good")
+                                        .datePosted("test date")
+                                        .build())
+                        .build();
+        listingController.addListing(listing);
+        return listing;
+    }
+
+    @Test
+    void testGetListingsByMemberIdAsyncReturnsOnePageAtATime() {
+        // setup
+        var first = addListingTitled("first");
+        var second = addListingTitled("second");
+        var third = addListingTitled("third");
+
+        // mutation
+        var firstPage =
+                listingController.getListingsByMemberIdAsync(USER_ID, GUILD_ID, 0, 2).join();
+        var lastPage =
+                listingController.getListingsByMemberIdAsync(USER_ID, GUILD_ID, 2, 2).join();
+
+        // post
+        assertThat(firstPage.getListings()).containsExactly(first, second).inOrder();
+        assertThat(firstPage.getTotalEstimate()).isEqualTo(3);
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(lastPage.getListings()).containsExactly(third);
+        assertThat(lastPage.hasNext()).isFalse();
+    }
 }
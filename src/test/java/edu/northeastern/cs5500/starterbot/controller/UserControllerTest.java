@@ -4,11 +4,18 @@ import static com.google.common.truth.Truth.assertThat;
 
 import edu.northeastern.cs5500.starterbot.model.Listing;
 import edu.northeastern.cs5500.starterbot.model.ListingFields;
+import edu.northeastern.cs5500.starterbot.model.User;
 import edu.northeastern.cs5500.starterbot.repository.InMemoryRepository;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.Test;
 
 @SuppressWarnings("null")
@@ -113,6 +120,28 @@ public class UserControllerTest {
         assertThat(userController.getUserForMemberId(GUILD_ID_2)).isNotEqualTo(testUser1);
     }
 
+    @Test
+    void testConcurrentFirstInteractionsCreateOneUser() throws Exception {
+        var threads = 8;
+        var executor = Executors.newFixedThreadPool(threads);
+        List<Future<User>> users = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                users.add(executor.submit(() -> userController.getUserForMemberId(DISCORD_ID_1)));
+            }
+
+            Set<ObjectId> ids = new HashSet<>();
+            for (Future<User> user : users) {
+                ids.add(user.get(30, TimeUnit.SECONDS).getId());
+            }
+            assertThat(ids).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(userController.getSizeUserCollection()).isEqualTo(1);
+    }
+
     @Test
     void testRemoveUserByMemberIdRemovesUserCorrectly() {
         // First check user collection is empty to start
@@ -144,4 +173,16 @@ public class UserControllerTest {
         userController.removeUserByMemberId(DISCORD_ID_2);
         assertThat(userController.getSizeUserCollection()).isEqualTo(1);
     }
+
+    @Test
+    void testRemoveUsersByMemberIdsOnlyRemovesThoseUsers() {
+        userController.getUserForMemberId(DISCORD_ID_1);
+        userController.getUserForMemberId(DISCORD_ID_2);
+
+        // Ids without a user are skipped
+        assertThat(userController.removeUsersByMemberIds(List.of(DISCORD_ID_1, "missing")))
+                .isEqualTo(1);
+        assertThat(userController.getSizeUserCollection()).isEqualTo(1);
+        assertThat(userController.removeUserByMemberId(DISCORD_ID_2)).isTrue();
+    }
 }
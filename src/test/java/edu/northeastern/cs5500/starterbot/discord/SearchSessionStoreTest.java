@@ -0,0 +1,53 @@
+package edu.northeastern.cs5500.starterbot.discord;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import edu.northeastern.cs5500.starterbot.search.ListingPage;
+import edu.northeastern.cs5500.starterbot.search.LocationFilter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+class SearchSessionStoreTest {
+
+    @Test
+    void testOpenedSessionsAreFoundByTheirId() {
+        // setup
+        var store = new SearchSessionStore();
+        var session =
+                new SearchSession(
+                        "user",
+                        "title",
+                        (offset, limit) ->
+                                CompletableFuture.completedFuture(
+                                        new ListingPage(List.of(), offset, 0, false)),
+                        null);
+        var otherSession = new SearchSession("other user", "title", session.getPageLoader(), null);
+
+        // mutation
+        var sessionId = store.open(session);
+        var otherSessionId = store.open(otherSession);
+
+        // post
+        assertThat(sessionId).isNotEqualTo(otherSessionId);
+        assertThat(store.get(sessionId)).isSameInstanceAs(session);
+        assertThat(store.get(otherSessionId)).isSameInstanceAs(otherSession);
+        assertThat(store.get("unknown")).isNull();
+    }
+
+    @Test
+    void testPendingSearchesAreFoundByTheirId() {
+        // setup
+        var store = new SearchSessionStore();
+        var search = new PendingSearch("user", "guild", "bike", LocationFilter.ANYWHERE);
+
+        // mutation
+        var searchId = store.openPendingSearch(search);
+
+        // post
+        assertThat(store.getPendingSearch(searchId)).isSameInstanceAs(search);
+        assertThat(store.get(searchId)).isNull();
+        assertThat(store.getPendingSearch("unknown")).isNull();
+    }
+}
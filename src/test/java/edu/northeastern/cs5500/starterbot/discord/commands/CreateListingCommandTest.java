@@ -5,7 +5,9 @@ import static com.google.common.truth.Truth.assertThat;
 import edu.northeastern.cs5500.starterbot.discord.MessageBuilderHelper;
 import edu.northeastern.cs5500.starterbot.model.Listing;
 import edu.northeastern.cs5500.starterbot.model.ListingFields;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -20,7 +22,9 @@ public class CreateListingCommandTest {
     static final boolean SHIPPING_INCLUDED = false;
     static final String CONDITION = "very good";
     static final String DESCRIPTION = "test description";
-    static final String TITLE = "[Seattle, WA]test title";
+    static final String TITLE = "test title";
+    static final String STATE = "WA";
+    static final String CITY = "Seattle";
     static final String GUILD_ID = "12345";
     static final String USER_ID = "11223344";
     static final String URL =
@@ -42,7 +46,13 @@ public class CreateListingCommandTest {
 
         listingObjectOne =
                 createListingCommand.buildListing(
-                        TITLE, GUILD_ID, USER_ID, LIST_IMAGE_URLS, listingFieldsObjectOne);
+                        TITLE,
+                        GUILD_ID,
+                        USER_ID,
+                        STATE,
+                        CITY,
+                        LIST_IMAGE_URLS,
+                        listingFieldsObjectOne);
     }
 
     @Test
@@ -79,7 +89,7 @@ public class CreateListingCommandTest {
         // Build duplicate copy of listing object one
         var listingObjectTwo =
                 createListingCommand.buildListing(
-                        TITLE, GUILD_ID, USER_ID, LIST_IMAGE_URLS, listingFields);
+                        TITLE, GUILD_ID, USER_ID, STATE, CITY, LIST_IMAGE_URLS, listingFields);
 
         // Check both objects are not null
         assertThat(listingObjectOne).isNotNull();
@@ -91,6 +101,11 @@ public class CreateListingCommandTest {
         // Check shipping included and condition return what we expect, assume rest do also
         assertThat(listingObjectOne.getFields()).isEqualTo(listingFields);
         assertThat(listingObjectOne.getDiscordUserId()).isEqualTo(USER_ID);
+
+        // Check the location is stored on its own rather than in the title
+        assertThat(listingObjectOne.getTitle()).isEqualTo(TITLE);
+        assertThat(listingObjectOne.getState()).isEqualTo(STATE);
+        assertThat(listingObjectOne.getCity()).isEqualTo(CITY);
     }
 
     @Test
@@ -118,8 +133,9 @@ public class CreateListingCommandTest {
     @Test
     void testGetDatePostedReturnsTheCorrectDateTime() {
         var dateTimeFormatter = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss");
-        var currentdateTime = LocalDateTime.now();
-        assertThat(createListingCommand.getDatePosted())
+        var postedAt = Instant.now();
+        var currentdateTime = LocalDateTime.ofInstant(postedAt, ZoneId.systemDefault());
+        assertThat(createListingCommand.getDatePosted(postedAt))
                 .isEqualTo(dateTimeFormatter.format(currentdateTime));
     }
 
@@ -131,19 +147,12 @@ public class CreateListingCommandTest {
     @Test
     void testCreateListingCommandAsString() {
         var costReformatted = listingFieldsObjectOne.getCost().replace("USD", "");
-        var titleReformatted = listingObjectOne.getTitle();
-
-        if (titleReformatted.contains("]")) {
-            titleReformatted = titleReformatted.split("]")[1];
-        }
-
-        assertThat(titleReformatted).isEqualTo("test title");
 
         var listingAsString =
                 Objects.requireNonNull(
                         String.format(
                                 "/createlisting title: %s item_cost: %s shipping_included: %s description: %s condition: %s",
-                                titleReformatted,
+                                TITLE,
                                 costReformatted,
                                 listingFieldsObjectOne.getShippingIncluded(),
                                 listingFieldsObjectOne.getDescription(),
@@ -151,14 +160,17 @@ public class CreateListingCommandTest {
         assertThat(createListingCommand.createListingCommandAsString(listingObjectOne))
                 .isEqualTo(listingAsString);
 
+        // Brackets typed by the user are part of the title
         var listingObjectTwo =
                 createListingCommand.buildListing(
-                        "test title", GUILD_ID, USER_ID, LIST_IMAGE_URLS, listingFieldsObjectOne);
-        titleReformatted = listingObjectTwo.getTitle();
-
-        if (titleReformatted.contains("]")) {
-            titleReformatted = titleReformatted.split("]")[1];
-        }
-        assertThat(titleReformatted).isEqualTo("test title");
+                        "[Mint] test title",
+                        GUILD_ID,
+                        USER_ID,
+                        null,
+                        null,
+                        LIST_IMAGE_URLS,
+                        listingFieldsObjectOne);
+        assertThat(createListingCommand.createListingCommandAsString(listingObjectTwo))
+                .startsWith("/createlisting title: [Mint] test title item_cost:");
     }
 }
@@ -0,0 +1,39 @@
+package edu.northeastern.cs5500.starterbot.discord.commands;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import edu.northeastern.cs5500.starterbot.discord.PendingSearch;
+import edu.northeastern.cs5500.starterbot.discord.SearchSessionStore;
+import edu.northeastern.cs5500.starterbot.search.LocationFilter;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+public class SearchListingsCommandTest {
+
+    @Test
+    void testGetCommandName() {
+        assertThat(new SearchListingsCommand().getName()).isEqualTo("searchlistings");
+    }
+
+    @Test
+    void testStatesAreReadByAbbreviationOrFullName() {
+        assertThat(SearchListingsCommand.toStateAbbreviation("WA")).isEqualTo("WA");
+        assertThat(SearchListingsCommand.toStateAbbreviation(" wa ")).isEqualTo("WA");
+        assertThat(SearchListingsCommand.toStateAbbreviation("new york")).isEqualTo("NY");
+        assertThat(SearchListingsCommand.toStateAbbreviation("Atlantis")).isNull();
+        assertThat(SearchListingsCommand.toStateAbbreviation("")).isNull();
+    }
+
+    @Test
+    void testMenuIdsOnlyCarryTheSearchIdAndStayWithinDiscordsLimit() {
+        var search =
+                new PendingSearch(
+                        "user", "294764645159495548", "a".repeat(200), LocationFilter.ANYWHERE);
+        var searchId = new SearchSessionStore().openPendingSearch(search);
+
+        var menuId = new SearchListingsCommand().createMenuId("SortOption", searchId, "NoChoice");
+
+        assertThat(menuId).isEqualTo("searchlistings:SortOption:" + searchId + ":NoChoice");
+        assertThat(menuId.length()).isAtMost(100);
+    }
+}
@@ -0,0 +1,42 @@
+package edu.northeastern.cs5500.starterbot.migration;
+
+import static com.google.common.truth.Truth.assertThat;
+import static edu.northeastern.cs5500.starterbot.model.TestListings.createListing;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.repository.InMemoryRepository;
+import edu.northeastern.cs5500.starterbot.search.LocationFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+public class ListingCityKeyMigrationTest {
+
+    InMemoryRepository<Listing> listingRepository;
+    ListingCityKeyMigration migration;
+
+    @BeforeEach
+    void initializeMigration() {
+        listingRepository = new InMemoryRepository<>();
+        migration = new ListingCityKeyMigration(listingRepository);
+    }
+
+    private Listing createListingIn(String state, String city) {
+        var listing = createListing("12345", "Bike", "A bike");
+        listing.setState(state);
+        listing.setCity(city);
+        return listingRepository.add(listing);
+    }
+
+    @Test
+    void testListingsAreFoundByTheirCityInAnyCase() {
+        var seattle = createListingIn("WA", "Seattle");
+        createListingIn("WA", "Spokane");
+        createListingIn(null, null);
+
+        migration.migrate();
+
+        assertThat(listingRepository.findMany(new LocationFilter("WA", "SEATTLE").toFilter()))
+                .containsExactly(seattle);
+    }
+}
@@ -0,0 +1,115 @@
+package edu.northeastern.cs5500.starterbot.migration;
+
+import static com.google.common.truth.Truth.assertThat;
+import static edu.northeastern.cs5500.starterbot.model.TestListings.createListing;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.repository.InMemoryRepository;
+import edu.northeastern.cs5500.starterbot.search.ListingSearchIndex;
+import edu.northeastern.cs5500.starterbot.search.ListingSort;
+import edu.northeastern.cs5500.starterbot.search.LocationFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+public class ListingLocationMigrationTest {
+
+    InMemoryRepository<Listing> listingRepository;
+    ListingSearchIndex listingSearch;
+    ListingLocationMigration migration;
+
+    @BeforeEach
+    void initializeMigration() {
+        listingRepository = new InMemoryRepository<>();
+        listingSearch = new ListingSearchIndex(listingRepository, Runnable::run);
+        migration = new ListingLocationMigration(listingRepository, listingSearch);
+    }
+
+    private Listing createLegacyListing(String title) {
+        return listingRepository.add(createListing("12345", title, "A bike"));
+    }
+
+    @Test
+    void testLocationIsMovedOutOfTheTitle() {
+        var listing = createLegacyListing("[San Francisco, CA]Bike [56cm]");
+
+        migration.migrate();
+
+        var migrated = listingRepository.get(listing.getId());
+        assertThat(migrated.getTitle()).isEqualTo("Bike [56cm]");
+        assertThat(migrated.getState()).isEqualTo("CA");
+        assertThat(migrated.getCity()).isEqualTo("San Francisco");
+    }
+
+    @Test
+    void testTitlesWithoutALocationAndMigratedListingsAreLeftAlone() {
+        var withoutLocation = createLegacyListing("[Mint] Bike");
+        var migrated = createLegacyListing("[Seattle, WA]Bike");
+        migrated.setState("WA");
+
+        migration.migrate();
+
+        assertThat(listingRepository.get(withoutLocation.getId()).getTitle())
+                .isEqualTo("[Mint] Bike");
+        assertThat(listingRepository.get(withoutLocation.getId()).getState()).isNull();
+        assertThat(listingRepository.get(migrated.getId()).getTitle())
+                .isEqualTo("[Seattle, WA]Bike");
+    }
+
+    @Test
+    void testListingsDeletedWhileMigratingStayDeleted() {
+        var first = createLegacyListing("[Seattle, WA]Bike");
+        var second = createLegacyListing("[Seattle, WA]Desk");
+        listingRepository =
+                new InMemoryRepository<>() {
+                    @Override
+                    public Listing update(Listing item) {
+                        // The second listing is already in the page being migrated
+                        if (item.getId().equals(first.getId())) {
+                            delete(second.getId());
+                            listingSearch.remove(second);
+                        }
+                        return super.update(item);
+                    }
+                };
+        listingRepository.add(first);
+        listingRepository.add(second);
+        listingSearch = new ListingSearchIndex(listingRepository, Runnable::run);
+        migration = new ListingLocationMigration(listingRepository, listingSearch);
+        assertThat(listingSearch.search("12345", "desk")).hasSize(1);
+
+        migration.migrate();
+
+        assertThat(listingRepository.get(first.getId()).getState()).isEqualTo("WA");
+        assertThat(listingRepository.get(second.getId())).isNull();
+        var page =
+                listingSearch.search(
+                        "12345",
+                        "desk",
+                        new LocationFilter("WA", "Seattle"),
+                        ListingSort.BY_RELEVANCE,
+                        0,
+                        0);
+        assertThat(page.getTotalEstimate()).isEqualTo(0);
+    }
+
+    @Test
+    void testMigratedListingsAreFoundByTheirLocation() {
+        var listing = createLegacyListing("[Seattle, WA]Bike");
+        // Loads the guild into the index before the migration
+        assertThat(listingSearch.search("12345", "bike")).hasSize(1);
+
+        migration.migrate();
+
+        var page =
+                listingSearch.search(
+                        "12345",
+                        "bike",
+                        new LocationFilter("WA", "Seattle"),
+                        ListingSort.BY_RELEVANCE,
+                        0,
+                        0);
+        assertThat(page.getListings()).hasSize(1);
+        assertThat(page.getListings().get(0).getId()).isEqualTo(listing.getId());
+    }
+}
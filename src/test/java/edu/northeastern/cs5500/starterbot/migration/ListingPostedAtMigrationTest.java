@@ -0,0 +1,58 @@
+package edu.northeastern.cs5500.starterbot.migration;
+
+import static com.google.common.truth.Truth.assertThat;
+import static edu.northeastern.cs5500.starterbot.model.TestListings.createListing;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.repository.InMemoryRepository;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+public class ListingPostedAtMigrationTest {
+
+    InMemoryRepository<Listing> listingRepository;
+    ListingPostedAtMigration migration;
+
+    @BeforeEach
+    void initializeMigration() {
+        listingRepository = new InMemoryRepository<>();
+        migration = new ListingPostedAtMigration(listingRepository);
+    }
+
+    private Listing createLegacyListing(String datePosted) {
+        var listing = createListing("12345", "Bike", "A bike");
+        listing.getFields().setDatePosted(datePosted);
+        return listingRepository.add(listing);
+    }
+
+    @Test
+    void testDatePostedIsStoredAsAnInstant() {
+        var listing = createLegacyListing("05/01/2023 10:00:00");
+
+        migration.migrate();
+
+        var fields = listingRepository.get(listing.getId()).getFields();
+        var expected =
+                LocalDateTime.of(2023, 5, 1, 10, 0, 0).atZone(ZoneId.systemDefault()).toInstant();
+        assertThat(fields.getPostedAt()).isEqualTo(expected);
+        assertThat(fields.getDatePosted()).isEqualTo("05/01/2023 10:00:00");
+    }
+
+    @Test
+    void testUnreadableDatesAndMigratedListingsAreLeftAlone() {
+        var unreadable = createLegacyListing("4/15/23");
+        var migrated = createLegacyListing("05/01/2023 10:00:00");
+        var postedAt = Instant.parse("2023-05-01T17:00:00Z");
+        migrated.getFields().setPostedAt(postedAt);
+
+        migration.migrate();
+
+        assertThat(listingRepository.get(unreadable.getId()).getFields().getPostedAt()).isNull();
+        assertThat(listingRepository.get(migrated.getId()).getFields().getPostedAt())
+                .isEqualTo(postedAt);
+    }
+}
@@ -0,0 +1,54 @@
+package edu.northeastern.cs5500.starterbot.migration;
+
+import static com.google.common.truth.Truth.assertThat;
+import static edu.northeastern.cs5500.starterbot.model.TestListings.createListing;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.repository.InMemoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+public class ListingPriceMigrationTest {
+
+    InMemoryRepository<Listing> listingRepository;
+    ListingPriceMigration migration;
+
+    @BeforeEach
+    void initializeMigration() {
+        listingRepository = new InMemoryRepository<>();
+        migration = new ListingPriceMigration(listingRepository);
+    }
+
+    private Listing createLegacyListing(String cost) {
+        var listing = createListing("12345", "Bike", "A bike");
+        listing.getFields().setCost(cost);
+        return listingRepository.add(listing);
+    }
+
+    @Test
+    void testCostIsStoredAsATypedPrice() {
+        var listing = createLegacyListing("USD 12");
+
+        migration.migrate();
+
+        var fields = listingRepository.get(listing.getId()).getFields();
+        assertThat(fields.getPriceMinor()).isEqualTo(1200L);
+        assertThat(fields.getCurrency()).isEqualTo("USD");
+        assertThat(fields.getCost()).isEqualTo("USD 12");
+    }
+
+    @Test
+    void testUnreadableCostsAndMigratedListingsAreLeftAlone() {
+        var unreadable = createLegacyListing("make an offer");
+        var migrated = createLegacyListing("USD 12");
+        migrated.getFields().setPriceMinor(1100L);
+        migrated.getFields().setCurrency("USD");
+
+        migration.migrate();
+
+        assertThat(listingRepository.get(unreadable.getId()).getFields().getPriceMinor()).isNull();
+        assertThat(listingRepository.get(migrated.getId()).getFields().getPriceMinor())
+                .isEqualTo(1100L);
+    }
+}
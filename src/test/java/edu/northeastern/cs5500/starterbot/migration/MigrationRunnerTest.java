@@ -0,0 +1,113 @@
+package edu.northeastern.cs5500.starterbot.migration;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.northeastern.cs5500.starterbot.model.MigrationRecord;
+import edu.northeastern.cs5500.starterbot.repository.InMemoryRepository;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+public class MigrationRunnerTest {
+
+    /** Counts how often it runs, and fails while told to. */
+    static class CountingMigration implements Migration {
+        int runs;
+        boolean fail;
+
+        @Override
+        @Nonnull
+        public String getName() {
+            return "counting";
+        }
+
+        @Override
+        public void migrate() {
+            runs++;
+            if (fail) {
+                throw new IllegalStateException("Migration failed");
+            }
+        }
+    }
+
+    /** Records the thread it runs on, as a background migration. */
+    static class BackgroundMigration implements Migration {
+        final String name;
+        final CountDownLatch finished;
+        Thread thread;
+
+        BackgroundMigration(String name, CountDownLatch finished) {
+            this.name = name;
+            this.finished = finished;
+        }
+
+        @Override
+        @Nonnull
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean runsInBackground() {
+            return true;
+        }
+
+        @Override
+        public void migrate() {
+            thread = Thread.currentThread();
+            finished.countDown();
+        }
+    }
+
+    InMemoryRepository<MigrationRecord> migrationRecords;
+    CountingMigration migration;
+    MigrationRunner runner;
+
+    @BeforeEach
+    void initializeRunner() {
+        migrationRecords = new InMemoryRepository<>();
+        migration = new CountingMigration();
+        runner = new MigrationRunner(Set.of(migration), migrationRecords);
+    }
+
+    @Test
+    void testACompletedMigrationIsNotRunAgain() {
+        runner.runAll();
+        runner.runAll();
+
+        assertThat(migration.runs).isEqualTo(1);
+        assertThat(migrationRecords.findOne("name", "counting")).isNotNull();
+    }
+
+    @Test
+    void testAFailedMigrationRunsAgain() {
+        migration.fail = true;
+        assertThrows(IllegalStateException.class, runner::runAll);
+        assertThat(migrationRecords.count()).isEqualTo(0);
+
+        migration.fail = false;
+        runner.runAll();
+        runner.runAll();
+
+        assertThat(migration.runs).isEqualTo(2);
+    }
+
+    @Test
+    void testBackgroundMigrationsRunOneAfterAnotherOnOneThread() throws InterruptedException {
+        var finished = new CountDownLatch(2);
+        var first = new BackgroundMigration("first", finished);
+        var second = new BackgroundMigration("second", finished);
+        runner = new MigrationRunner(Set.of(first, second), migrationRecords);
+
+        runner.runAll();
+
+        assertThat(finished.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(first.thread).isNotEqualTo(Thread.currentThread());
+        assertThat(first.thread).isSameInstanceAs(second.thread);
+    }
+}
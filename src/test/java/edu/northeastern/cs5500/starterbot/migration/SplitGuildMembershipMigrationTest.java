@@ -0,0 +1,59 @@
+package edu.northeastern.cs5500.starterbot.migration;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import edu.northeastern.cs5500.starterbot.model.Guild;
+import edu.northeastern.cs5500.starterbot.model.GuildMembership;
+import edu.northeastern.cs5500.starterbot.repository.InMemoryRepository;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+public class SplitGuildMembershipMigrationTest {
+    static final String GUILD_ID = "12345";
+
+    InMemoryRepository<Guild> guildRepository;
+    InMemoryRepository<GuildMembership> membershipRepository;
+    SplitGuildMembershipMigration migration;
+
+    @BeforeEach
+    void initializeMigration() {
+        guildRepository = new InMemoryRepository<>();
+        membershipRepository = new InMemoryRepository<>();
+        migration = new SplitGuildMembershipMigration(guildRepository, membershipRepository);
+    }
+
+    private Guild createLegacyGuild(Set<String> usersOnServer) {
+        var guild = new Guild();
+        guild.setGuildId(GUILD_ID);
+        guild.setUsersOnServer(new HashSet<>(usersOnServer));
+        return guildRepository.add(guild);
+    }
+
+    @Test
+    void testMembersAreMovedToTheirOwnCollection() {
+        var guild = createLegacyGuild(Set.of("user1", "user2"));
+
+        migration.migrate();
+
+        assertThat(guild.getUsersOnServer()).isNull();
+        assertThat(
+                        membershipRepository.findMany("guildId", GUILD_ID).stream()
+                                .map(GuildMembership::getDiscordUserId)
+                                .toList())
+                .containsExactly("user1", "user2");
+    }
+
+    @Test
+    void testRunningAgainDoesNotDuplicateMemberships() {
+        membershipRepository.add(new GuildMembership(null, GUILD_ID, "user1"));
+        createLegacyGuild(Set.of("user1", "user2"));
+
+        migration.migrate();
+        migration.migrate();
+
+        assertThat(membershipRepository.count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,53 @@
+package edu.northeastern.cs5500.starterbot.model;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+public class PriceTest {
+
+    @Test
+    void testParseReadsTheFormatsUsersWrite() {
+        assertThat(Price.parse("USD 12")).isEqualTo(new Price(1200, "USD"));
+        assertThat(Price.parse("$ 12.50")).isEqualTo(new Price(1250, "USD"));
+        assertThat(Price.parse("$1,200")).isEqualTo(new Price(120000, "USD"));
+        assertThat(Price.parse("12.5 eur")).isEqualTo(new Price(1250, "EUR"));
+        assertThat(Price.parse("7")).isEqualTo(new Price(700, "USD"));
+        assertThat(Price.parse("JPY 500")).isEqualTo(new Price(500, "JPY"));
+    }
+
+    @Test
+    void testParseRejectsTextThatIsNotAPrice() {
+        assertThat(Price.parse("free")).isNull();
+        assertThat(Price.parse("USD 12 EUR")).isNull();
+        assertThat(Price.parse("XYZ 12")).isNull();
+        assertThat(Price.parse("USD 12.505")).isNull();
+    }
+
+    @Test
+    void testOfRejectsFractionsOfMinorUnits() {
+        assertThat(Price.of(new BigDecimal("0.99"), "USD")).isEqualTo(new Price(99, "USD"));
+        assertThrows(IllegalArgumentException.class, () -> Price.of(new BigDecimal("0.5"), "JPY"));
+    }
+
+    @Test
+    void testOfListingFieldsPrefersTheTypedPrice() {
+        var fields =
+                ListingFields.builder()
+                        .cost("USD 12")
+                        .priceMinor(1100L)
+                        .currency("USD")
+                        .shippingIncluded(false)
+                        .condition("Good")
+                        .description("A bike")
+                        .datePosted("05/01/2023 10:00:00")
+                        .build();
+        assertThat(Price.of(fields)).isEqualTo(new Price(1100, "USD"));
+
+        fields.setPriceMinor(null);
+        assertThat(Price.of(fields)).isEqualTo(new Price(1200, "USD"));
+    }
+}
@@ -0,0 +1,30 @@
+package edu.northeastern.cs5500.starterbot.model;
+
+import java.util.List;
+
+/**
+ * Creates listings for tests. They have no typed price, posting time or location, like listings
+ * stored before those existed, so tests of migrations and searches set what they need.
+ */
+public class TestListings {
+
+    private TestListings() {}
+
+    public static Listing createListing(String guildId, String title, String description) {
+        return Listing.builder()
+                .discordUserId("631666734125987209")
+                .guildId(guildId)
+                .title(title)
+                .url("test_url")
+                .images(List.of())
+                .fields(
+                        ListingFields.builder()
+                                .cost("$ 10.00")
+                                .shippingIncluded(false)
+                                .condition("Good")
+                                .description(description)
+                                .datePosted("05/01/2023 10:00:00")
+                                .build())
+                .build();
+    }
+}
@@ -0,0 +1,145 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import edu.northeastern.cs5500.starterbot.model.LocationView;
+import edu.northeastern.cs5500.starterbot.model.User;
+import java.time.Duration;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+public class CachingRepositoryTest {
+    static final String DISCORD_ID_1 = "testUser1";
+    static final String DISCORD_ID_2 = "testUser2";
+
+    /** Counts the lookups that reach the backing repository. */
+    static class CountingRepository extends InMemoryRepository<User> {
+        int findOneCalls;
+        // Runs once after the next lookup read the item, as if another thread wrote it meanwhile
+        Runnable afterNextFindOne;
+
+        @Override
+        public User findOne(@Nonnull String field, @Nonnull Object value) {
+            findOneCalls++;
+            var item = super.findOne(field, value);
+            var afterFindOne = afterNextFindOne;
+            afterNextFindOne = null;
+            if (afterFindOne != null) {
+                afterFindOne.run();
+            }
+            return item;
+        }
+    }
+
+    CountingRepository backingRepository;
+    CachingRepository<User> repository;
+
+    @BeforeEach
+    void initializeRepository() {
+        backingRepository = new CountingRepository();
+        repository = new CachingRepository<>(backingRepository);
+    }
+
+    private User createUser(String discordUserId) {
+        var user = new User();
+        user.setDiscordUserId(discordUserId);
+        return repository.add(user);
+    }
+
+    @Test
+    void testRepeatedFieldLookupsAreServedFromTheCache() {
+        var user = createUser(DISCORD_ID_1);
+
+        assertThat(repository.findOne("discordUserId", DISCORD_ID_1)).isEqualTo(user);
+        assertThat(repository.findOne("discordUserId", DISCORD_ID_1)).isEqualTo(user);
+        assertThat(repository.findOne("discordUserId", DISCORD_ID_1)).isEqualTo(user);
+
+        assertThat(backingRepository.findOneCalls).isEqualTo(1);
+        assertThat(repository.getStats().hitCount()).isAtLeast(2);
+    }
+
+    @Test
+    void testViewLookupsUseTheCachedItem() {
+        var user = createUser(DISCORD_ID_1);
+        user.setCityOfResidence("Seattle");
+        repository.update(user);
+        repository.findOne("discordUserId", DISCORD_ID_1);
+
+        var location = repository.findOne("discordUserId", DISCORD_ID_1, LocationView.class);
+
+        assertThat(location.getCityOfResidence()).isEqualTo("Seattle");
+        assertThat(backingRepository.findOneCalls).isEqualTo(1);
+    }
+
+    @Test
+    void testDeleteInvalidatesTheCachedItem() {
+        var user = createUser(DISCORD_ID_1);
+        repository.findOne("discordUserId", DISCORD_ID_1);
+
+        repository.delete(user.getId());
+
+        assertThat(repository.get(user.getId())).isNull();
+        assertThat(repository.findOne("discordUserId", DISCORD_ID_1)).isNull();
+    }
+
+    @Test
+    void testUpdateIsVisibleToFieldLookups() {
+        var user = createUser(DISCORD_ID_1);
+        repository.findOne("discordUserId", DISCORD_ID_1);
+
+        // After the id changes the old lookup must no longer resolve to the user
+        user.setDiscordUserId(DISCORD_ID_2);
+        repository.update(user);
+
+        assertThat(repository.findOne("discordUserId", DISCORD_ID_1)).isNull();
+        assertThat(repository.findOne("discordUserId", DISCORD_ID_2)).isEqualTo(user);
+    }
+
+    @Test
+    void testAReadThatRacesAWriteDoesNotCacheTheOlderItem() {
+        var user = new User();
+        user.setDiscordUserId(DISCORD_ID_1);
+        backingRepository.add(user);
+        backingRepository.afterNextFindOne =
+                () -> {
+                    var changed =
+                            ModelCopies.copyOf(
+                                    backingRepository.findOne("discordUserId", DISCORD_ID_1));
+                    changed.setCityOfResidence("Seattle");
+                    repository.update(changed);
+                };
+
+        // Read before the write, so it may return the older item but must not cache it
+        repository.findOne("discordUserId", DISCORD_ID_1);
+
+        var read = repository.findOne("discordUserId", DISCORD_ID_1);
+        assertThat(read.getCityOfResidence()).isEqualTo("Seattle");
+    }
+
+    @Test
+    void testChangesToAReadItemAreNotSeenByOtherReaders() {
+        var user = createUser(DISCORD_ID_1);
+
+        var read = repository.get(user.getId());
+        read.setCityOfResidence("Seattle");
+
+        assertThat(repository.get(user.getId()).getCityOfResidence()).isNull();
+        assertThat(repository.findOne("discordUserId", DISCORD_ID_1).getCityOfResidence())
+                .isNull();
+    }
+
+    @Test
+    void testItemsAreEvictedOnceTheWeightLimitIsReached() {
+        repository =
+                new CachingRepository<>(backingRepository, item -> 1, 1, Duration.ofMinutes(1));
+
+        var first = createUser(DISCORD_ID_1);
+        createUser(DISCORD_ID_2);
+
+        // Only one item fits, so reading the first one again has to go to the backing store
+        assertThat(repository.get(first.getId())).isEqualTo(first);
+        assertThat(repository.getStats().evictionCount()).isAtLeast(1);
+    }
+}
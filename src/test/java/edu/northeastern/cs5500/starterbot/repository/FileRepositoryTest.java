@@ -0,0 +1,152 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.northeastern.cs5500.starterbot.model.Guild;
+import edu.northeastern.cs5500.starterbot.service.MongoDBService;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@SuppressWarnings("null")
+public class FileRepositoryTest {
+    static final String GUILD_ID_1 = "12345";
+    static final String GUILD_ID_2 = "54321";
+    static final String OWNER_ID = "testOwner";
+
+    @TempDir Path directory;
+
+    List<FileRepository<Guild>> openRepositories = new ArrayList<>();
+
+    @AfterEach
+    void closeRepositories() {
+        for (var repository : openRepositories) {
+            repository.close();
+        }
+    }
+
+    private FileRepository<Guild> open() {
+        var repository =
+                new FileRepository<>(Guild.class, MongoDBService.createCodecRegistry(), directory);
+        openRepositories.add(repository);
+        return repository;
+    }
+
+    private Guild createGuild(FileRepository<Guild> repository, String guildId) {
+        var guild = new Guild();
+        guild.setGuildId(guildId);
+        guild.setGuildOwnerId("");
+        guild.setTradingChannelId("");
+        return repository.add(guild);
+    }
+
+    private Path logPath() {
+        return directory.resolve(Guild.class.getName() + ".log");
+    }
+
+    @Test
+    void testWritesAreRecoveredWhenReopened() {
+        var repository = open();
+        var kept = createGuild(repository, GUILD_ID_1);
+        var deleted = createGuild(repository, GUILD_ID_2);
+        repository.updateField("guildId", GUILD_ID_1, "guildOwnerId", OWNER_ID);
+        repository.delete(deleted.getId());
+
+        // Reopening without compacting replays the log, as after the process was killed
+        repository.closeWithoutSnapshot();
+        var reopened = open();
+        assertThat(reopened.count()).isEqualTo(1);
+        assertThat(reopened.get(kept.getId()).getGuildOwnerId()).isEqualTo(OWNER_ID);
+        assertThat(reopened.findOne("guildId", GUILD_ID_2)).isNull();
+    }
+
+    @Test
+    void testUpdateOfADeletedItemIsNotLogged() {
+        var repository = open();
+        var guild = createGuild(repository, GUILD_ID_1);
+        repository.delete(guild.getId());
+
+        guild.setGuildOwnerId(OWNER_ID);
+        assertThat(repository.update(guild)).isNull();
+
+        repository.closeWithoutSnapshot();
+        assertThat(open().count()).isEqualTo(0);
+    }
+
+    @Test
+    void testSnapshotCompactsTheLog() throws IOException {
+        var repository = open();
+        var guild = createGuild(repository, GUILD_ID_1);
+        for (int i = 0; i < 10; i++) {
+            repository.updateField("guildId", GUILD_ID_1, "guildOwnerId", OWNER_ID + i);
+        }
+        assertThat(Files.size(logPath())).isGreaterThan(0L);
+
+        repository.snapshot();
+        assertThat(Files.size(logPath())).isEqualTo(0L);
+
+        repository.close();
+        var reopened = open();
+        assertThat(reopened.count()).isEqualTo(1);
+        assertThat(reopened.get(guild.getId()).getGuildOwnerId()).isEqualTo(OWNER_ID + 9);
+    }
+
+    @Test
+    void testPartlyWrittenRecordIsDiscarded() throws IOException {
+        var repository = open();
+        var guild = createGuild(repository, GUILD_ID_1);
+        repository.closeWithoutSnapshot();
+
+        // A record header announcing more bytes than were written
+        var tornRecord = new byte[] {AppendOnlyLog.PUT, 0, 0, 1, 0};
+        Files.write(logPath(), tornRecord, StandardOpenOption.APPEND);
+
+        var reopened = open();
+        assertThat(reopened.get(guild.getId())).isEqualTo(guild);
+
+        // The torn record is cut off, so new writes are readable after it
+        createGuild(reopened, GUILD_ID_2);
+        reopened.closeWithoutSnapshot();
+        assertThat(open().findOne("guildId", GUILD_ID_2)).isNotNull();
+    }
+
+    @Test
+    void testFilesCannotBeOpenedTwice() {
+        var repository = open();
+
+        assertThrows(IllegalStateException.class, this::open);
+
+        // Closing releases the lock
+        repository.close();
+        assertThat(open().count()).isEqualTo(0);
+    }
+
+    @Test
+    void testLogsLargerThanAMappingAreReadInWindows() throws IOException {
+        List<String> written = new ArrayList<>();
+        try (var log = new AppendOnlyLog(logPath(), 0)) {
+            for (int i = 0; i < 100; i++) {
+                var payload = "record" + i;
+                log.append(AppendOnlyLog.PUT, payload.getBytes(StandardCharsets.UTF_8));
+                written.add(payload);
+            }
+        }
+
+        // Windows smaller than the file, and not aligned with the records
+        List<String> read = new ArrayList<>();
+        AppendOnlyLog.RecordHandler collect =
+                (type, payload) -> read.add(StandardCharsets.UTF_8.decode(payload).toString());
+        long validLength = AppendOnlyLog.replay(logPath(), 100, collect);
+
+        assertThat(read).containsExactlyElementsIn(written).inOrder();
+        assertThat(validLength).isEqualTo(Files.size(logPath()));
+    }
+}
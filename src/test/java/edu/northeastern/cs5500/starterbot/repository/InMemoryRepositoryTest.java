@@ -0,0 +1,364 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.northeastern.cs5500.starterbot.model.Guild;
+import edu.northeastern.cs5500.starterbot.model.TradingChannelView;
+import edu.northeastern.cs5500.starterbot.model.User;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+public class InMemoryRepositoryTest {
+    static final String GUILD_ID_1 = "12345";
+    static final String GUILD_ID_2 = "54321";
+    static final String OWNER_ID = "owner";
+
+    InMemoryRepository<Guild> repository;
+
+    @BeforeEach
+    void initializeRepository() {
+        repository = new InMemoryRepository<>();
+    }
+
+    private Guild createGuild(String guildId, Set<String> users) {
+        var guild = new Guild();
+        guild.setGuildId(guildId);
+        guild.setGuildOwnerId(OWNER_ID);
+        guild.setUsersOnServer(new HashSet<>(users));
+        return repository.add(guild);
+    }
+
+    @Test
+    void testFindOneReturnsTheMatchingItem() {
+        var guild = createGuild(GUILD_ID_1, Set.of());
+        createGuild(GUILD_ID_2, Set.of());
+
+        assertThat(repository.findOne("guildId", GUILD_ID_1)).isEqualTo(guild);
+        assertThat(repository.findOne("guildId", "missing")).isNull();
+    }
+
+    @Test
+    void testFindOneWithViewCopiesOnlyTheViewFields() {
+        var guild = createGuild(GUILD_ID_1, Set.of("user1"));
+        guild.setTradingChannelId("channel");
+        repository.update(guild);
+
+        var view = repository.findOne("guildId", GUILD_ID_1, TradingChannelView.class);
+        assertThat(view.getGuildId()).isEqualTo(GUILD_ID_1);
+        assertThat(view.getTradingChannelId()).isEqualTo("channel");
+        assertThat(repository.findOne("guildId", "missing", TradingChannelView.class)).isNull();
+    }
+
+    @Test
+    void testFindOneMatchesElementsOfCollectionFields() {
+        var guild = createGuild(GUILD_ID_1, Set.of("user1", "user2"));
+
+        assertThat(repository.findOne("usersOnServer", "user2")).isEqualTo(guild);
+        assertThat(repository.findOne("usersOnServer", "user3")).isNull();
+    }
+
+    @Test
+    void testIndexFollowsUpdatesAndDeletes() {
+        var guild = createGuild(GUILD_ID_1, Set.of());
+        assertThat(repository.findOne("guildId", GUILD_ID_1)).isEqualTo(guild);
+
+        // Changing the indexed field moves the item to its new key
+        guild.setGuildId(GUILD_ID_2);
+        repository.update(guild);
+        assertThat(repository.findOne("guildId", GUILD_ID_1)).isNull();
+        assertThat(repository.findOne("guildId", GUILD_ID_2)).isEqualTo(guild);
+
+        repository.delete(guild.getId());
+        assertThat(repository.findOne("guildId", GUILD_ID_2)).isNull();
+    }
+
+    @Test
+    void testUpdateDoesNotAddBackADeletedItem() {
+        var guild = createGuild(GUILD_ID_1, Set.of());
+        repository.delete(guild.getId());
+
+        guild.setTradingChannelId("channel");
+        assertThat(repository.update(guild)).isNull();
+
+        assertThat(repository.get(guild.getId())).isNull();
+        assertThat(repository.findOne("guildId", GUILD_ID_1)).isNull();
+    }
+
+    @Test
+    void testFindManyMatchesEveryFieldInTheFilter() {
+        createGuild(GUILD_ID_1, Set.of("user1"));
+        createGuild(GUILD_ID_2, Set.of("user1"));
+
+        assertThat(repository.findMany("usersOnServer", "user1")).hasSize(2);
+        assertThat(repository.findMany(Map.of("usersOnServer", "user1", "guildId", GUILD_ID_2)))
+                .hasSize(1);
+        assertThat(repository.findMany(Map.of())).hasSize(2);
+    }
+
+    @Test
+    void testCountMatchesEveryFieldInTheFilter() {
+        createGuild(GUILD_ID_1, Set.of("user1"));
+        createGuild(GUILD_ID_2, Set.of("user1", "user2"));
+
+        assertThat(repository.count(Map.of("usersOnServer", "user1"))).isEqualTo(2);
+        assertThat(repository.count(Map.of("usersOnServer", "user2", "guildId", GUILD_ID_1)))
+                .isEqualTo(0);
+        assertThat(repository.count(Map.of("usersOnServer", "user3"))).isEqualTo(0);
+        assertThat(repository.count(Map.of())).isEqualTo(2);
+    }
+
+    @Test
+    void testCompareAndUpdateRejectsAStaleVersion() {
+        var users = new InMemoryRepository<User>();
+        var user = new User();
+        user.setDiscordUserId("user1");
+        users.add(user);
+
+        var stale = users.get(user.getId());
+        var staleVersion = stale.getVersion();
+        users.updateWithRetry(user.getId(), item -> item.setCityOfResidence("Seattle"));
+
+        stale.setCityOfResidence("Boston");
+        assertThat(users.compareAndUpdate(stale, staleVersion)).isFalse();
+        assertThat(users.get(user.getId()).getCityOfResidence()).isEqualTo("Seattle");
+        assertThat(users.get(user.getId()).getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void testUpdateWithRetryReappliesTheChangeAfterAConflict() {
+        var users = new InMemoryRepository<User>();
+        var user = new User();
+        user.setDiscordUserId("user1");
+        users.add(user);
+
+        // The first attempt races with another handler that stores the user in between
+        var attempts = new int[1];
+        users.updateWithRetry(
+                user.getId(),
+                item -> {
+                    item.setCityOfResidence("Seattle");
+                    if (attempts[0]++ == 0) {
+                        users.updateWithRetry(
+                                user.getId(),
+                                concurrent -> {
+                                    // The change that is about to lose must not be visible
+                                    assertThat(concurrent.getCityOfResidence()).isNull();
+                                    concurrent.setStateOfResidence("WA");
+                                });
+                    }
+                });
+
+        var stored = users.get(user.getId());
+        assertThat(attempts[0]).isEqualTo(2);
+        assertThat(stored.getStateOfResidence()).isEqualTo("WA");
+        assertThat(stored.getCityOfResidence()).isEqualTo("Seattle");
+        assertThat(stored.getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void testCompareAndUpdateNeedsAVersionedModel() {
+        var guild = createGuild(GUILD_ID_1, Set.of());
+
+        assertThrows(IllegalArgumentException.class, () -> repository.compareAndUpdate(guild, 0));
+    }
+
+    @Test
+    void testGetPageWalksItemsInIdOrder() {
+        var first = createGuild(GUILD_ID_1, Set.of("user1"));
+        var second = createGuild(GUILD_ID_2, Set.of("user1"));
+        var third = createGuild("third", Set.of());
+
+        assertThat(repository.getPage(Map.of(), null, 2)).containsExactly(first, second).inOrder();
+        assertThat(repository.getPage(Map.of(), second.getId(), 2)).containsExactly(third);
+        assertThat(repository.getPage(Map.of("usersOnServer", "user1"), first.getId(), 2))
+                .containsExactly(second);
+    }
+
+    @Test
+    void testFindAppliesTheRangeSortAndLimit() {
+        var a = createGuild("a", Set.of("user1"));
+        var b = createGuild("b", Set.of("user1"));
+        var c = createGuild("c", Set.of("user1"));
+        createGuild("d", Set.of("user1"));
+        createGuild("b", Set.of());
+
+        var query =
+                Query.where(Map.of("usersOnServer", "user1"))
+                        .between("guildId", "a", "c")
+                        .sortBy("guildId", Query.Order.DESCENDING);
+        assertThat(repository.find(query)).containsExactly(c, b, a).inOrder();
+        assertThat(repository.find(query.limit(2))).containsExactly(c, b).inOrder();
+        assertThat(repository.find(Query.where(Map.of()).between("guildId", "d", null)))
+                .hasSize(1);
+    }
+
+    @Test
+    void testFindSortsMissingValuesFirstAndBreaksTiesById() {
+        var withoutChannel = createGuild(GUILD_ID_1, Set.of());
+        var first = createGuild(GUILD_ID_2, Set.of());
+        first.setTradingChannelId("channel");
+        repository.update(first);
+        var second = createGuild("third", Set.of());
+        second.setTradingChannelId("channel");
+        repository.update(second);
+
+        var query = Query.where(Map.of()).sortBy("tradingChannelId", Query.Order.ASCENDING);
+        assertThat(repository.find(query)).containsExactly(withoutChannel, first, second).inOrder();
+        // Values in a range are never missing
+        assertThat(repository.find(query.between("tradingChannelId", null, null)))
+                .containsExactly(first, second)
+                .inOrder();
+    }
+
+    @Test
+    void testIterateVisitsEveryItemWhileDeleting() {
+        for (int i = 0; i < 5; i++) {
+            createGuild("guild" + i, Set.of());
+        }
+
+        // Deleting the items already visited must not make the iterator skip any
+        var visited = 0;
+        for (Guild guild : repository.iterate(Map.of(), 2)) {
+            repository.delete(guild.getId());
+            visited++;
+        }
+
+        assertThat(visited).isEqualTo(5);
+        assertThat(repository.count()).isEqualTo(0);
+    }
+
+    @Test
+    void testFieldUpdatesOnlyTouchTheMatchingItem() {
+        var guild = createGuild(GUILD_ID_1, Set.of());
+        var other = createGuild(GUILD_ID_2, Set.of());
+
+        assertThat(repository.updateField("guildId", GUILD_ID_1, "guildOwnerId", "newOwner"))
+                .isTrue();
+        assertThat(repository.updateField("guildId", GUILD_ID_1, "guildOwnerId", "newOwner"))
+                .isFalse();
+
+        assertThat(guild.getGuildOwnerId()).isEqualTo("newOwner");
+        assertThat(other.getGuildOwnerId()).isEqualTo(OWNER_ID);
+        assertThat(repository.updateField("guildId", "missing", "guildOwnerId", "x")).isFalse();
+    }
+
+    @Test
+    void testAddToSetAndPullKeepTheIndexInSync() {
+        var guild = createGuild(GUILD_ID_1, Set.of("user1"));
+
+        assertThat(repository.addToSet("guildId", GUILD_ID_1, "usersOnServer", Set.of("user2")))
+                .isTrue();
+        // Adding a value that is already present does not modify the item
+        assertThat(repository.addToSet("guildId", GUILD_ID_1, "usersOnServer", Set.of("user2")))
+                .isFalse();
+        assertThat(repository.findOne("usersOnServer", "user2")).isEqualTo(guild);
+
+        assertThat(repository.pull("guildId", GUILD_ID_1, "usersOnServer", "user2")).isTrue();
+        assertThat(repository.pull("guildId", GUILD_ID_1, "usersOnServer", "user2")).isFalse();
+        assertThat(repository.findOne("usersOnServer", "user2")).isNull();
+        assertThat(guild.getUsersOnServer()).containsExactly("user1");
+    }
+
+    @Test
+    void testBulkOperationsKeepTheIndexInSync() {
+        var first = new Guild();
+        first.setGuildId(GUILD_ID_1);
+        first.setGuildOwnerId(OWNER_ID);
+        var second = new Guild();
+        second.setGuildId(GUILD_ID_2);
+        second.setGuildOwnerId(OWNER_ID);
+
+        repository.addAll(List.of(first, second));
+        assertThat(first.getId()).isNotNull();
+        assertThat(repository.findOne("guildId", GUILD_ID_2)).isEqualTo(second);
+
+        repository.deleteAll(List.of(first.getId()));
+        assertThat(repository.findOne("guildId", GUILD_ID_1)).isNull();
+
+        assertThat(repository.deleteWhere(Map.of("guildOwnerId", OWNER_ID))).isEqualTo(1);
+        assertThat(repository.count()).isEqualTo(0);
+        assertThat(repository.findOne("guildId", GUILD_ID_2)).isNull();
+    }
+
+    @Test
+    void testConcurrentAddIfAbsentAddsTheItemOnce() throws Exception {
+        var threads = 8;
+        Map<String, Object> filter = Map.of("guildId", GUILD_ID_1);
+        var executor = Executors.newFixedThreadPool(threads);
+        List<Future<Boolean>> adds = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                var guild = new Guild();
+                guild.setGuildId(GUILD_ID_1);
+                guild.setGuildOwnerId(OWNER_ID);
+                adds.add(executor.submit(() -> repository.addIfAbsent(filter, guild)));
+            }
+
+            var added = 0;
+            for (Future<Boolean> add : adds) {
+                if (add.get(30, TimeUnit.SECONDS)) {
+                    added++;
+                }
+            }
+            assertThat(added).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(repository.findMany("guildId", GUILD_ID_1)).hasSize(1);
+    }
+
+    @Test
+    void testConcurrentWritesAndReadsKeepTheIndexConsistent() throws Exception {
+        var threads = 8;
+        var guildsPerThread = 500;
+        var executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                var prefix = "thread" + t + "-";
+                Runnable writer =
+                        () -> {
+                            for (int i = 0; i < guildsPerThread; i++) {
+                                var guildId = prefix + i;
+                                createGuild(guildId, Set.of("user" + i));
+                                repository.addToSet(
+                                        "guildId", guildId, "usersOnServer", Set.of("all"));
+                            }
+                        };
+                writers.add(executor.submit(writer));
+            }
+
+            // Reading while the writers run must never throw
+            var reader =
+                    executor.submit(
+                            () -> {
+                                for (int i = 0; i < 100; i++) {
+                                    repository.getAll().forEach(Guild::getGuildId);
+                                    repository.findMany("usersOnServer", "all");
+                                }
+                            });
+
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(repository.count()).isEqualTo(threads * guildsPerThread);
+        assertThat(repository.findMany("usersOnServer", "all")).hasSize(threads * guildsPerThread);
+        assertThat(repository.findOne("guildId", "thread3-42")).isNotNull();
+    }
+}
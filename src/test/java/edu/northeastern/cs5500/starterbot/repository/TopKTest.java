@@ -0,0 +1,41 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+class TopKTest {
+    static final List<Integer> ITEMS = List.of(7, 3, 9, 1, 8, 2, 6, 4, 5);
+
+    @Test
+    void testSelectReturnsThePageInSortOrder() {
+        assertThat(TopK.select(ITEMS, Comparator.naturalOrder(), 0, 3))
+                .containsExactly(1, 2, 3)
+                .inOrder();
+        assertThat(TopK.select(ITEMS, Comparator.naturalOrder(), 3, 3))
+                .containsExactly(4, 5, 6)
+                .inOrder();
+        assertThat(TopK.select(ITEMS, Comparator.reverseOrder(), 0, 2))
+                .containsExactly(9, 8)
+                .inOrder();
+    }
+
+    @Test
+    void testSelectPastTheEndReturnsWhatIsLeft() {
+        assertThat(TopK.select(ITEMS, Comparator.naturalOrder(), 7, 5))
+                .containsExactly(8, 9)
+                .inOrder();
+        assertThat(TopK.select(ITEMS, Comparator.naturalOrder(), 20, 5)).isEmpty();
+    }
+
+    @Test
+    void testSelectWithoutLimitSortsEverythingAfterTheOffset() {
+        assertThat(TopK.select(ITEMS, Comparator.naturalOrder(), 6, 0))
+                .containsExactly(7, 8, 9)
+                .inOrder();
+        assertThat(TopK.select(ITEMS, Comparator.naturalOrder(), 20, 0)).isEmpty();
+    }
+}
@@ -0,0 +1,199 @@
+package edu.northeastern.cs5500.starterbot.repository;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.northeastern.cs5500.starterbot.model.User;
+import java.time.Duration;
+import java.util.Collection;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+public class WriteBehindRepositoryTest {
+    static final String DISCORD_ID_1 = "testUser1";
+    static final String DISCORD_ID_2 = "testUser2";
+    static final String DISCORD_ID_3 = "testUser3";
+    static final String CITY = "Seattle";
+
+    /** Counts the documents written to the backing repository. */
+    static class CountingRepository extends InMemoryRepository<User> {
+        int documentsWritten;
+        int batchesWritten;
+        boolean failWrites;
+
+        @Override
+        public User update(@Nonnull User item) {
+            if (failWrites) {
+                throw new IllegalStateException("The backing store is down");
+            }
+            return super.update(item);
+        }
+
+        @Override
+        public void updateAll(@Nonnull Collection<User> items) {
+            if (failWrites) {
+                throw new IllegalStateException("The backing store is down");
+            }
+            batchesWritten++;
+            documentsWritten += items.size();
+            super.updateAll(items);
+        }
+    }
+
+    CountingRepository backingRepository;
+    WriteBehindRepository<User> repository;
+
+    @BeforeEach
+    void initializeRepository() {
+        backingRepository = new CountingRepository();
+        // Long enough that the scheduled flush never runs during a test
+        repository = new WriteBehindRepository<>(backingRepository, Duration.ofHours(1), 100);
+    }
+
+    @AfterEach
+    void closeRepository() {
+        repository.close();
+    }
+
+    private User createUser(String discordUserId) {
+        var user = new User();
+        user.setDiscordUserId(discordUserId);
+        return repository.add(user);
+    }
+
+    private User copyOf(User user) {
+        var copy = new User();
+        copy.setId(user.getId());
+        copy.setDiscordUserId(user.getDiscordUserId());
+        copy.setCityOfResidence(user.getCityOfResidence());
+        copy.setStateOfResidence(user.getStateOfResidence());
+        return copy;
+    }
+
+    @Test
+    void testRepeatedUpdatesAreCoalescedIntoOneWrite() {
+        var user = createUser(DISCORD_ID_1);
+
+        for (int i = 0; i < 10; i++) {
+            var updated = copyOf(user);
+            updated.setCityOfResidence(CITY + i);
+            repository.update(updated);
+        }
+        repository.flush();
+
+        assertThat(backingRepository.batchesWritten).isEqualTo(1);
+        assertThat(backingRepository.documentsWritten).isEqualTo(1);
+        assertThat(backingRepository.get(user.getId()).getCityOfResidence()).isEqualTo(CITY + 9);
+        assertThat(repository.getCoalescingRatio()).isEqualTo(10.0);
+    }
+
+    @Test
+    void testConditionalUpdatesAreCoalescedIntoOneWrite() {
+        var user = createUser(DISCORD_ID_1);
+
+        for (int i = 0; i < 10; i++) {
+            int city = i;
+            repository.updateWithRetry(user.getId(), u -> u.setCityOfResidence(CITY + city));
+        }
+        assertThat(backingRepository.documentsWritten).isEqualTo(0);
+        repository.flush();
+
+        assertThat(backingRepository.batchesWritten).isEqualTo(1);
+        assertThat(backingRepository.documentsWritten).isEqualTo(1);
+        var stored = backingRepository.get(user.getId());
+        assertThat(stored.getCityOfResidence()).isEqualTo(CITY + 9);
+        assertThat(stored.getVersion()).isEqualTo(user.getVersion() + 10);
+    }
+
+    @Test
+    void testAConditionalUpdateOfAStaleVersionIsRejected() {
+        var user = createUser(DISCORD_ID_1);
+        long version = user.getVersion();
+        repository.updateWithRetry(user.getId(), u -> u.setCityOfResidence(CITY));
+
+        var stale = copyOf(user);
+        stale.setStateOfResidence("WA");
+
+        assertThat(repository.compareAndUpdate(stale, version)).isFalse();
+        repository.flush();
+        var stored = backingRepository.get(user.getId());
+        assertThat(stored.getCityOfResidence()).isEqualTo(CITY);
+        assertThat(stored.getStateOfResidence()).isNull();
+    }
+
+    @Test
+    void testBufferedUpdatesAreVisibleBeforeTheyAreFlushed() {
+        var user = createUser(DISCORD_ID_1);
+
+        var updated = copyOf(user);
+        updated.setDiscordUserId(DISCORD_ID_2);
+        repository.update(updated);
+
+        assertThat(repository.get(user.getId())).isEqualTo(updated);
+        assertThat(repository.findOne("discordUserId", DISCORD_ID_2)).isEqualTo(updated);
+        // The backing store still has the old id, but the buffered version no longer matches it
+        assertThat(repository.findOne("discordUserId", DISCORD_ID_1)).isNull();
+    }
+
+    @Test
+    void testQueriesSeeBufferedUpdates() {
+        var user = createUser(DISCORD_ID_1);
+
+        var updated = copyOf(user);
+        updated.setCityOfResidence(CITY);
+        repository.update(updated);
+
+        assertThat(repository.findMany("cityOfResidence", CITY)).containsExactly(updated);
+    }
+
+    @Test
+    void testFlushIsForcedOnceTooManyItemsArePending() {
+        repository.close();
+        repository = new WriteBehindRepository<>(backingRepository, Duration.ofHours(1), 2);
+
+        repository.update(copyOf(createUser(DISCORD_ID_1)));
+        assertThat(backingRepository.batchesWritten).isEqualTo(0);
+
+        repository.update(copyOf(createUser(DISCORD_ID_2)));
+        assertThat(backingRepository.batchesWritten).isEqualTo(1);
+        assertThat(backingRepository.documentsWritten).isEqualTo(2);
+    }
+
+    @Test
+    void testDeleteDropsThePendingUpdate() {
+        var user = createUser(DISCORD_ID_1);
+        repository.update(copyOf(user));
+
+        repository.delete(user.getId());
+        repository.flush();
+
+        assertThat(repository.get(user.getId())).isNull();
+        assertThat(backingRepository.count()).isEqualTo(0);
+    }
+
+    @Test
+    void testAFullBufferWritesThroughWhileTheStoreIsFailing() {
+        repository.close();
+        repository = new WriteBehindRepository<>(backingRepository, Duration.ofHours(1), 2);
+        var first = createUser(DISCORD_ID_1);
+        var second = createUser(DISCORD_ID_2);
+        var third = createUser(DISCORD_ID_3);
+        backingRepository.failWrites = true;
+
+        // Failed flushes are logged, and the updates stay buffered for the next one
+        repository.update(copyOf(first));
+        repository.update(copyOf(second));
+        assertThat(repository.pending).hasSize(2);
+
+        assertThrows(IllegalStateException.class, () -> repository.update(copyOf(third)));
+        assertThat(repository.pending).hasSize(2);
+
+        backingRepository.failWrites = false;
+        repository.flush();
+        assertThat(repository.pending).isEmpty();
+        assertThat(backingRepository.documentsWritten).isEqualTo(2);
+    }
+}
@@ -0,0 +1,236 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import static com.google.common.truth.Truth.assertThat;
+import static edu.northeastern.cs5500.starterbot.model.TestListings.createListing;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.repository.InMemoryRepository;
+import edu.northeastern.cs5500.starterbot.repository.Query;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+class ListingSearchIndexTest {
+    static final String GUILD_ID = "294764645159495548";
+    static final String OTHER_GUILD_ID = "136278926191362058";
+
+    InMemoryRepository<Listing> repository;
+    ListingSearchIndex searchIndex;
+
+    @BeforeEach
+    void createIndex() {
+        repository = new InMemoryRepository<>();
+        searchIndex = new ListingSearchIndex(repository, Runnable::run);
+    }
+
+    private Listing addListing(String guildId, String title, String description) {
+        var listing = createListing(guildId, title, description);
+        searchIndex.add(repository.add(listing));
+        return listing;
+    }
+
+    @Test
+    void testTokenizeNormalizesCaseAndAccents() {
+        assertThat(Tokenizer.tokenize("Caf\u00e9-Racer, 56CM!"))
+                .containsExactly("cafe", "racer", "56cm")
+                .inOrder();
+        assertThat(Tokenizer.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void testSearchLoadsListingsStoredBeforeTheFirstSearch() {
+        var listing = createListing(GUILD_ID, "Road bike", "");
+        repository.add(listing);
+
+        assertThat(searchIndex.search(GUILD_ID, "bike")).containsExactly(listing);
+    }
+
+    @Test
+    void testSearchRequiresEveryTermAndMatchesPrefixes() {
+        var roadBike = addListing(GUILD_ID, "Road bike", "Carbon frame");
+        var mountainBike = addListing(GUILD_ID, "Mountain bike", "Steel frame");
+        addListing(GUILD_ID, "Desk lamp", "Brass");
+
+        assertThat(searchIndex.search(GUILD_ID, "bik")).containsExactly(roadBike, mountainBike);
+        assertThat(searchIndex.search(GUILD_ID, "bike carb")).containsExactly(roadBike);
+        assertThat(searchIndex.search(GUILD_ID, "bike brass")).isEmpty();
+        assertThat(searchIndex.search(GUILD_ID, "!?")).isEmpty();
+    }
+
+    @Test
+    void testSearchToleratesTypos() {
+        var roadBike = addListing(GUILD_ID, "Road bike", "Carbon frame");
+        var mountainBike = addListing(GUILD_ID, "Mountain bike", "Steel frame");
+        addListing(GUILD_ID, "Desk lamp", "Brass");
+
+        assertThat(searchIndex.search(GUILD_ID, "bkie")).containsExactly(roadBike, mountainBike);
+        assertThat(searchIndex.search(GUILD_ID, "mountian bike")).containsExactly(mountainBike);
+        assertThat(searchIndex.search(GUILD_ID, "road bkie carbn")).containsExactly(roadBike);
+        // Too far from any word
+        assertThat(searchIndex.search(GUILD_ID, "bkiez")).isEmpty();
+    }
+
+    @Test
+    void testCorrectSpellingRanksAboveTypo() {
+        var lamp = addListing(GUILD_ID, "Desk lamp", "");
+        var lamb = addListing(GUILD_ID, "Stuffed lamb", "");
+
+        assertThat(searchIndex.search(GUILD_ID, "lamb")).containsExactly(lamb);
+        assertThat(searchIndex.search(GUILD_ID, "lmap")).containsExactly(lamp);
+    }
+
+    @Test
+    void testSearchRanksTitleMatchesFirst() {
+        var inDescription = addListing(GUILD_ID, "Helmet", "Fits a road bike");
+        var inTitle = addListing(GUILD_ID, "Road bike", "Carbon frame");
+
+        assertThat(searchIndex.search(GUILD_ID, "bike"))
+                .containsExactly(inTitle, inDescription)
+                .inOrder();
+    }
+
+    @Test
+    void testSearchOnlyReturnsListingsInTheGuild() {
+        var listing = addListing(GUILD_ID, "Road bike", "");
+        addListing("other guild", "Road bike", "");
+
+        assertThat(searchIndex.search(GUILD_ID, "road")).containsExactly(listing);
+    }
+
+    @Test
+    void testRemovedListingsAreNoLongerFound() {
+        var listing = addListing(GUILD_ID, "Road bike", "");
+        assertThat(searchIndex.search(GUILD_ID, "bike")).containsExactly(listing);
+
+        repository.delete(listing.getId());
+        searchIndex.remove(listing);
+
+        assertThat(searchIndex.search(GUILD_ID, "bike")).isEmpty();
+    }
+
+    @Test
+    void testUpdatedListingIsReindexed() {
+        var listing = addListing(GUILD_ID, "Road bike", "");
+        assertThat(searchIndex.search(GUILD_ID, "bike")).containsExactly(listing);
+
+        listing.setTitle("Desk lamp");
+        searchIndex.add(repository.update(listing));
+
+        assertThat(searchIndex.search(GUILD_ID, "bike")).isEmpty();
+        assertThat(searchIndex.search(GUILD_ID, "lamp")).containsExactly(listing);
+    }
+
+    @Test
+    void testSearchAsyncMatchesSearch() {
+        var listing = addListing(GUILD_ID, "Road bike", "");
+
+        var page =
+                searchIndex
+                        .searchAsync(
+                                GUILD_ID,
+                                "road",
+                                LocationFilter.ANYWHERE,
+                                ListingSort.BY_RELEVANCE,
+                                0,
+                                0)
+                        .join();
+        assertThat(page.getListings()).containsExactly(listing);
+    }
+
+    @Test
+    void testLeastRecentlySearchedGuildIsDroppedAndReloaded() {
+        searchIndex = new ListingSearchIndex(repository, Runnable::run, 1, Duration.ofHours(1));
+        var listing = addListing(GUILD_ID, "Road bike", "");
+        var otherListing = addListing(OTHER_GUILD_ID, "Road bike", "");
+
+        assertThat(searchIndex.search(GUILD_ID, "bike")).containsExactly(listing);
+        assertThat(searchIndex.search(OTHER_GUILD_ID, "bike")).containsExactly(otherListing);
+        assertThat(searchIndex.guildIndexes.asMap()).doesNotContainKey(GUILD_ID);
+
+        // A dropped guild is loaded again, with the listings stored while it was not indexed
+        var newListing = addListing(GUILD_ID, "Mountain bike", "");
+        assertThat(searchIndex.search(GUILD_ID, "bike")).containsExactly(listing, newListing);
+    }
+
+    private Listing addPricedListing(String title, String cost, String datePosted) {
+        var listing = createListing(GUILD_ID, title, "");
+        listing.getFields().setCost(cost);
+        listing.getFields().setDatePosted(datePosted);
+        searchIndex.add(repository.add(listing));
+        return listing;
+    }
+
+    @Test
+    void testSearchReturnsOnePageInTheRequestedOrder() {
+        var cheap = addPricedListing("Cheap bike", "$ 5", "05/03/2023 10:00:00");
+        var pricey = addPricedListing("Pricey bike", "$ 500", "05/01/2023 10:00:00");
+        var middle = addPricedListing("Middle bike", "$ 50", "05/02/2023 10:00:00");
+        var unpriced = addPricedListing("Free bike", "make an offer", "05/04/2023 10:00:00");
+        addPricedListing("Desk lamp", "$ 1", "05/05/2023 10:00:00");
+
+        var anywhere = LocationFilter.ANYWHERE;
+        var byPrice = new ListingSort(ListingSort.Key.PRICE, Query.Order.ASCENDING);
+        var firstPage = searchIndex.search(GUILD_ID, "bike", anywhere, byPrice, 0, 2);
+        assertThat(firstPage.getListings()).containsExactly(unpriced, cheap).inOrder();
+        assertThat(firstPage.getTotalEstimate()).isEqualTo(4);
+        assertThat(firstPage.hasNext()).isTrue();
+
+        var secondPage = searchIndex.search(GUILD_ID, "bike", anywhere, byPrice, 2, 2);
+        assertThat(secondPage.getListings()).containsExactly(middle, pricey).inOrder();
+        assertThat(secondPage.hasNext()).isFalse();
+
+        var newestFirst = new ListingSort(ListingSort.Key.DATE, Query.Order.DESCENDING);
+        var newestPage = searchIndex.search(GUILD_ID, "bike", anywhere, newestFirst, 0, 3);
+        assertThat(newestPage.getListings())
+                .containsExactly(unpriced, cheap, middle)
+                .inOrder();
+    }
+
+    private Listing addListingIn(String title, String state, String city) {
+        var listing = createListing(GUILD_ID, title, "");
+        listing.setState(state);
+        listing.setCity(city);
+        searchIndex.add(repository.add(listing));
+        return listing;
+    }
+
+    @Test
+    void testLocationFilterOnlyMatchesListingsInTheLocation() {
+        // Loads the guild, so the listings below are indexed as they are added
+        searchIndex.search(GUILD_ID, "bike");
+        var seattle = addListingIn("Road bike", "WA", "Seattle");
+        var spokane = addListingIn("Mountain bike", "WA", "Spokane");
+        var boston = addListingIn("Fixed gear bike", "MA", "Boston");
+        var nowhere = addListingIn("Kids bike", null, null);
+
+        assertThat(search("bike", LocationFilter.ANYWHERE))
+                .containsExactly(seattle, spokane, boston, nowhere);
+        assertThat(search("bike", new LocationFilter("WA", null)))
+                .containsExactly(seattle, spokane);
+        assertThat(search("bike", new LocationFilter("WA", "Spokane"))).containsExactly(spokane);
+        // Cities are matched whatever their case and spacing
+        assertThat(search("bike", new LocationFilter("WA", " spokane "))).containsExactly(spokane);
+        assertThat(search("road", new LocationFilter("WA", "Spokane"))).isEmpty();
+        assertThat(search("bike", new LocationFilter("TX", null))).isEmpty();
+
+        // A seller who moved takes their listing along
+        seattle.setState("MA");
+        seattle.setCity("Boston");
+        searchIndex.add(repository.update(seattle));
+        assertThat(search("bike", new LocationFilter("WA", null))).containsExactly(spokane);
+        assertThat(search("bike", new LocationFilter("MA", "Boston")))
+                .containsExactly(seattle, boston);
+
+        repository.delete(boston.getId());
+        searchIndex.remove(boston);
+        assertThat(search("bike", new LocationFilter("MA", null))).containsExactly(seattle);
+    }
+
+    private List<Listing> search(String query, LocationFilter location) {
+        return searchIndex
+                .search(GUILD_ID, query, location, ListingSort.BY_RELEVANCE, 0, 0)
+                .getListings();
+    }
+}
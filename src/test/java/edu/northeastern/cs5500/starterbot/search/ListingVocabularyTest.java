@@ -0,0 +1,69 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import static com.google.common.truth.Truth.assertThat;
+import static edu.northeastern.cs5500.starterbot.model.TestListings.createListing;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.repository.InMemoryRepository;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+class ListingVocabularyTest {
+    static final String GUILD_ID = "294764645159495548";
+    static final String OTHER_GUILD_ID = "136278926191362058";
+
+    InMemoryRepository<Listing> repository;
+    ListingVocabulary vocabulary;
+
+    @BeforeEach
+    void createVocabulary() {
+        repository = new InMemoryRepository<>();
+        vocabulary = new ListingVocabulary(repository);
+    }
+
+    @Test
+    void testMisspelledWordsAreReplacedByTheClosestWordOfTheGuild() {
+        repository.add(createListing(GUILD_ID, "Mountain bike", "Carbon frame"));
+        repository.add(createListing(OTHER_GUILD_ID, "Desk lamp", ""));
+
+        assertThat(vocabulary.correct(GUILD_ID, List.of("montain", "bike")))
+                .containsExactly("mountain", "bike")
+                .inOrder();
+        assertThat(vocabulary.correct(GUILD_ID, List.of("carbn"))).containsExactly("carbon");
+        // Words of other guilds are not suggested
+        assertThat(vocabulary.correct(GUILD_ID, List.of("lmap"))).isEmpty();
+    }
+
+    @Test
+    void testWordsOfListingsAddedAfterLoadingAreLearned() {
+        repository.add(createListing(GUILD_ID, "Road bike", ""));
+        assertThat(vocabulary.correct(GUILD_ID, List.of("lmap"))).isEmpty();
+
+        vocabulary.add(repository.add(createListing(GUILD_ID, "Desk lamp", "")));
+
+        assertThat(vocabulary.correct(GUILD_ID, List.of("lmap"))).containsExactly("lamp");
+    }
+
+    @Test
+    void testWordsPastTheLimitOfAGuildAreNotHeld() {
+        vocabulary = new ListingVocabulary(repository, 10, Duration.ofMinutes(1), 2);
+        repository.add(createListing(GUILD_ID, "Road bike", "Carbon frame"));
+
+        assertThat(vocabulary.correct(GUILD_ID, List.of("bkie"))).containsExactly("bike");
+        assertThat(vocabulary.correct(GUILD_ID, List.of("carbn"))).isEmpty();
+    }
+
+    @Test
+    void testRemovedGuildsAreLoadedAgain() {
+        vocabulary.correct(GUILD_ID, List.of("bike"));
+        repository.add(createListing(GUILD_ID, "Road bike", ""));
+        assertThat(vocabulary.correct(GUILD_ID, List.of("bkie"))).isEmpty();
+
+        vocabulary.removeGuild(GUILD_ID);
+
+        assertThat(vocabulary.correct(GUILD_ID, List.of("bkie"))).containsExactly("bike");
+    }
+}
@@ -0,0 +1,30 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+class MongoDBListingSearchTest {
+
+    @Test
+    void testEveryTermIsRequired() {
+        assertThat(MongoDBListingSearch.toTextSearch(List.of("road", "bike")))
+                .isEqualTo("\"road\" \"bike\"");
+    }
+
+    @Test
+    void testQueryIsTokenizedBeforeQuoting() {
+        // Quotes typed by the user cannot end a phrase early
+        var queryTerms = Tokenizer.tokenize("road \"bike");
+        assertThat(MongoDBListingSearch.toTextSearch(queryTerms)).isEqualTo("\"road\" \"bike\"");
+    }
+
+    @Test
+    void testTermsAreSentAsTyped() {
+        // Phrases are matched against the raw text, so "bikes" requires "bikes" in the listing
+        assertThat(MongoDBListingSearch.toTextSearch(Tokenizer.tokenize("Bikes")))
+                .isEqualTo("\"bikes\"");
+    }
+}
@@ -0,0 +1,113 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.model.ListingFields;
+import edu.northeastern.cs5500.starterbot.repository.InMemoryRepository;
+import edu.northeastern.cs5500.starterbot.repository.Query;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+class SearchResultCacheTest {
+    static final String GUILD_ID = "294764645159495548";
+    static final String OTHER_GUILD_ID = "other guild";
+
+    InMemoryRepository<Listing> repository;
+    SearchResultCache searchResultCache;
+
+    @BeforeEach
+    void createCache() {
+        repository = new InMemoryRepository<>();
+        searchResultCache =
+                new SearchResultCache(
+                        new ListingSearchIndex(repository, Runnable::run),
+                        SearchResultCache.DEFAULT_MAX_SIZE,
+                        SearchResultCache.DEFAULT_TIME_TO_LIVE);
+    }
+
+    private Listing addListing(String guildId, String title) {
+        var listing =
+                Listing.builder()
+                        .discordUserId("631666734125987209")
+                        .guildId(guildId)
+                        .title(title)
+                        .url("test_url")
+                        .images(List.of())
+                        .fields(
+                                ListingFields.builder()
+                                        .cost("$ 10.00")
+                                        .shippingIncluded(false)
+                                        .condition("Good")
+                                        .description("")
+                                        .datePosted("05/01/2023 10:00:00")
+                                        .build())
+                        .build();
+        searchResultCache.add(repository.add(listing));
+        return listing;
+    }
+
+    @Test
+    void testSearchesThatTokenizeTheSameShareAnEntry() {
+        var listing = addListing(GUILD_ID, "Road bike");
+
+        assertThat(searchResultCache.search(GUILD_ID, "road bike")).containsExactly(listing);
+        assertThat(searchResultCache.search(GUILD_ID, "Road, BIKE!")).containsExactly(listing);
+        var page =
+                searchResultCache
+                        .searchAsync(
+                                GUILD_ID,
+                                "road bike",
+                                LocationFilter.ANYWHERE,
+                                ListingSort.BY_RELEVANCE,
+                                0,
+                                0)
+                        .join();
+        assertThat(page.getListings()).containsExactly(listing);
+
+        assertThat(searchResultCache.getStats().missCount()).isEqualTo(1);
+        assertThat(searchResultCache.getStats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testTheLocationSortAndPageArePartOfTheKey() {
+        addListing(GUILD_ID, "Road bike");
+
+        var anywhere = LocationFilter.ANYWHERE;
+        var byPrice = new ListingSort(ListingSort.Key.PRICE, Query.Order.ASCENDING);
+        searchResultCache.search(GUILD_ID, "bike", anywhere, ListingSort.BY_RELEVANCE, 0, 10);
+        searchResultCache.search(GUILD_ID, "bike", anywhere, byPrice, 0, 10);
+        searchResultCache.search(GUILD_ID, "bike", anywhere, byPrice, 10, 10);
+        searchResultCache.search(
+                GUILD_ID, "bike", new LocationFilter("WA", null), byPrice, 10, 10);
+
+        assertThat(searchResultCache.getStats().missCount()).isEqualTo(4);
+        assertThat(searchResultCache.getStats().hitCount()).isEqualTo(0);
+    }
+
+    @Test
+    void testChangesOnlyDropTheEntriesOfTheirGuild() {
+        var roadBike = addListing(GUILD_ID, "Road bike");
+        var otherBike = addListing(OTHER_GUILD_ID, "Road bike");
+        searchResultCache.search(GUILD_ID, "bike");
+        searchResultCache.search(OTHER_GUILD_ID, "bike");
+
+        var mountainBike = addListing(GUILD_ID, "Mountain bike");
+
+        assertThat(searchResultCache.search(GUILD_ID, "bike"))
+                .containsExactly(mountainBike, roadBike);
+        assertThat(searchResultCache.search(OTHER_GUILD_ID, "bike")).containsExactly(otherBike);
+        assertThat(searchResultCache.getStats().hitCount()).isEqualTo(1);
+
+        repository.delete(roadBike.getId());
+        searchResultCache.remove(roadBike);
+        assertThat(searchResultCache.search(GUILD_ID, "bike")).containsExactly(mountainBike);
+
+        repository.deleteWhere(Map.of("guildId", OTHER_GUILD_ID));
+        searchResultCache.removeGuild(OTHER_GUILD_ID);
+        assertThat(searchResultCache.search(OTHER_GUILD_ID, "bike")).isEmpty();
+    }
+}
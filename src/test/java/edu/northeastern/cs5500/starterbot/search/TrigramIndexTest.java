@@ -0,0 +1,44 @@
+package edu.northeastern.cs5500.starterbot.search;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+class TrigramIndexTest {
+
+    @Test
+    void testEditDistance() {
+        assertThat(TrigramIndex.editDistance("bike", "bike")).isEqualTo(0);
+        assertThat(TrigramIndex.editDistance("bike", "bikes")).isEqualTo(1);
+        assertThat(TrigramIndex.editDistance("bike", "bake")).isEqualTo(1);
+        // Swapped letters are a single edit
+        assertThat(TrigramIndex.editDistance("bkie", "bike")).isEqualTo(1);
+        assertThat(TrigramIndex.editDistance("kitten", "sitting")).isEqualTo(3);
+        assertThat(TrigramIndex.editDistance("", "abc")).isEqualTo(3);
+    }
+
+    @Test
+    void testSimilarFindsTermsWithinTheAllowedEdits() {
+        var index = new TrigramIndex();
+        index.add("bike");
+        index.add("mountain");
+        index.add("lamp");
+
+        assertThat(index.similar("bkie").keySet()).containsExactly("bike");
+        assertThat(index.similar("montain").keySet()).containsExactly("mountain");
+        assertThat(index.similar("mouxxxain")).isEmpty();
+        // Too short to guess at
+        assertThat(index.similar("bi")).isEmpty();
+        assertThat(index.similar("bike")).containsExactly("bike", 1.0);
+    }
+
+    @Test
+    void testRemovedTermsAreNotSuggested() {
+        var index = new TrigramIndex();
+        index.add("bike");
+        index.remove("bike");
+
+        assertThat(index.similar("bkie")).isEmpty();
+    }
+}
@@ -0,0 +1,58 @@
+package edu.northeastern.cs5500.starterbot.service;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import edu.northeastern.cs5500.starterbot.model.Guild;
+import edu.northeastern.cs5500.starterbot.model.GuildMembership;
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.model.User;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+public class IndexDefinitionTest {
+
+    @Test
+    void testUniqueIndexesAreDeclaredOnDiscordIds() {
+        assertThat(IndexDefinition.forModel(Guild.class))
+                .contains(new IndexDefinition(List.of("guildId"), true));
+        assertThat(IndexDefinition.forModel(User.class))
+                .contains(new IndexDefinition(List.of("discordUserId"), true));
+    }
+
+    @Test
+    void testCompoundIndexIsDeclaredOnListing() {
+        var definition = new IndexDefinition(List.of("guildId", "discordUserId"), false);
+
+        assertThat(IndexDefinition.forModel(Listing.class)).contains(definition);
+        assertThat(definition.getName()).isEqualTo("guildId_1_discordUserId_1");
+    }
+
+    @Test
+    void testListingsCanBeFilteredByStateOrByCity() {
+        var definition = new IndexDefinition(List.of("guildId", "state", "city"), false);
+
+        assertThat(IndexDefinition.forModel(Listing.class)).contains(definition);
+        assertThat(definition.supports(Set.of("guildId", "state"))).isTrue();
+        assertThat(definition.supports(Set.of("guildId", "state", "city"))).isTrue();
+    }
+
+    @Test
+    void testMembershipsCanBeFoundByGuildOrByUser() {
+        var definitions = IndexDefinition.forModel(GuildMembership.class);
+
+        assertThat(definitions)
+                .contains(new IndexDefinition(List.of("guildId", "discordUserId"), true));
+        assertThat(definitions).contains(new IndexDefinition(List.of("discordUserId"), false));
+    }
+
+    @Test
+    void testIndexSupportsQueriesOnItsPrefix() {
+        var definition = new IndexDefinition(List.of("guildId", "discordUserId"), false);
+
+        assertThat(definition.supports(Set.of("guildId"))).isTrue();
+        assertThat(definition.supports(Set.of("guildId", "discordUserId"))).isTrue();
+        assertThat(definition.supports(Set.of("discordUserId"))).isFalse();
+    }
+}
@@ -0,0 +1,152 @@
+package edu.northeastern.cs5500.starterbot.service.codec;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.bson.codecs.configuration.CodecRegistries.fromProviders;
+import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
+
+import com.mongodb.MongoClientSettings;
+import edu.northeastern.cs5500.starterbot.model.Guild;
+import edu.northeastern.cs5500.starterbot.model.GuildMembership;
+import edu.northeastern.cs5500.starterbot.model.Listing;
+import edu.northeastern.cs5500.starterbot.model.ListingFields;
+import edu.northeastern.cs5500.starterbot.model.MigrationRecord;
+import edu.northeastern.cs5500.starterbot.model.User;
+import edu.northeastern.cs5500.starterbot.service.MongoDBService;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.codecs.pojo.PojoCodecProvider;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("null")
+public class ModelCodecProviderTest {
+    static final CodecRegistry HAND_WRITTEN = MongoDBService.createCodecRegistry();
+    static final CodecRegistry REFLECTIVE =
+            fromRegistries(
+                    MongoClientSettings.getDefaultCodecRegistry(),
+                    fromProviders(PojoCodecProvider.builder().automatic(true).build()));
+
+    private static <T> BsonDocument encode(Codec<T> codec, T value) {
+        var document = new BsonDocument();
+        codec.encode(
+                new BsonDocumentWriter(document),
+                value,
+                EncoderContext.builder().isEncodingCollectibleDocument(true).build());
+        return document;
+    }
+
+    private static <T> T decode(Codec<T> codec, BsonDocument document) {
+        return codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+    }
+
+    /**
+     * Checks that the hand-written codec writes the same document as the POJO codec, and that
+     * each codec reads what the other wrote.
+     */
+    private static <T> void assertCompatible(Class<T> clazz, T value) {
+        var handWrittenCodec = HAND_WRITTEN.get(clazz);
+        var reflectiveCodec = REFLECTIVE.get(clazz);
+
+        var handWrittenDocument = encode(handWrittenCodec, value);
+        assertThat(handWrittenDocument).isEqualTo(encode(reflectiveCodec, value));
+        assertThat(decode(reflectiveCodec, handWrittenDocument)).isEqualTo(value);
+        assertThat(decode(handWrittenCodec, handWrittenDocument)).isEqualTo(value);
+    }
+
+    private static Listing createListing() {
+        return Listing.builder()
+                .id(new ObjectId())
+                .messageId(1234567L)
+                .discordUserId("testUser1")
+                .guildId("12345")
+                .state("WA")
+                .city("Seattle")
+                .title("Bike")
+                .url("test_url")
+                .images(new ArrayList<>(List.of("image1", "image2")))
+                .fields(
+                        ListingFields.builder()
+                                .cost("$ 12.50")
+                                .priceMinor(1250L)
+                                .currency("USD")
+                                .shippingIncluded(true)
+                                .condition("Good")
+                                .description("A bike")
+                                .datePosted("05/01/2023 10:00:00")
+                                .postedAt(Instant.parse("2023-05-01T10:00:00Z"))
+                                .build())
+                .build();
+    }
+
+    @Test
+    void testGuildMatchesThePojoCodec() {
+        assertCompatible(
+                Guild.class,
+                new Guild(new ObjectId(), "12345", "owner", "channel", Set.of("user1")));
+        // Unset fields are left out rather than written as null
+        var guild = new Guild();
+        guild.setId(new ObjectId());
+        guild.setGuildId("12345");
+        assertCompatible(Guild.class, guild);
+    }
+
+    @Test
+    void testGuildMembershipMatchesThePojoCodec() {
+        assertCompatible(
+                GuildMembership.class, new GuildMembership(new ObjectId(), "12345", "user1"));
+    }
+
+    @Test
+    void testMigrationRecordMatchesThePojoCodec() {
+        // Stored with millisecond precision
+        var completedAt = Instant.ofEpochMilli(1_700_000_000_000L);
+        assertCompatible(
+                MigrationRecord.class,
+                new MigrationRecord(new ObjectId(), "split-guild-membership", completedAt));
+    }
+
+    @Test
+    void testListingMatchesThePojoCodec() {
+        assertCompatible(Listing.class, createListing());
+        // Listings stored before the price and posting time were typed
+        var listing = createListing();
+        listing.getFields().setPriceMinor(null);
+        listing.getFields().setCurrency(null);
+        listing.getFields().setPostedAt(null);
+        // and before the location of the seller was stored
+        listing.setState(null);
+        listing.setCity(null);
+        assertCompatible(Listing.class, listing);
+    }
+
+    @Test
+    void testUserWithListingDraftMatchesThePojoCodec() {
+        var user = new User(new ObjectId(), "user1", "WA", "Seattle", null, 3);
+        assertCompatible(User.class, user);
+
+        var draft = createListing();
+        draft.setId(null);
+        draft.setMessageId(null);
+        user.setCurrentListing(draft);
+        assertCompatible(User.class, user);
+    }
+
+    @Test
+    void testUnknownFieldsAreSkipped() {
+        var codec = HAND_WRITTEN.get(GuildMembership.class);
+        var membership = new GuildMembership(new ObjectId(), "12345", "user1");
+        var document = encode(codec, membership);
+        document.put("removedField", new BsonDocument("nested", document.get("guildId")));
+
+        assertThat(decode(codec, document)).isEqualTo(membership);
+    }
+}